@@ -0,0 +1,37 @@
+package com.bisayapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Programs used by the JMH benchmarks.
+ *
+ * A source name is either a sample ("sample:increment4_nested_loops.bpp", loaded from
+ * the samples bundled on the classpath) or a synthetically scaled program
+ * ("scaled:1000", CorpusGenerator's MIXED shape with 1000 units), so lexer and parser
+ * cost can be measured as size grows.
+ */
+final class BenchmarkSources {
+    private BenchmarkSources() {}
+
+    static String load(String name) {
+        if (name.startsWith("sample:")) return sample(name.substring("sample:".length()));
+        if (name.startsWith("scaled:")) return scaled(Integer.parseInt(name.substring("scaled:".length())));
+        throw new IllegalArgumentException("Unknown benchmark source: " + name);
+    }
+
+    private static String sample(String file) {
+        try (InputStream in = BenchmarkSources.class.getResourceAsStream("/samples/" + file)) {
+            if (in == null) throw new IllegalArgumentException("Sample not found: " + file);
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static String scaled(int units) {
+        return CorpusGenerator.generate(CorpusGenerator.Shape.MIXED, units);
+    }
+}
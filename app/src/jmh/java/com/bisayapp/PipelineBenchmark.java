@@ -0,0 +1,105 @@
+package com.bisayapp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Baseline for each phase of a run: Lexer.scanTokens, Parser.parseProgram,
+ * Interpreter.interpret (on a pre-parsed program) and the full Bisaya.runSource pipeline.
+ *
+ * Run with: gradlew :app:jmh  (results in app/build/results/jmh/results.json)
+ * Restrict with e.g. -Pjmh.includes=PipelineBenchmark.lex
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class PipelineBenchmark {
+
+    /** Samples without DAWAT or runtime errors, then synthetic programs of growing size */
+    @Param({
+        "sample:comments_demo.bpp",
+        "sample:increment3_complex.bpp",
+        "sample:increment4_nested_loops.bpp",
+        "sample:increment5_nested_while.bpp",
+        "sample:pattern_generator.bpp",
+        "sample:pattern_generator_demo.bpp",
+        "scaled:100",
+        "scaled:1000",
+        "scaled:10000"
+    })
+    public String program;
+
+    private String source;
+    private List<Token> tokens;
+    private TokenBuffer packed;
+    private List<Stmt> statements;
+    private final DiscardingIO io = new DiscardingIO();
+
+    @Setup
+    public void setUp() throws Exception {
+        source = BenchmarkSources.load(program);
+        tokens = new Lexer(source).scanTokens();
+        packed = new Lexer(source).scanTokenBuffer();
+        statements = new Parser(tokens).parseProgram();
+        // Fail fast on a program that cannot run without input
+        Bisaya.runSource(source, io);
+    }
+
+    @Benchmark
+    public List<Token> lex() {
+        return new Lexer(source).scanTokens();
+    }
+
+    @Benchmark
+    public List<Stmt> parse() {
+        return new Parser(tokens).parseProgram();
+    }
+
+    @Benchmark
+    public TokenBuffer lexPacked() {
+        return new Lexer(source).scanTokenBuffer();
+    }
+
+    @Benchmark
+    public List<Stmt> parsePacked() {
+        return new Parser(packed).parseProgram();
+    }
+
+    @Benchmark
+    public long interpret() {
+        new Interpreter(io).interpret(statements);
+        return io.chars;
+    }
+
+    @Benchmark
+    public long runSource() throws Exception {
+        Bisaya.runSource(source, io);
+        return io.chars;
+    }
+
+    /** Counts output instead of printing it, so console speed is not measured */
+    static final class DiscardingIO implements IOHandler {
+        long chars;
+
+        @Override public void writeOutput(String text) { chars += text.length(); }
+        @Override public void bufferOutput(CharSequence text) { chars += text.length(); }
+        @Override public void writeError(String error) { chars += error.length(); }
+        @Override public String readInput(String prompt) { throw new IllegalStateException("No input in benchmarks"); }
+        @Override public boolean hasInput() { return false; }
+    }
+}
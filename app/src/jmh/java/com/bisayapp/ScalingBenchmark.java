@@ -0,0 +1,68 @@
+package com.bisayapp;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Scaling curves per phase over CorpusGenerator shapes.
+ *
+ * Each shape is generated at scale x its base size for scale 1, 4, 16 and 64. If a
+ * phase scales linearly, time per op grows by 4x between neighbouring scales; a bigger
+ * step shows where it stops scaling. Add -prof gc to get allocation per op as well:
+ *
+ *   gradlew :app:jmh -Pjmh.includes=ScalingBenchmark -Pjmh.profilers=gc
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2, time = 2)
+@Measurement(iterations = 3, time = 2)
+@Fork(1)
+public class ScalingBenchmark {
+
+    @Param({ "DECLARATIONS", "NESTED_BLOCKS", "CONCAT_CHAIN", "ELSE_IF_CHAIN", "LOOP", "MIXED" })
+    public CorpusGenerator.Shape shape;
+
+    @Param({ "1", "4", "16", "64" })
+    public int scale;
+
+    private String source;
+    private List<Token> tokens;
+    private List<Stmt> statements;
+    private final PipelineBenchmark.DiscardingIO io = new PipelineBenchmark.DiscardingIO();
+
+    @Setup
+    public void setUp() {
+        source = CorpusGenerator.generate(shape, shape.baseSize * scale);
+        tokens = new Lexer(source).scanTokens();
+        statements = new Parser(tokens).parseProgram();
+    }
+
+    @Benchmark
+    public List<Token> lex() {
+        return new Lexer(source).scanTokens();
+    }
+
+    @Benchmark
+    public List<Stmt> parse() {
+        return new Parser(tokens).parseProgram();
+    }
+
+    @Benchmark
+    public long interpret() {
+        new Interpreter(io).interpret(statements);
+        return io.chars;
+    }
+}
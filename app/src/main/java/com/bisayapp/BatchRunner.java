@@ -0,0 +1,377 @@
+package com.bisayapp;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Stream;
+
+/**
+ * Runs many programs in one JVM: bisaya batch
+ *
+ * Grading a class means hundreds of programs, each against a set of test inputs, and
+ * starting a JVM per run costs far more than the run itself. A batch is a list of jobs,
+ * each one program with at most one input file, run on a fixed pool of threads. Every
+ * job compiles with its own Diagnostics and runs with its own Interpreter,
+ * ConsoleIOHandler over in-memory streams and ResourceGovernor, so jobs share nothing.
+ *
+ * Jobs come from either
+ * - a directory: every *.bpp file under it, run once per input file named after it
+ *   (prog.in, or prog.case.in, next to it), or once without input if there is none;
+ *   with --inputs DIR, run once per *.in file in DIR instead
+ * - a manifest file: one job per line, "program.bpp [input-file]", paths relative to
+ *   the manifest; blank lines and lines starting with # are skipped
+ *
+ * Results are written in job order, one tab-separated line each: program, input,
+ * status, exit code, milliseconds, output, errors. Backslashes, tabs and line breaks
+ * in the columns are written as \\, \t, \n and \r.
+ */
+public final class BatchRunner {
+    static final String USAGE = "Usage: bisaya batch [--vm] [--jobs N] [--timeout-ms N] [--max-steps N]"
+        + " [--max-output BYTES] [--inputs DIR] <directory|manifest> <results.tsv>";
+
+    static final long DEFAULT_TIMEOUT_MS = 10_000;
+    static final long DEFAULT_MAX_OUTPUT = 1 << 20;
+
+    /**
+     * Stack for each pool thread. The parser and tree walker recurse once per nesting
+     * level, so this bounds how deeply a program may nest; deeper programs fail with a
+     * StackOverflowError, which is caught and recorded for that job alone.
+     */
+    static final long JOB_STACK_SIZE = 64L << 20;
+
+    /** How a job ended, with the exit code the single-program CLI would give */
+    enum Status {
+        OK(0), COMPILE_ERROR(65), RUNTIME_ERROR(70), LIMIT_EXCEEDED(70), IO_ERROR(74);
+
+        final int exitCode;
+
+        Status(int exitCode) {
+            this.exitCode = exitCode;
+        }
+    }
+
+    /** One program run; input is null to run without input */
+    record Job(Path program, Path input) {}
+
+    /** Outcome of a job; output and errors are what it wrote to stdout and stderr */
+    record Result(Job job, Status status, long millis, String output, String errors) {}
+
+    private final ExecutionEngine engine;
+    private final int threads;
+    private final long maxSteps;
+    private final long maxOutputBytes;
+    private final Duration timeout;
+
+    /**
+     * @param engine Engine every job runs on
+     * @param threads Jobs run at the same time
+     * @param maxSteps Loop iterations per job, 0 for unlimited
+     * @param maxOutputBytes Output per job, 0 for unlimited
+     * @param timeout Run time per job, null for unlimited
+     */
+    BatchRunner(ExecutionEngine engine, int threads, long maxSteps, long maxOutputBytes, Duration timeout) {
+        this.engine = engine;
+        this.threads = Math.max(threads, 1);
+        this.maxSteps = maxSteps;
+        this.maxOutputBytes = maxOutputBytes;
+        this.timeout = timeout;
+    }
+
+    /**
+     * Entry point for "bisaya batch"
+     *
+     * @param args Arguments after "batch"
+     * @return Process exit code: 0 once all jobs ran (whatever their status), 64 for bad
+     *         arguments, 74 if the jobs or the results file could not be read or written
+     */
+    static int run(String[] args) {
+        ExecutionEngine engine = ExecutionEngine.TREE_WALKER;
+        int threads = Runtime.getRuntime().availableProcessors();
+        long timeoutMs = DEFAULT_TIMEOUT_MS;
+        long maxSteps = 0;
+        long maxOutput = DEFAULT_MAX_OUTPUT;
+        Path inputs = null;
+        int arg = 0;
+        try {
+            for (; arg < args.length - 2; arg++) {
+                switch (args[arg]) {
+                    case "--vm" -> engine = ExecutionEngine.BYTECODE_VM;
+                    case "--jobs" -> threads = Integer.parseInt(args[++arg]);
+                    case "--timeout-ms" -> timeoutMs = Long.parseLong(args[++arg]);
+                    case "--max-steps" -> maxSteps = Long.parseLong(args[++arg]);
+                    case "--max-output" -> maxOutput = Long.parseLong(args[++arg]);
+                    case "--inputs" -> inputs = Path.of(args[++arg]);
+                    default -> throw new IllegalArgumentException(args[arg]);
+                }
+            }
+        } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+            arg = -1;
+        }
+        if (arg != args.length - 2) {
+            System.err.println(USAGE);
+            return 64;
+        }
+        Path source = Path.of(args[arg]);
+        Path resultsFile = Path.of(args[arg + 1]);
+
+        BatchRunner runner = new BatchRunner(engine, threads, maxSteps, maxOutput,
+            timeoutMs > 0 ? Duration.ofMillis(timeoutMs) : null);
+        try {
+            List<Job> jobs = jobs(source, inputs);
+            Path base = Files.isDirectory(source) ? source : source.toAbsolutePath().getParent();
+            long start = System.nanoTime();
+            Map<Status, Integer> counts;
+            try (Writer results = Files.newBufferedWriter(resultsFile, StandardCharsets.UTF_8)) {
+                counts = runner.runAll(jobs, base, results);
+            }
+            long millis = (System.nanoTime() - start) / 1_000_000;
+            System.out.println("Ran " + jobs.size() + " jobs in " + millis + " ms on " + runner.threads
+                + " threads: " + counts);
+            return 0;
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(USAGE);
+            return 64;
+        } catch (IOException e) {
+            System.err.println("Batch failed: " + e);
+            return 74;
+        }
+    }
+
+    /**
+     * Lists the jobs of a directory or manifest
+     *
+     * @param source Directory of programs, or manifest file
+     * @param inputs Directory of *.in files to run every program with, or null; directories only
+     */
+    static List<Job> jobs(Path source, Path inputs) throws IOException {
+        if (!Files.isDirectory(source)) {
+            if (inputs != null) throw new IllegalArgumentException("--inputs needs a directory of programs");
+            return manifestJobs(source);
+        }
+
+        List<Path> shared = inputs != null ? list(inputs, ".in") : null;
+        List<Job> jobs = new ArrayList<>();
+        for (Path program : list(source, ".bpp")) {
+            List<Path> programInputs = shared != null ? shared : inputsFor(program);
+            if (programInputs.isEmpty()) {
+                jobs.add(new Job(program, null));
+            }
+            for (Path input : programInputs) {
+                jobs.add(new Job(program, input));
+            }
+        }
+        return jobs;
+    }
+
+    private static List<Job> manifestJobs(Path manifest) throws IOException {
+        Path base = manifest.toAbsolutePath().getParent();
+        List<Job> jobs = new ArrayList<>();
+        for (String line : Files.readAllLines(manifest, StandardCharsets.UTF_8)) {
+            line = line.strip();
+            if (line.isEmpty() || line.startsWith("#")) continue;
+            String[] fields = line.split("\\s+");
+            if (fields.length > 2) throw new IllegalArgumentException("Bad manifest line: " + line);
+            jobs.add(new Job(base.resolve(fields[0]), fields.length == 2 ? base.resolve(fields[1]) : null));
+        }
+        return jobs;
+    }
+
+    /** Input files named after the program: prog.in and prog.*.in in its directory */
+    private static List<Path> inputsFor(Path program) throws IOException {
+        String name = program.getFileName().toString();
+        String stem = name.substring(0, name.length() - ".bpp".length());
+        try (Stream<Path> files = Files.list(program.toAbsolutePath().getParent())) {
+            return files.filter(file -> {
+                    String input = file.getFileName().toString();
+                    return input.equals(stem + ".in") || (input.startsWith(stem + ".") && input.endsWith(".in")
+                        && input.indexOf('.', stem.length() + 1) == input.length() - ".in".length());
+                })
+                .sorted()
+                .toList();
+        }
+    }
+
+    /** Regular files under dir with the given extension, sorted by path */
+    private static List<Path> list(Path dir, String extension) throws IOException {
+        try (Stream<Path> files = Files.walk(dir)) {
+            return files.filter(file -> Files.isRegularFile(file) && file.getFileName().toString().endsWith(extension))
+                .sorted()
+                .toList();
+        }
+    }
+
+    /**
+     * Runs the jobs on the pool and writes a line per job, in job order, as results come in
+     *
+     * @param base Directory paths in the results are written relative to
+     * @return Number of jobs per status
+     */
+    Map<Status, Integer> runAll(List<Job> jobs, Path base, Writer results) throws IOException {
+        AtomicInteger threadNumber = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, task -> {
+            Thread thread = new Thread(null, task, "bisaya-batch-" + threadNumber.incrementAndGet(), JOB_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+        Map<Status, Integer> counts = new EnumMap<>(Status.class);
+        BufferedWriter out = new BufferedWriter(results);
+        try {
+            List<Future<Result>> futures = new ArrayList<>(jobs.size());
+            for (Job job : jobs) {
+                futures.add(pool.submit(() -> runJob(job)));
+            }
+            out.write("program\tinput\tstatus\texit\tmillis\toutput\terrors\n");
+            for (int i = 0; i < futures.size(); i++) {
+                Result result;
+                try {
+                    result = futures.get(i).get();
+                } catch (ExecutionException e) {
+                    // runJob records program failures itself; this is a failure of the runner
+                    result = new Result(jobs.get(i), Status.RUNTIME_ERROR, 0, "", String.valueOf(e.getCause()));
+                }
+                counts.merge(result.status(), 1, Integer::sum);
+                writeResult(out, base, result);
+                // Keep finished rows even if the batch dies later
+                out.flush();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Batch interrupted", e);
+        } finally {
+            pool.shutdownNow();
+        }
+        return counts;
+    }
+
+    /**
+     * Compiles and runs one job in isolation
+     */
+    Result runJob(Job job) {
+        long start = System.nanoTime();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayOutputStream err = new ByteArrayOutputStream();
+        PrintStream errStream = new PrintStream(err, true, StandardCharsets.UTF_8);
+        Status status;
+        try {
+            String source = Files.readString(job.program(), StandardCharsets.UTF_8);
+            byte[] input = job.input() != null ? Files.readAllBytes(job.input()) : new byte[0];
+            ProgramEvents.setProgramId(job.program().toString());
+
+            Diagnostics diagnostics = new Diagnostics(Diagnostics.DEFAULT_LIMIT, errStream);
+            Lexer lexer = new Lexer(source, diagnostics);
+            TokenBuffer tokens = lexer.scanTokenBuffer();
+            List<Stmt> program = null;
+            if (!diagnostics.hadError()) {
+                try {
+                    program = new Parser(tokens, diagnostics).parseProgram();
+                } catch (Parser.ParseError e) {
+                    // already reported to diagnostics
+                } catch (StackOverflowError e) {
+                    errStream.println("Program is nested too deeply to compile.");
+                    return result(job, Status.COMPILE_ERROR, start, out, err);
+                }
+            }
+
+            if (program == null || diagnostics.hadError()) {
+                status = Status.COMPILE_ERROR;
+            } else {
+                IOHandler io = new ConsoleIOHandler(new PrintStream(out, true), errStream,
+                                                    new ByteArrayInputStream(input));
+                status = execute(program, io, errStream);
+            }
+        } catch (IOException e) {
+            errStream.println(e);
+            status = Status.IO_ERROR;
+        }
+        return result(job, status, start, out, err);
+    }
+
+    private static Result result(Job job, Status status, long start, ByteArrayOutputStream out,
+                                 ByteArrayOutputStream err) {
+        long millis = (System.nanoTime() - start) / 1_000_000;
+        return new Result(job, status, millis, out.toString(), err.toString(StandardCharsets.UTF_8));
+    }
+
+    private Status execute(List<Stmt> program, IOHandler io, PrintStream err) {
+        try {
+            new Interpreter(io, new ResourceGovernor(maxSteps, maxOutputBytes, timeout)).interpret(program, engine);
+            return Status.OK;
+        } catch (ResourceLimitException e) {
+            err.println(e.getMessage());
+            return Status.LIMIT_EXCEEDED;
+        } catch (RuntimeException e) {
+            err.println(e.getMessage());
+            return Status.RUNTIME_ERROR;
+        } catch (StackOverflowError e) {
+            err.println("Execution stopped: program is nested too deeply.");
+            return Status.RUNTIME_ERROR;
+        } catch (OutOfMemoryError e) {
+            // The job's objects are unreachable once this returns, so other jobs carry on
+            err.println("Execution stopped: out of memory.");
+            return Status.RUNTIME_ERROR;
+        }
+    }
+
+    private static void writeResult(Writer out, Path base, Result result) throws IOException {
+        Job job = result.job();
+        out.write(escape(relative(base, job.program())));
+        out.write('\t');
+        out.write(job.input() != null ? escape(relative(base, job.input())) : "");
+        out.write('\t');
+        out.write(result.status().name());
+        out.write('\t');
+        out.write(Integer.toString(result.status().exitCode));
+        out.write('\t');
+        out.write(Long.toString(result.millis()));
+        out.write('\t');
+        out.write(escape(result.output()));
+        out.write('\t');
+        out.write(escape(result.errors()));
+        out.write('\n');
+    }
+
+    private static String relative(Path base, Path file) {
+        Path absoluteBase = base.toAbsolutePath().normalize();
+        Path absoluteFile = file.toAbsolutePath().normalize();
+        return absoluteFile.startsWith(absoluteBase) ? absoluteBase.relativize(absoluteFile).toString() : file.toString();
+    }
+
+    /** Makes text safe for one tab-separated column */
+    static String escape(String text) {
+        StringBuilder sb = null;
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            String replacement = switch (c) {
+                case '\\' -> "\\\\";
+                case '\t' -> "\\t";
+                case '\n' -> "\\n";
+                case '\r' -> "\\r";
+                default -> null;
+            };
+            if (replacement == null) {
+                if (sb != null) sb.append(c);
+                continue;
+            }
+            if (sb == null) sb = new StringBuilder(text.length() + 16).append(text, 0, i);
+            sb.append(replacement);
+        }
+        return sb != null ? sb.toString() : text;
+    }
+}
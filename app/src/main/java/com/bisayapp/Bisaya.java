@@ -2,40 +2,81 @@ package com.bisayapp;
 
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.nio.file.Files;
 import java.nio.file.Path;
+import java.util.Arrays;
 import java.util.List;
 
 public class Bisaya {
+    /** Hot lines listed by --profile */
+    public static final int PROFILE_REPORT_LINES = 15;
+
+    /** Characters of token dump buffered between writes in main */
+    private static final int TOKEN_DUMP_CHUNK = 8192;
+
     /**
      * Main CLI entry point
      */
     public static void main(String[] args) throws Exception {
-        if (args.length != 1) {
-            System.err.println("Usage: bisaya <source.bpp>");
+        if (args.length > 0 && args[0].equals("batch")) {
+            System.exit(BatchRunner.run(Arrays.copyOfRange(args, 1, args.length)));
+        }
+        ExecutionEngine engine = ExecutionEngine.TREE_WALKER;
+        boolean profile = false;
+        int arg = 0;
+        for (; arg < args.length - 1; arg++) {
+            if (args[arg].equals("--vm")) engine = ExecutionEngine.BYTECODE_VM;
+            else if (args[arg].equals("--profile")) profile = true;
+            else break;
+        }
+        if (arg != args.length - 1) {
+            System.err.println("Usage: bisaya [--vm] [--profile] <source.bpp>");
+            System.err.println("       " + BatchRunner.USAGE.substring("Usage: ".length()));
             System.exit(64);
         }
 
-        String source = Files.readString(Path.of(args[0]));
+        CharSequence source = MappedSource.open(Path.of(args[arg]));
+        ProgramEvents.setProgramId(args[arg]);
         Lexer lexer = new Lexer(source);
-        List<Token> tokens = lexer.scanTokens();
+        TokenBuffer tokens = lexer.scanTokenBuffer();
 
         System.out.println("=== LEXICAL ANALYSIS ===");
         System.out.println("[Lex] token count = " + tokens.size());
-        for (Token t : tokens) {
-            System.out.println("  " + t);
+        // Build the dump in chunks rather than formatting and printing each token on its own
+        StringBuilder dump = new StringBuilder(TOKEN_DUMP_CHUNK + 256);
+        String newline = System.lineSeparator();
+        for (int i = 0; i < tokens.size(); i++) {
+            tokens.token(i).appendTo(dump.append("  ")).append(newline);
+            if (dump.length() >= TOKEN_DUMP_CHUNK) {
+                System.out.print(dump);
+                dump.setLength(0);
+            }
         }
+        System.out.print(dump);
         System.out.println();
 
-        if (ErrorReporter.hadError()) System.exit(65);
+        if (lexer.diagnostics().hadError()) System.exit(65);
 
-        Parser parser = new Parser(tokens);
+        Parser parser = new Parser(tokens, lexer.diagnostics());
         List<Stmt> program = parser.parseProgram();
-        if (ErrorReporter.hadError()) System.exit(65);
+        if (parser.diagnostics().hadError()) System.exit(65);
 
         System.out.println("Tokenized & Parsed Successfully");
         System.out.println("=== PROGRAM OUTPUT ===");
-        new Interpreter(System.out, System.in).interpret(program);
+        if (!profile) {
+            new Interpreter(System.out, System.in).interpret(program, engine);
+            return;
+        }
+
+        // Profiling runs on the tree walker; the report is printed even if the program fails
+        LineProfiler profiler = new LineProfiler();
+        IOHandler io = new ConsoleIOHandler(System.out, System.err, System.in);
+        try {
+            new Interpreter(io, ResourceGovernor.unlimited(), profiler).interpret(program);
+        } finally {
+            System.out.println();
+            System.out.print(profiler.report(source, PROFILE_REPORT_LINES));
+            System.out.flush();
+        }
     }
     
     /**
@@ -43,25 +84,25 @@ public class Bisaya {
      * @param filePath Path to the .bpp file
      * @param out Output stream for program output
      * @param in Input stream for program input
+     * @throws CompileException if the program has lexical or syntax errors
      * @throws Exception if there are errors during execution
      */
     public static void runFile(String filePath, PrintStream out, InputStream in) throws Exception {
-        // Reset error state
-        ErrorReporter.reset();
-        
-        String source = Files.readString(Path.of(filePath));
-        Lexer lexer = new Lexer(source);
-        List<Token> tokens = lexer.scanTokens();
-
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Lexical errors found");
+        ProgramEvents.setProgramId(filePath);
+        // Lex over the memory-mapped file as the parser asks for tokens, so neither a heap
+        // copy of the source nor its token list is built; lexing and parsing interleave
+        CharSequence source = MappedSource.open(Path.of(filePath));
+        Parser parser = new Parser(new Lexer(source));
+        List<Stmt> program = null;
+        try {
+            program = parser.parseProgram();
+        } catch (Parser.ParseError e) {
+            // Already reported; a bad character is reported as it is lexed, before the
+            // syntax error it causes
         }
 
-        Parser parser = new Parser(tokens);
-        List<Stmt> program = parser.parseProgram();
-        
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Syntax errors found");
+        if (program == null || parser.diagnostics().hadError()) {
+            throw new CompileException("Lexical or syntax errors found", parser.diagnostics());
         }
 
         new Interpreter(out, in).interpret(program);
@@ -72,27 +113,11 @@ public class Bisaya {
      * @param source The Bisaya++ source code
      * @param out Output stream for program output
      * @param in Input stream for program input
+     * @throws CompileException if the program has lexical or syntax errors
      * @throws Exception if there are errors during execution
      */
     public static void runSource(String source, PrintStream out, InputStream in) throws Exception {
-        // Reset error state
-        ErrorReporter.reset();
-        
-        Lexer lexer = new Lexer(source);
-        List<Token> tokens = lexer.scanTokens();
-
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Lexical errors found");
-        }
-
-        Parser parser = new Parser(tokens);
-        List<Stmt> program = parser.parseProgram();
-        
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Syntax errors found");
-        }
-
-        new Interpreter(out, in).interpret(program);
+        new Interpreter(out, in).interpret(compile(source));
     }
     
     /**
@@ -102,23 +127,86 @@ public class Bisaya {
      * @throws Exception if there are errors during execution
      */
     public static void runSource(String source, IOHandler ioHandler) throws Exception {
-        // Reset error state
-        ErrorReporter.reset();
+        runSource(source, ioHandler, ExecutionEngine.TREE_WALKER);
+    }
+    
+    /**
+     * Run Bisaya++ source code with custom IOHandler on the chosen execution engine
+     * @param source The Bisaya++ source code
+     * @param ioHandler The I/O handler for input/output operations
+     * @param engine TREE_WALKER (AST interpreter) or BYTECODE_VM (compiled bytecode)
+     * @throws Exception if there are errors during execution
+     */
+    public static void runSource(String source, IOHandler ioHandler, ExecutionEngine engine) throws Exception {
+        runSource(source, ioHandler, engine, ResourceGovernor.unlimited());
+    }
+    
+    /**
+     * Run Bisaya++ source code with step, output and time limits
+     * @param source The Bisaya++ source code
+     * @param ioHandler The I/O handler for input/output operations
+     * @param engine TREE_WALKER (AST interpreter) or BYTECODE_VM (compiled bytecode)
+     * @param governor Limits for this run; use a new governor for every run
+     * @throws ResourceLimitException if the program exceeds a limit
+     * @throws Exception if there are errors during execution
+     */
+    public static void runSource(String source, IOHandler ioHandler, ExecutionEngine engine,
+                                 ResourceGovernor governor) throws Exception {
+        runSource(source, ioHandler, engine, governor, null);
+    }
+    
+    /**
+     * Run Bisaya++ source code, optionally recording a line profile
+     * @param source The Bisaya++ source code
+     * @param ioHandler The I/O handler for input/output operations
+     * @param engine TREE_WALKER (AST interpreter) or BYTECODE_VM (compiled bytecode)
+     * @param governor Limits for this run; use a new governor for every run
+     * @param profiler Receives per-line counts and self-times (forces the tree walker), or null
+     * @throws CompileException if the program has lexical or syntax errors
+     * @throws Exception if there are errors during execution
+     */
+    public static void runSource(String source, IOHandler ioHandler, ExecutionEngine engine,
+                                 ResourceGovernor governor, LineProfiler profiler) throws Exception {
+        runProgram(compile(source), ioHandler, engine, governor, profiler);
+    }
+    
+    /**
+     * Lex and parse source code for one of the runSource overloads
+     * @param source The Bisaya++ source code
+     * @return The parsed program
+     * @throws CompileException if the program has lexical or syntax errors
+     */
+    private static List<Stmt> compile(String source) {
+        ProgramEvents.setProgramId(ProgramEvents.idForSource(source));
         
-        Lexer lexer = new Lexer(source);
-        List<Token> tokens = lexer.scanTokens();
+        // Errors of this run only, so other programs may compile at the same time
+        Diagnostics diagnostics = new Diagnostics();
+        Lexer lexer = new Lexer(source, diagnostics);
+        TokenBuffer tokens = lexer.scanTokenBuffer();
 
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Lexical errors found");
+        if (diagnostics.hadError()) {
+            throw new CompileException("Lexical errors found", diagnostics);
         }
 
-        Parser parser = new Parser(tokens);
-        List<Stmt> program = parser.parseProgram();
-        
-        if (ErrorReporter.hadError()) {
-            throw new RuntimeException("Syntax errors found");
+        try {
+            return new Parser(tokens, diagnostics).parseProgram();
+        } catch (Parser.ParseError e) {
+            // The parser stops at its first error, which it has already reported
+            throw new CompileException("Syntax errors found", diagnostics);
         }
-
-        new Interpreter(ioHandler).interpret(program);
+    }
+    
+    /**
+     * Run an already parsed program (used by GUI, which keeps the parse of the editor text)
+     * @param program Statements from Parser.parseProgram(); the same list may be run again
+     * @param ioHandler The I/O handler for input/output operations
+     * @param engine TREE_WALKER (AST interpreter) or BYTECODE_VM (compiled bytecode)
+     * @param governor Limits for this run; use a new governor for every run
+     * @param profiler Receives per-line counts and self-times (forces the tree walker), or null
+     * @throws Exception if there are errors during execution
+     */
+    public static void runProgram(List<Stmt> program, IOHandler ioHandler, ExecutionEngine engine,
+                                  ResourceGovernor governor, LineProfiler profiler) throws Exception {
+        new Interpreter(ioHandler, governor, profiler).interpret(program, engine);
     }
 }
@@ -0,0 +1,142 @@
+package com.bisayapp;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Batched output sink for IPAKITA.
+ *
+ * Characters are encoded straight into a reusable byte buffer and handed to the
+ * underlying stream in large blocks, instead of one synchronized print() per
+ * IPAKITA statement. Owners call flush() whenever output must become visible
+ * (before DAWAT reads input, before errors, and when the program ends).
+ *
+ * UTF-8 is encoded by hand without creating Strings; other charsets (e.g. a
+ * Windows console code page) go through String.getBytes().
+ */
+public class BufferedOutput {
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private final OutputStream out;
+    private final Charset charset;
+    private final boolean utf8;
+    private final byte[] buf;
+    private int count = 0;
+
+    // High surrogate waiting for its pair from the next append (UTF-8 only)
+    private char pendingHigh = 0;
+
+    public BufferedOutput(OutputStream out) {
+        this(out, StandardCharsets.UTF_8, DEFAULT_CAPACITY);
+    }
+
+    public BufferedOutput(OutputStream out, Charset charset) {
+        this(out, charset, DEFAULT_CAPACITY);
+    }
+
+    public BufferedOutput(OutputStream out, Charset charset, int capacity) {
+        this.out = out;
+        this.charset = charset;
+        this.utf8 = charset.equals(StandardCharsets.UTF_8);
+        this.buf = new byte[Math.max(capacity, 8)];
+    }
+
+    /**
+     * Appends text, writing full blocks to the stream as the buffer fills
+     */
+    public void append(CharSequence text) {
+        if (!utf8) {
+            appendBytes(text.toString().getBytes(charset));
+            return;
+        }
+        for (int i = 0, n = text.length(); i < n; i++) {
+            appendUtf8(text.charAt(i));
+        }
+    }
+
+    /**
+     * Writes everything buffered so far and flushes the stream. A high surrogate still
+     * waiting for its pair is written as '?', as PrintStream would have
+     */
+    public void flush() {
+        try {
+            if (pendingHigh != 0) {
+                pendingHigh = 0;
+                if (count == buf.length) drain();
+                buf[count++] = '?';
+            }
+            drain();
+            out.flush();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    /** Number of bytes waiting to be written */
+    public int pending() { return count; }
+
+    private void appendUtf8(char c) {
+        // 4 bytes is the longest sequence a single call can add
+        if (count > buf.length - 4) drainUnchecked();
+
+        if (pendingHigh != 0) {
+            char high = pendingHigh;
+            pendingHigh = 0;
+            if (Character.isLowSurrogate(c)) {
+                int cp = Character.toCodePoint(high, c);
+                buf[count++] = (byte) (0xF0 | (cp >> 18));
+                buf[count++] = (byte) (0x80 | ((cp >> 12) & 0x3F));
+                buf[count++] = (byte) (0x80 | ((cp >> 6) & 0x3F));
+                buf[count++] = (byte) (0x80 | (cp & 0x3F));
+                return;
+            }
+            // Unpaired surrogate, encoded as '?' like String.getBytes()
+            buf[count++] = '?';
+            if (count > buf.length - 4) drainUnchecked();
+        }
+
+        if (c < 0x80) {
+            buf[count++] = (byte) c;
+        } else if (c < 0x800) {
+            buf[count++] = (byte) (0xC0 | (c >> 6));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        } else if (Character.isHighSurrogate(c)) {
+            pendingHigh = c;
+        } else if (Character.isLowSurrogate(c)) {
+            buf[count++] = '?';
+        } else {
+            buf[count++] = (byte) (0xE0 | (c >> 12));
+            buf[count++] = (byte) (0x80 | ((c >> 6) & 0x3F));
+            buf[count++] = (byte) (0x80 | (c & 0x3F));
+        }
+    }
+
+    private void appendBytes(byte[] bytes) {
+        int off = 0;
+        while (off < bytes.length) {
+            if (count == buf.length) drainUnchecked();
+            int n = Math.min(bytes.length - off, buf.length - count);
+            System.arraycopy(bytes, off, buf, count, n);
+            count += n;
+            off += n;
+        }
+    }
+
+    private void drain() throws IOException {
+        if (count > 0) {
+            out.write(buf, 0, count);
+            count = 0;
+        }
+    }
+
+    private void drainUnchecked() {
+        try {
+            drain();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
@@ -0,0 +1,20 @@
+package com.bisayapp;
+
+/**
+ * Compiled form of a Bisaya++ program: a flat instruction stream plus its constant pool.
+ *
+ * Produced by BytecodeCompiler and executed by VirtualMachine. See OpCode for the
+ * instruction layout.
+ */
+public final class Bytecode {
+    final int[] code;
+    final Object[] constants;
+
+    Bytecode(int[] code, Object[] constants) {
+        this.code = code;
+        this.constants = constants;
+    }
+
+    /** @return Number of ints in the instruction stream (opcodes + operands) */
+    public int size() { return code.length; }
+}
@@ -0,0 +1,256 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Lowers a resolved Bisaya++ AST into Bytecode for the VirtualMachine.
+ *
+ * The program must have been passed through the Resolver first, since LOAD/STORE/DECLARE
+ * address variables by slot. Evaluation order matches the tree-walking Interpreter exactly:
+ * operands left to right, UG/O short-circuit, IPAKITA parts evaluated before anything is
+ * written.
+ *
+ * Control flow layout:
+ * - KUNG:     cond, JUMP_IF_FALSE else, then, JUMP end, else:, elseBranch, end:
+ * - ALANG SA: init, top:, cond, JUMP_IF_FALSE end, body, update, JUMP top, end:
+ * - SAMTANG:  top:, cond, JUMP_IF_FALSE end, body, JUMP top, end:
+ */
+public class BytecodeCompiler implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+    private int[] code = new int[64];
+    private int size = 0;
+    private final List<Object> constants = new ArrayList<>();
+
+    /**
+     * Compiles a whole program
+     *
+     * @param program Resolved statements
+     * @return Bytecode ready to run
+     */
+    public Bytecode compile(List<Stmt> program) {
+        for (Stmt s : program) s.accept(this);
+        return new Bytecode(Arrays.copyOf(code, size), constants.toArray());
+    }
+
+    // --- Emission helpers ---
+
+    private void emit(int value) {
+        if (size == code.length) code = Arrays.copyOf(code, size * 2);
+        code[size++] = value;
+    }
+
+    private void emit(int op, int a) { emit(op); emit(a); }
+    private void emit(int op, int a, int b) { emit(op); emit(a); emit(b); }
+    private void emit(int op, int a, int b, int c) { emit(op); emit(a); emit(b); emit(c); }
+
+    private int constant(Object value) {
+        constants.add(value);
+        return constants.size() - 1;
+    }
+
+    /** Emits a forward jump and returns the operand position to patch later */
+    private int emitJump(int op) {
+        emit(op, 0);
+        return size - 1;
+    }
+
+    /** Points a forward jump at the current end of code */
+    private void patchJump(int operandPos) {
+        code[operandPos] = size - (operandPos + 1);
+    }
+
+    /** Emits a backward JUMP to loopStart */
+    private void emitLoop(int loopStart) {
+        emit(OpCode.JUMP, 0);
+        code[size - 1] = loopStart - size;
+    }
+
+    private void compile(Expr e) { e.accept(this); }
+    private void compile(Stmt s) { s.accept(this); }
+
+    // --- Stmt ---
+    @Override
+    public Void visitPrint(Stmt.Print s) {
+        for (Expr e : s.parts) compile(e);
+        emit(OpCode.PRINT, s.parts.size());
+        return null;
+    }
+
+    @Override
+    public Void visitExprStmt(Stmt.ExprStmt s) {
+        compile(s.expr);
+        emit(OpCode.POP);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDecl(Stmt.VarDecl s) {
+        for (Stmt.VarDecl.Item it : s.items) {
+            if (it.init == null) emit(OpCode.CONSTANT, constant(null));
+            else compile(it.init);
+            emit(OpCode.DECLARE, it.slot, constant(it.name), constant(s.type));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitInput(Stmt.Input s) {
+        emit(OpCode.INPUT, constant(s));
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Stmt.If s) {
+        compile(s.condition);
+        int elseJump = emitJump(OpCode.JUMP_IF_FALSE);
+        compile(s.thenBranch);
+        if (s.elseBranch == null) {
+            patchJump(elseJump);
+            return null;
+        }
+        int endJump = emitJump(OpCode.JUMP);
+        patchJump(elseJump);
+        compile(s.elseBranch);
+        patchJump(endJump);
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(Stmt.Block s) {
+        for (Stmt stmt : s.statements) compile(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visitFor(Stmt.For s) {
+        if (s.initializer != null) compile(s.initializer);
+        int loopStart = size;
+        compile(s.condition);
+        int exitJump = emitJump(OpCode.JUMP_IF_FALSE);
+        compile(s.body);
+        if (s.update != null) compile(s.update);
+        emitLoop(loopStart);
+        patchJump(exitJump);
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Stmt.While s) {
+        int loopStart = size;
+        compile(s.condition);
+        int exitJump = emitJump(OpCode.JUMP_IF_FALSE);
+        compile(s.body);
+        emitLoop(loopStart);
+        patchJump(exitJump);
+        return null;
+    }
+
+    // --- Expr ---
+    @Override
+    public Void visitLiteral(Expr.Literal e) {
+        emit(OpCode.CONSTANT, constant(e.value));
+        return null;
+    }
+
+    @Override
+    public Void visitVariable(Expr.Variable e) {
+        emit(OpCode.LOAD, e.slot, constant(e.token));
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Expr.Assign e) {
+        compile(e.value);
+        emit(OpCode.STORE, e.slot, constant(e.name));
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(Expr.Binary e) {
+        Token op = e.operator;
+
+        // Short-circuit operators: left is checked (and converted to Boolean) first,
+        // right is only evaluated when it can change the result
+        if (op.type == TokenType.UG || op.type == TokenType.O) {
+            int context = constant(op.type == TokenType.UG ? "UG operator (AND)" : "O operator (OR)");
+            int tok = constant(op);
+            compile(e.left);
+            emit(OpCode.REQUIRE_BOOL, tok, context);
+            int shortCircuit = emitJump(op.type == TokenType.UG
+                ? OpCode.JUMP_IF_FALSE_KEEP : OpCode.JUMP_IF_TRUE_KEEP);
+            emit(OpCode.POP);
+            compile(e.right);
+            emit(OpCode.REQUIRE_BOOL, tok, context);
+            patchJump(shortCircuit);
+            return null;
+        }
+
+        compile(e.left);
+        compile(e.right);
+        switch (op.type) {
+            case AMPERSAND     -> emit(OpCode.CONCAT);
+            case PLUS          -> emit(OpCode.ADD, constant(op));
+            case MINUS         -> emit(OpCode.SUBTRACT, constant(op));
+            case STAR          -> emit(OpCode.MULTIPLY, constant(op));
+            case SLASH         -> emit(OpCode.DIVIDE, constant(op));
+            case PERCENT       -> emit(OpCode.MODULO, constant(op));
+            case GREATER       -> emit(OpCode.GREATER, constant(op));
+            case GREATER_EQUAL -> emit(OpCode.GREATER_EQUAL, constant(op));
+            case LESS          -> emit(OpCode.LESS, constant(op));
+            case LESS_EQUAL    -> emit(OpCode.LESS_EQUAL, constant(op));
+            case EQUAL_EQUAL   -> emit(OpCode.EQUAL);
+            case LT_GT         -> emit(OpCode.NOT_EQUAL);
+            default -> emit(OpCode.FAIL, constant(op), constant("Unsupported binary operator: " + op.lexeme()));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitUnary(Expr.Unary e) {
+        Token op = e.operator;
+        compile(e.operand);
+        switch (op.type) {
+            case MINUS -> emit(OpCode.NEGATE, constant(op));
+            case PLUS  -> emit(OpCode.POSITIVE, constant(op));
+            case DILI  -> emit(OpCode.NOT, constant(op));
+            case PLUS_PLUS  -> emitIncDec(e.operand, op, OpCode.PRE_INCREMENT, "Increment operator requires a variable.");
+            case MINUS_MINUS -> emitIncDec(e.operand, op, OpCode.PRE_DECREMENT, "Decrement operator requires a variable.");
+            default -> emit(OpCode.FAIL, constant(op), constant("Unsupported unary operator: " + op.lexeme()));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitPostfix(Expr.Postfix e) {
+        Token op = e.operator;
+        compile(e.operand);
+        switch (op.type) {
+            case PLUS_PLUS   -> emitIncDec(e.operand, op, OpCode.POST_INCREMENT, "Postfix increment operator requires a variable.");
+            case MINUS_MINUS -> emitIncDec(e.operand, op, OpCode.POST_DECREMENT, "Postfix decrement operator requires a variable.");
+            default -> emit(OpCode.FAIL, constant(op), constant("Unsupported postfix operator: " + op.lexeme()));
+        }
+        return null;
+    }
+
+    /** Increment/decrement of a variable, or the interpreter's error for any other operand */
+    private void emitIncDec(Expr operand, Token op, int opcode, String notVariableMessage) {
+        if (operand instanceof Expr.Variable var) {
+            emit(opcode, var.slot, constant(var.name), constant(op));
+        } else {
+            emit(OpCode.FAIL, constant(op), constant(notVariableMessage));
+        }
+    }
+
+    @Override
+    public Void visitGrouping(Expr.Grouping e) {
+        compile(e.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitTyped(Expr.Typed e) {
+        compile(e.generic);
+        return null;
+    }
+}
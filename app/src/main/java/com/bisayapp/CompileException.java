@@ -0,0 +1,19 @@
+package com.bisayapp;
+
+/**
+ * Thrown instead of running a program that has lexical or syntax errors.
+ * Carries the program's Diagnostics, so callers can show every error with its position.
+ */
+public class CompileException extends RuntimeException {
+    private final Diagnostics diagnostics;
+
+    public CompileException(String message, Diagnostics diagnostics) {
+        super(message);
+        this.diagnostics = diagnostics;
+    }
+
+    /** @return The errors that stopped the program */
+    public Diagnostics diagnostics() {
+        return diagnostics;
+    }
+}
@@ -2,7 +2,6 @@ package com.bisayapp;
 
 import java.io.InputStream;
 import java.io.PrintStream;
-import java.util.Scanner;
 
 /**
  * ConsoleIOHandler
@@ -12,14 +11,16 @@ import java.util.Scanner;
  * 
  * Features:
  * - Writes to System.out/System.err
- * - Reads from System.in using Scanner
+ * - Batches IPAKITA output in a BufferedOutput (flushed before input, errors and exit)
+ * - Reads from System.in with a byte-level InputReader
  * - Maintains existing CLI behavior
  */
 public class ConsoleIOHandler implements IOHandler {
     
     private final PrintStream out;
     private final PrintStream err;
-    private final Scanner scanner;
+    private final BufferedOutput buffered;
+    private final InputReader reader;
     
     /**
      * Creates handler with default streams
@@ -38,29 +39,50 @@ public class ConsoleIOHandler implements IOHandler {
     public ConsoleIOHandler(PrintStream out, PrintStream err, InputStream in) {
         this.out = out;
         this.err = err;
-        this.scanner = new Scanner(in);
+        // Encode exactly as out.print() would, so batched and direct output match
+        this.buffered = new BufferedOutput(out, out.charset());
+        this.reader = new InputReader(in);
     }
     
     @Override
     public void writeOutput(String text) {
+        // Keep ordering with anything still buffered
+        buffered.flush();
         out.print(text);
     }
     
+    @Override
+    public void bufferOutput(CharSequence text) {
+        buffered.append(text);
+    }
+    
+    @Override
+    public void flushOutput() {
+        buffered.flush();
+    }
+    
     @Override
     public void writeError(String error) {
+        buffered.flush();
         err.println(error);
     }
     
     @Override
     public String readInput(String prompt) {
-        if (!scanner.hasNextLine()) {
+        return readInputLine(prompt).toString();
+    }
+    
+    @Override
+    public InputLine readInputLine(String prompt) {
+        buffered.flush();
+        if (!reader.hasNextLine()) {
             throw new RuntimeException("No input available");
         }
-        return scanner.nextLine().trim();
+        return reader.nextLine();
     }
     
     @Override
     public boolean hasInput() {
-        return scanner.hasNextLine();
+        return reader.hasNextLine();
     }
 }
@@ -0,0 +1,89 @@
+package com.bisayapp;
+
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lexical and syntax errors found while compiling one program.
+ *
+ * Each Lexer and Parser reports into its own collector instead of a global flag, so
+ * any number of programs can be lexed and parsed at the same time in one JVM. Pass the
+ * same collector to the Lexer and the Parser of a program (new Parser(lexer) does this)
+ * and read it back afterwards.
+ *
+ * At most a limit of errors are kept (and echoed); further errors are only counted, so
+ * a pathological input cannot use unbounded memory. Methods are synchronized, so the
+ * collector may be read from another thread than the one compiling.
+ */
+public final class Diagnostics {
+    /** Errors kept per program unless another limit is given */
+    public static final int DEFAULT_LIMIT = 100;
+
+    /** One reported error */
+    public record Diagnostic(int line, int column, String message) {
+        /** @return The error in the CLI's format, e.g. "[line 3 col 9] Error: Expect variable name." */
+        @Override
+        public String toString() {
+            return "[line " + line + " col " + column + "] Error: " + message;
+        }
+    }
+
+    private final int limit;
+    private final PrintStream echo;
+    private final List<Diagnostic> errors = new ArrayList<>();
+    private int count = 0;
+
+    /**
+     * Collects up to DEFAULT_LIMIT errors and prints each to System.err as it is reported
+     */
+    public Diagnostics() {
+        this(DEFAULT_LIMIT, System.err);
+    }
+
+    /**
+     * @param limit Most errors to keep; later ones are only counted
+     * @param echo Stream each kept error is printed to as it is reported, or null to stay quiet
+     */
+    public Diagnostics(int limit, PrintStream echo) {
+        this.limit = Math.max(limit, 0);
+        this.echo = echo;
+    }
+
+    /**
+     * @return A collector that keeps up to DEFAULT_LIMIT errors without printing them
+     */
+    public static Diagnostics quiet() {
+        return new Diagnostics(DEFAULT_LIMIT, null);
+    }
+
+    /**
+     * Records an error
+     *
+     * @param line Line of the offending text
+     * @param column Column of the offending text
+     * @param message What is wrong
+     */
+    public synchronized void error(int line, int column, String message) {
+        count++;
+        if (errors.size() >= limit) return;
+        Diagnostic error = new Diagnostic(line, column, message);
+        errors.add(error);
+        if (echo != null) echo.println(error);
+    }
+
+    /** @return Whether any error was reported */
+    public synchronized boolean hadError() {
+        return count > 0;
+    }
+
+    /** @return Number of errors reported, including those past the limit */
+    public synchronized int count() {
+        return count;
+    }
+
+    /** @return The kept errors in the order they were reported */
+    public synchronized List<Diagnostic> errors() {
+        return List.copyOf(errors);
+    }
+}
@@ -1,94 +1,258 @@
 package com.bisayapp;
 
-import java.util.HashMap;
-import java.util.Map;
+import java.util.Arrays;
 
+/**
+ * Slot-indexed variable storage.
+ *
+ * Every variable is bound to a fixed slot by the Resolver, so reads and writes are
+ * plain array accesses instead of HashMap lookups. A slot counts as declared once
+ * its type is set by MUGNA; names are only passed in for error messages.
+ *
+ * Values are kept unboxed according to the declared type:
+ * - NUMERO in ints (int)
+ * - TIPIK  in floats (float)
+ * - LETRA  in ints (char code)
+ * - TINUOD in ints (1 = OO, 0 = DILI)
+ * A declared variable without a value (MUGNA NUMERO x) has assigned[slot] == false.
+ *
+ * The Object-based declare/assign/get keep the original coercion rules and messages;
+ * assignInt/assignFloat/assignDouble are allocation-free stores for the hot path.
+ *
+ * get() keeps the box it returns in boxes[slot], and Object stores keep a value that
+ * is already the boxed form of the declared type, so repeated reads of an unchanged
+ * variable return the same object instead of allocating. Primitive stores clear it.
+ */
 public class Environment {
-    private final Map<String, Object> values = new HashMap<>();
-    private final Map<String, TokenType> types = new HashMap<>();
+    private TokenType[] types;
+    private boolean[] assigned;
+    private int[] ints;
+    private float[] floats;
+    private Object[] boxes;     // boxed current value, or null until the next get()
 
-    public void declare(String name, TokenType type, Object value) {
+    public Environment() { this(16); }
+
+    public Environment(int capacity) {
+        types = new TokenType[capacity];
+        assigned = new boolean[capacity];
+        ints = new int[capacity];
+        floats = new float[capacity];
+        boxes = new Object[capacity];
+    }
+
+    // grow storage so that slots [0, size) are addressable
+    public void ensureCapacity(int size) {
+        if (size <= types.length) return;
+        int newSize = Math.max(size, types.length * 2);
+        types = Arrays.copyOf(types, newSize);
+        assigned = Arrays.copyOf(assigned, newSize);
+        ints = Arrays.copyOf(ints, newSize);
+        floats = Arrays.copyOf(floats, newSize);
+        boxes = Arrays.copyOf(boxes, newSize);
+    }
+
+    public void declare(int slot, String name, TokenType type, Object value) {
         // Check if variable is already declared
-        if (types.containsKey(name)) {
+        if (types[slot] != null) {
             throw new RuntimeException("Variable '" + name + "' is already declared.");
         }
-        types.put(name, type);
-        values.put(name, coerce(type, value));
+        types[slot] = type;
+        store(slot, type, value);
     }
 
     // get declared type (or null)
-    public TokenType getType(String name) { return types.get(name); }
-    public boolean isDeclared(String name) { return types.containsKey(name); }
+    public TokenType getType(int slot) { return types[slot]; }
+    public boolean isDeclared(int slot) { return types[slot] != null; }
+
+    // true once the variable holds a value
+    public boolean isAssigned(int slot) { return assigned[slot]; }
 
-    public void assign(String name, Object value) {
-        if (!values.containsKey(name)) throw new RuntimeException("Undefined variable '" + name + "'");
-        TokenType t = types.get(name);
-        values.put(name, t == null ? value : coerce(t, value));
+    public void assign(int slot, String name, Object value) {
+        store(slot, declaredType(slot, name), value);
     }
 
-    public Object get(String name, Token token) {
-        if (!values.containsKey(name)) {
-            throw new RuntimeException("[line " + token.line + " col " + token.col + 
-                "] Undefined variable '" + name + "'. Variables must be declared with MUGNA before use.");
+    public Object get(int slot, Token token) {
+        TokenType t = types[slot];
+        if (t == null) throw undefinedVariable(token);
+        if (!assigned[slot]) return null;
+        Object box = boxes[slot];
+        if (box != null) return box;
+        box = switch (t) {
+            case NUMERO -> ints[slot];
+            case TIPIK  -> floats[slot];
+            case LETRA  -> (char) ints[slot];
+            case TINUOD -> ints[slot] != 0;
+            default     -> null;
+        };
+        boxes[slot] = box;
+        return box;
+    }
+
+    // --- Unboxed access (caller has checked isAssigned) ---
+
+    public int getInt(int slot) { return ints[slot]; }
+    public float getFloat(int slot) { return floats[slot]; }
+    public char getChar(int slot) { return (char) ints[slot]; }
+    public boolean getBoolean(int slot) { return ints[slot] != 0; }
+
+    // --- Unboxed stores (caller has checked the declared type) ---
+
+    public void setInt(int slot, int v) { ints[slot] = v; assigned[slot] = true; boxes[slot] = null; }
+    public void setFloat(int slot, float v) { floats[slot] = v; assigned[slot] = true; boxes[slot] = null; }
+
+    // store a NUMERO-valued result
+    public void assignInt(int slot, String name, int v) {
+        switch (declaredType(slot, name)) {
+            case NUMERO -> ints[slot] = v;
+            case TIPIK  -> floats[slot] = v;
+            default     -> { store(slot, types[slot], v); return; }
         }
-        return values.get(name);
+        assigned[slot] = true;
+        boxes[slot] = null;
     }
 
-    private Object coerce(TokenType t, Object v) {
-        if (v == null) return null;
+    // store a TIPIK-valued result
+    public void assignFloat(int slot, String name, float v) {
+        switch (declaredType(slot, name)) {
+            case NUMERO -> ints[slot] = floatToNumero(v);
+            case TIPIK  -> floats[slot] = v;
+            default     -> { store(slot, types[slot], v); return; }
+        }
+        assigned[slot] = true;
+        boxes[slot] = null;
+    }
+
+    // store a numeric literal (the lexer produces doubles)
+    public void assignDouble(int slot, String name, double v) {
+        switch (declaredType(slot, name)) {
+            case NUMERO -> ints[slot] = doubleToNumero(v);
+            case TIPIK  -> floats[slot] = (float) v;
+            default     -> { store(slot, types[slot], v); return; }
+        }
+        assigned[slot] = true;
+        boxes[slot] = null;
+    }
+
+    RuntimeException undefinedVariable(Token token) {
+        return new RuntimeException("[line " + token.line + " col " + token.col +
+            "] Undefined variable '" + token.lexeme() + "'. Variables must be declared with MUGNA before use.");
+    }
+
+    private TokenType declaredType(int slot, String name) {
+        TokenType t = types[slot];
+        if (t == null) throw new RuntimeException("Undefined variable '" + name + "'");
+        return t;
+    }
+
+    // --- Coercion ---
+
+    private void store(int slot, TokenType t, Object v) {
+        boxes[slot] = null;
+        if (v == null) {
+            assigned[slot] = false;
+            return;
+        }
         switch (t) {
-            case NUMERO -> {
-                // NUMERO should reject decimal values
-                if (v instanceof Double d) {
-                    // Check if the double has a fractional part
-                    double fractionalPart = d - Math.floor(d);
-                    if (fractionalPart != 0.0) {
-                        throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + d);
-                    }
-                    // Allow integer overflow/underflow - Java will wrap automatically
-                    return Integer.valueOf(d.intValue());
-                }
-                if (v instanceof Float f) {
-                    // Check if the float has a fractional part
-                    float fractionalPart = f - (float)Math.floor(f);
-                    if (fractionalPart != 0.0f) {
-                        throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + f);
-                    }
-                    // Allow integer overflow/underflow - Java will wrap automatically
-                    return Integer.valueOf(f.intValue());
-                }
-                if (v instanceof Number n) return Integer.valueOf(n.intValue());
-                if (v instanceof String s && s.matches("-?\\d+")) return Integer.valueOf(s);
-                if (v instanceof String s && s.matches("-?\\d+\\.\\d+")) {
-                    throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + s);
-                }
-            }
-            case TIPIK -> {
-                if (v instanceof Number n) return Float.valueOf(n.floatValue());
-                if (v instanceof String s && s.matches("-?\\d+(\\.\\d+)?")) return Float.valueOf(s);
-            }
-            case LETRA -> {
-                if (v instanceof Character c) return c;
-                if (v instanceof String s) {
-                    if (s.length() == 0) {
-                        throw new RuntimeException("Type error: LETRA cannot be empty - must be exactly one character");
-                    }
-                    if (s.length() > 1) {
-                        throw new RuntimeException("Type error: LETRA can only hold one character, got: " + s);
-                    }
-                    return s.charAt(0);
-                }
+            case NUMERO -> ints[slot] = toNumero(v);
+            case TIPIK  -> floats[slot] = toTipik(v);
+            case LETRA  -> ints[slot] = toLetra(v);
+            case TINUOD -> ints[slot] = toTinuod(v) ? 1 : 0;
+            default     -> throw cannotAssign(v, t);
+        }
+        assigned[slot] = true;
+        if (isBoxOf(t, v)) boxes[slot] = v;
+    }
+
+    /** True if v is exactly what get() would return for a variable of type t */
+    private static boolean isBoxOf(TokenType t, Object v) {
+        return switch (t) {
+            case NUMERO -> v instanceof Integer;
+            case TIPIK  -> v instanceof Float;
+            case LETRA  -> v instanceof Character;
+            case TINUOD -> v instanceof Boolean;
+            default     -> false;
+        };
+    }
+
+    /**
+     * Converts a non-null value to the boxed form stored for a declared type
+     * (Integer, Float, Character or Boolean), with the same errors as assign().
+     * Used by the TypeChecker to check and pre-coerce literals before execution.
+     */
+    static Object coerce(TokenType t, Object v) {
+        return switch (t) {
+            case NUMERO -> Integer.valueOf(toNumero(v));
+            case TIPIK  -> Float.valueOf(toTipik(v));
+            case LETRA  -> Character.valueOf(toLetra(v));
+            case TINUOD -> Boolean.valueOf(toTinuod(v));
+            default     -> throw cannotAssign(v, t);
+        };
+    }
+
+    private static int toNumero(Object v) {
+        // NUMERO should reject decimal values
+        if (v instanceof Integer i) return i;
+        if (v instanceof Double d) return doubleToNumero(d);
+        if (v instanceof Float f) return floatToNumero(f);
+        if (v instanceof Number n) return n.intValue();
+        if (v instanceof String s && s.matches("-?\\d+")) return Integer.parseInt(s);
+        if (v instanceof String s && s.matches("-?\\d+\\.\\d+")) {
+            throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + s);
+        }
+        throw cannotAssign(v, TokenType.NUMERO);
+    }
+
+    private static int doubleToNumero(double d) {
+        // Check if the double has a fractional part
+        double fractionalPart = d - Math.floor(d);
+        if (fractionalPart != 0.0) {
+            throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + d);
+        }
+        // Allow integer overflow/underflow - Java will wrap automatically
+        return (int) d;
+    }
+
+    static int floatToNumero(float f) {
+        // Check if the float has a fractional part
+        float fractionalPart = f - (float)Math.floor(f);
+        if (fractionalPart != 0.0f) {
+            throw new RuntimeException("Type error: NUMERO cannot have decimal values. Use TIPIK for decimal numbers. Got: " + f);
+        }
+        // Allow integer overflow/underflow - Java will wrap automatically
+        return (int) f;
+    }
+
+    private static float toTipik(Object v) {
+        if (v instanceof Number n) return n.floatValue();
+        if (v instanceof String s && s.matches("-?\\d+(\\.\\d+)?")) return Float.parseFloat(s);
+        throw cannotAssign(v, TokenType.TIPIK);
+    }
+
+    private static char toLetra(Object v) {
+        if (v instanceof Character c) return c;
+        if (v instanceof String s) {
+            if (s.length() == 0) {
+                throw new RuntimeException("Type error: LETRA cannot be empty - must be exactly one character");
             }
-            case TINUOD -> {
-                // per spec: "OO" true, "DILI" false
-                if (v instanceof Boolean b) return b;
-                if (v instanceof String s) {
-                    if (s.equals("OO")) return Boolean.TRUE;
-                    if (s.equals("DILI")) return Boolean.FALSE;
-                }
+            if (s.length() > 1) {
+                throw new RuntimeException("Type error: LETRA can only hold one character, got: " + s);
             }
-            default -> { /* no-op */ }
+            return s.charAt(0);
+        }
+        throw cannotAssign(v, TokenType.LETRA);
+    }
+
+    private static boolean toTinuod(Object v) {
+        // per spec: "OO" true, "DILI" false
+        if (v instanceof Boolean b) return b;
+        if (v instanceof String s) {
+            if (s.equals("OO")) return true;
+            if (s.equals("DILI")) return false;
         }
-        throw new RuntimeException("Type error: cannot assign " + v + " to " + t);
+        throw cannotAssign(v, TokenType.TINUOD);
+    }
+
+    private static RuntimeException cannotAssign(Object v, TokenType t) {
+        return new RuntimeException("Type error: cannot assign " + v + " to " + t);
     }
 }
@@ -0,0 +1,12 @@
+package com.bisayapp;
+
+/**
+ * Selects how a parsed program is executed.
+ */
+public enum ExecutionEngine {
+    /** Walk the AST directly with Interpreter's visitors (default) */
+    TREE_WALKER,
+
+    /** Compile to Bytecode and run it on the VirtualMachine */
+    BYTECODE_VM
+}
@@ -9,6 +9,7 @@ public abstract class Expr {
         R visitUnary(Unary e);
         R visitPostfix(Postfix e);
         R visitGrouping(Grouping e);
+        R visitTyped(Typed e);
     }
 
     public static final class Literal extends Expr {
@@ -20,6 +21,7 @@ public abstract class Expr {
     public static final class Variable extends Expr {
         public final Token token;
         public final String name;
+        public int slot = -1; // assigned by Resolver
         public Variable(Token token, String name) { 
             this.token = token;
             this.name = name; 
@@ -30,6 +32,7 @@ public abstract class Expr {
     public static final class Assign extends Expr {
         public final String name;
         public final Expr value;
+        public int slot = -1; // assigned by Resolver
         public Assign(String name, Expr value) { this.name = name; this.value = value; }
         @Override public <R> R accept(Visitor<R> v) { return v.visitAssign(this); }
     }
@@ -68,5 +71,33 @@ public abstract class Expr {
         @Override public <R> R accept(Visitor<R> v) { return v.visitGrouping(this); }
     }
 
+    /**
+     * A subtree whose operand types follow from the MUGNA declarations, built by the
+     * Specializer. The tree walker evaluates node while every variable in reads holds a
+     * value of its declared type (and target, if any, is declared as targetType), and
+     * otherwise falls back to generic for good; other passes only see generic.
+     */
+    public static final class Typed extends Expr {
+        public final Expr generic;
+        public final Variable[] reads;  // the variables node reads, i.e. its guard
+        public final TokenType[] types; // declared type of each read
+        public final Assign target;     // generic itself when node is a typed store, else null
+        public final TokenType targetType;
+        Specialized node;               // null once the guard has failed
+        Typed(Expr generic, Specialized node, Variable[] reads, TokenType[] types, Assign target, TokenType targetType) {
+            this.generic = generic; this.node = node; this.reads = reads; this.types = types;
+            this.target = target; this.targetType = targetType;
+        }
+        @Override public <R> R accept(Visitor<R> v) { return v.visitTyped(this); }
+    }
+
+    // Source span (1-based): first line and column, last line; 0 if synthesized without a position
+    public int line, col, endLine;
+
+    /** Copies the source span of the node this one was derived from */
+    public void spanFrom(Expr other) {
+        this.line = other.line; this.col = other.col; this.endLine = other.endLine;
+    }
+
     public abstract <R> R accept(Visitor<R> v);
 }
@@ -23,6 +23,24 @@ public interface IOHandler {
      */
     void writeOutput(String text);
     
+    /**
+     * Writes program output that may be held back and sent in batches.
+     * Used by IPAKITA; the text is only read during the call, so callers may reuse it.
+     * Default implementation writes immediately via writeOutput().
+     * 
+     * @param text The text to output
+     */
+    default void bufferOutput(CharSequence text) {
+        writeOutput(text.toString());
+    }
+    
+    /**
+     * Makes all buffered output visible.
+     * Called before DAWAT reads input and when the program finishes or fails.
+     */
+    default void flushOutput() {
+    }
+    
     /**
      * Writes error messages
      * 
@@ -39,6 +57,19 @@ public interface IOHandler {
      */
     String readInput(String prompt);
     
+    /**
+     * Reads one DAWAT line split into comma-separated values.
+     * Default implementation wraps readInput(); ConsoleIOHandler returns a view over
+     * its input buffer without creating Strings.
+     * 
+     * @param prompt The prompt message to show
+     * @return The trimmed line; may be reused by the next call
+     * @throws RuntimeException if input is cancelled or unavailable
+     */
+    default InputLine readInputLine(String prompt) {
+        return InputLine.of(readInput(prompt));
+    }
+    
     /**
      * Checks if input is available
      * 
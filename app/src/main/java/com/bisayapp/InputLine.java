@@ -0,0 +1,172 @@
+package com.bisayapp;
+
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * One DAWAT input line split into comma-separated fields, in place.
+ *
+ * The line is a byte range of some buffer (normally InputReader's). Field bounds are
+ * found without creating Strings, and plain NUMERO/TIPIK values can be parsed directly
+ * from the bytes. Only fields that need the general path (LETRA, TINUOD, unusual
+ * numbers, error messages) are decoded with field().
+ *
+ * Splitting follows the original line.trim().split(",") + value.trim() exactly:
+ * - the line and every field are trimmed of characters <= ' '
+ * - trailing empty fields are dropped ("1,2," has 2 fields, "," has none)
+ * - an empty line has a single empty field
+ *
+ * An InputLine handed out by InputReader is reused for the next line.
+ */
+public final class InputLine {
+    // Largest mantissa a float holds exactly, and exact float powers of ten
+    private static final int MAX_EXACT_MANTISSA = 1 << 24;
+    private static final float[] POW10 = {
+        1e0f, 1e1f, 1e2f, 1e3f, 1e4f, 1e5f, 1e6f, 1e7f, 1e8f, 1e9f, 1e10f
+    };
+
+    private byte[] buf;
+    private int start;
+    private int end;
+    private Charset charset;
+
+    private int[] fieldStart = new int[8];
+    private int[] fieldEnd = new int[8];
+    private int fieldCount;
+
+    InputLine() {}
+
+    /**
+     * Wraps a line that was already read as a String (e.g. from a GUI dialog)
+     */
+    public static InputLine of(String line) {
+        byte[] bytes = line.getBytes(StandardCharsets.UTF_8);
+        InputLine l = new InputLine();
+        l.reset(bytes, 0, bytes.length, StandardCharsets.UTF_8);
+        return l;
+    }
+
+    /** Points this line at buf[from, to) and splits it into fields */
+    void reset(byte[] buf, int from, int to, Charset charset) {
+        this.buf = buf;
+        this.charset = charset;
+        // Bytes <= ' ' are exactly the characters String.trim() removes (ASCII-compatible charsets)
+        while (from < to && (buf[from] & 0xFF) <= ' ') from++;
+        while (to > from && (buf[to - 1] & 0xFF) <= ' ') to--;
+        this.start = from;
+        this.end = to;
+        split();
+    }
+
+    private void split() {
+        fieldCount = 0;
+        int lastNonEmpty = 0;    // field count up to the last field with raw length > 0
+        int fieldFrom = start;
+        for (int i = start; i <= end; i++) {
+            if (i < end && buf[i] != ',') continue;
+            addField(fieldFrom, i);
+            if (i > fieldFrom) lastNonEmpty = fieldCount;
+            fieldFrom = i + 1;
+        }
+        // String.split(): an empty input gives one empty field, otherwise trailing empties are removed
+        if (start < end) fieldCount = lastNonEmpty;
+    }
+
+    private void addField(int from, int to) {
+        if (fieldCount == fieldStart.length) {
+            fieldStart = Arrays.copyOf(fieldStart, fieldCount * 2);
+            fieldEnd = Arrays.copyOf(fieldEnd, fieldCount * 2);
+        }
+        while (from < to && (buf[from] & 0xFF) <= ' ') from++;
+        while (to > from && (buf[to - 1] & 0xFF) <= ' ') to--;
+        fieldStart[fieldCount] = from;
+        fieldEnd[fieldCount] = to;
+        fieldCount++;
+    }
+
+    /** Number of comma-separated values on this line */
+    public int fieldCount() { return fieldCount; }
+
+    /** Trimmed value i, decoded to a String */
+    public String field(int i) {
+        return new String(buf, fieldStart[i], fieldEnd[i] - fieldStart[i], charset);
+    }
+
+    /**
+     * True if value i is [+-]digits with at most 9 digits, so intValue() cannot overflow
+     * and gives the same result as Integer.valueOf()
+     */
+    public boolean isPlainInt(int i) {
+        int p = fieldStart[i], e = fieldEnd[i];
+        if (p < e && (buf[p] == '-' || buf[p] == '+')) p++;
+        int digits = e - p;
+        if (digits < 1 || digits > 9) return false;
+        for (; p < e; p++) {
+            if (buf[p] < '0' || buf[p] > '9') return false;
+        }
+        return true;
+    }
+
+    /** Value i as an int; only valid when isPlainInt(i) */
+    public int intValue(int i) {
+        int p = fieldStart[i], e = fieldEnd[i];
+        boolean negative = buf[p] == '-';
+        if (buf[p] == '-' || buf[p] == '+') p++;
+        int v = 0;
+        for (; p < e; p++) v = v * 10 + (buf[p] - '0');
+        return negative ? -v : v;
+    }
+
+    /**
+     * True if value i is [+-]digits[.digits] small enough for floatValue() to be exact:
+     * the digits fit a float mantissa and there are at most 10 decimals
+     */
+    public boolean isPlainFloat(int i) {
+        return parseFloat(i, true) == 0f;
+    }
+
+    /**
+     * Value i as a float; only valid when isPlainFloat(i). The result equals
+     * Float.parseFloat(): both operands of the division are exact floats, so the single
+     * correctly rounded division gives the correctly rounded value.
+     */
+    public float floatValue(int i) {
+        return parseFloat(i, false);
+    }
+
+    /** In check mode returns 0 for a plain float and -1 otherwise */
+    private float parseFloat(int i, boolean check) {
+        int p = fieldStart[i], e = fieldEnd[i];
+        boolean negative = p < e && buf[p] == '-';
+        if (p < e && (buf[p] == '-' || buf[p] == '+')) p++;
+        long mantissa = 0;
+        int intDigits = 0, fracDigits = 0;
+        boolean dot = false;
+        for (; p < e; p++) {
+            byte b = buf[p];
+            if (b == '.' && !dot) {
+                dot = true;
+            } else if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                if (mantissa > MAX_EXACT_MANTISSA) return -1f;
+                if (dot) fracDigits++; else intDigits++;
+            } else {
+                return -1f;
+            }
+        }
+        if (check) {
+            // "5." and ".5" are left to Float.valueOf()
+            if (intDigits == 0 || (dot && fracDigits == 0) || fracDigits >= POW10.length) return -1f;
+            return 0f;
+        }
+        float v = (float) mantissa / POW10[fracDigits];
+        return negative ? -v : v;
+    }
+
+    /** The whole trimmed line, decoded */
+    @Override
+    public String toString() {
+        return new String(buf, start, end - start, charset);
+    }
+}
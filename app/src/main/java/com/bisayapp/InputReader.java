@@ -0,0 +1,134 @@
+package com.bisayapp;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+/**
+ * Buffered byte-level line reader for DAWAT input.
+ *
+ * Replaces java.util.Scanner: lines are found by scanning a reusable byte buffer
+ * and handed out as an InputLine view over that buffer, so reading a line creates
+ * no String and no regex match. Line terminators are the ones Scanner.nextLine()
+ * accepts: \r\n, \n, \r, and when the input is UTF-8 also U+0085, U+2028 and U+2029
+ * (which are found by their encoded bytes).
+ */
+public class InputReader {
+    private static final int DEFAULT_CAPACITY = 8192;
+
+    private final InputStream in;
+    private final Charset charset;
+    private final boolean utf8;
+    private byte[] buf;
+    private int pos = 0;      // start of unread data
+    private int limit = 0;    // end of valid data
+    private boolean eof = false;
+
+    private final InputLine line = new InputLine();
+
+    public InputReader(InputStream in) {
+        this(in, Charset.defaultCharset(), DEFAULT_CAPACITY);
+    }
+
+    public InputReader(InputStream in, Charset charset, int capacity) {
+        this.in = in;
+        this.charset = charset;
+        this.utf8 = charset.equals(StandardCharsets.UTF_8);
+        this.buf = new byte[Math.max(capacity, 16)];
+    }
+
+    /**
+     * @return true if another line (possibly empty) can be read
+     */
+    public boolean hasNextLine() {
+        return pos < limit || fill();
+    }
+
+    /**
+     * Reads the next line, trimmed and split into fields
+     *
+     * @return A view that stays valid until the next call
+     * @throws IllegalStateException if there is no more input
+     */
+    public InputLine nextLine() {
+        if (!hasNextLine()) throw new IllegalStateException("No line found");
+
+        int scan = pos;
+        while (true) {
+            while (scan < limit) {
+                int b = buf[scan] & 0xFF;
+                if (b == '\n' || b == '\r' || (utf8 && (b == 0xC2 || b == 0xE2))) {
+                    int terminator = terminatorLength(scan);
+                    if (terminator < 0) break;  // need more bytes to decide
+                    if (terminator > 0) return take(scan, scan + terminator);
+                }
+                scan++;
+            }
+            int scanned = scan - pos;
+            if (!fill()) {
+                // Last line without a terminator (or an incomplete one at end of input)
+                if (scan < limit) continue;
+                return take(limit, limit);
+            }
+            scan = pos + scanned;
+        }
+    }
+
+    /**
+     * Length of the line terminator starting at i, 0 if there is none,
+     * or -1 if more input is needed to tell
+     */
+    private int terminatorLength(int i) {
+        int b = buf[i] & 0xFF;
+        if (b == '\n') return 1;
+        if (b == '\r') {
+            if (i + 1 < limit) return buf[i + 1] == '\n' ? 2 : 1;
+            return eof ? 1 : -1;
+        }
+        if (b == 0xC2) {                    // U+0085 = C2 85
+            if (i + 1 >= limit) return eof ? 0 : -1;
+            return (buf[i + 1] & 0xFF) == 0x85 ? 2 : 0;
+        }
+        // U+2028 = E2 80 A8, U+2029 = E2 80 A9
+        if (i + 2 >= limit) return eof ? 0 : -1;
+        if ((buf[i + 1] & 0xFF) != 0x80) return 0;
+        int last = buf[i + 2] & 0xFF;
+        return last == 0xA8 || last == 0xA9 ? 3 : 0;
+    }
+
+    private InputLine take(int lineEnd, int next) {
+        line.reset(buf, pos, lineEnd, charset);
+        pos = next;
+        return line;
+    }
+
+    /**
+     * Reads more input after the unread data, compacting or growing the buffer.
+     * Previously returned InputLine views become invalid.
+     *
+     * @return false if nothing more could be read
+     */
+    private boolean fill() {
+        if (eof) return false;
+        if (pos > 0) {
+            System.arraycopy(buf, pos, buf, 0, limit - pos);
+            limit -= pos;
+            pos = 0;
+        }
+        if (limit == buf.length) buf = Arrays.copyOf(buf, buf.length * 2);
+        try {
+            int n = in.read(buf, limit, buf.length - limit);
+            if (n <= 0) {
+                eof = true;
+                return false;
+            }
+            limit += n;
+            return true;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
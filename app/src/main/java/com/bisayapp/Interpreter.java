@@ -5,14 +5,37 @@ import java.io.InputStream;
 import java.util.List;
 
 public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
+    private final Resolver resolver = new Resolver();
     private final Environment env = new Environment();
     private final IOHandler ioHandler;
+    private final ResourceGovernor governor;
+    private final LineProfiler profiler;    // null unless profiling
+
+    // Reused by IPAKITA; the IOHandler only reads it during bufferOutput()
+    private final StringBuilder printBuffer = new StringBuilder();
 
     /**
      * Creates interpreter with custom IOHandler
      */
     public Interpreter(IOHandler ioHandler) {
+        this(ioHandler, ResourceGovernor.unlimited());
+    }
+
+    /**
+     * Creates interpreter whose runs are bounded by the given governor
+     */
+    public Interpreter(IOHandler ioHandler, ResourceGovernor governor) {
+        this(ioHandler, governor, null);
+    }
+
+    /**
+     * Creates interpreter that records per-line counts and self-times in the profiler.
+     * Profiling needs the AST, so profiled runs always use the tree walker.
+     */
+    public Interpreter(IOHandler ioHandler, ResourceGovernor governor, LineProfiler profiler) {
         this.ioHandler = ioHandler;
+        this.governor = governor;
+        this.profiler = profiler;
     }
 
     /**
@@ -30,19 +53,99 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     }
 
     public void interpret(List<Stmt> program) {
-        for (Stmt s : program) execute(s);
+        ProgramEvents.Execute event = new ProgramEvents.Execute();
+        event.begin();
+        try {
+            program = prepare(program, profiler == null);
+            governor.start();
+            if (profiler != null) profiler.start();
+            for (Stmt s : program) execute(s);
+        } finally {
+            if (profiler != null) profiler.stop();
+            // Output printed before an error must still appear
+            ioHandler.flushOutput();
+            commit(event, ExecutionEngine.TREE_WALKER, program);
+        }
+    }
+
+    /**
+     * Runs the program on the bytecode VM instead of walking the AST.
+     * Shares this interpreter's variables and I/O, so output is identical to interpret().
+     */
+    public void interpretBytecode(List<Stmt> program) {
+        ProgramEvents.Execute event = new ProgramEvents.Execute();
+        event.begin();
+        try {
+            program = prepare(program, false);
+            Bytecode bytecode = new BytecodeCompiler().compile(program);
+            governor.start();
+            new VirtualMachine(this, env, ioHandler, governor).run(bytecode);
+        } finally {
+            ioHandler.flushOutput();
+            commit(event, ExecutionEngine.BYTECODE_VM, program);
+        }
+    }
+
+    private static void commit(ProgramEvents.Execute event, ExecutionEngine engine, List<Stmt> program) {
+        if (event.shouldCommit()) {
+            event.programId = ProgramEvents.programId();
+            event.engine = engine.name();
+            event.statementCount = program.size();
+            event.commit();
+        }
     }
 
-    private void execute(Stmt s) { s.accept(this); }
-    private Object eval(Expr e) { return e.accept(this); }
+    /**
+     * Runs the program with the chosen execution engine
+     */
+    public void interpret(List<Stmt> program, ExecutionEngine engine) {
+        if (engine == ExecutionEngine.BYTECODE_VM && profiler == null) interpretBytecode(program);
+        else interpret(program);
+    }
+
+    /**
+     * Static passes shared by both engines: fold constants and dead branches,
+     * check literal types against declarations, then bind variable names to
+     * environment slots
+     *
+     * @param specialize Also build typed nodes for the tree walker (see Specializer)
+     */
+    private List<Stmt> prepare(List<Stmt> program, boolean specialize) {
+        ProgramEvents.Optimize event = new ProgramEvents.Optimize();
+        event.begin();
+        List<Stmt> optimized = new Optimizer(this).optimize(program);
+        optimized = new TypeChecker().check(optimized);
+        if (specialize) optimized = new Specializer(TypeChecker.declaredTypes(optimized)).specialize(optimized);
+        int slots = resolver.resolve(optimized);
+        env.ensureCapacity(slots);
+        if (event.shouldCommit()) {
+            event.programId = ProgramEvents.programId();
+            event.statementCount = optimized.size();
+            event.slotCount = slots;
+            event.commit();
+        }
+        return optimized;
+    }
+
+    private void execute(Stmt s) {
+        if (profiler == null) s.accept(this);
+        else profiler.execute(s, this);
+    }
+
+    private Object eval(Expr e) {
+        return profiler == null ? e.accept(this) : profiler.eval(e, this);
+    }
 
     // --- Stmt ---
     @Override
     public Void visitPrint(Stmt.Print s) {
-        StringBuilder sb = new StringBuilder();
+        // Evaluate every part first so an error prints nothing from this statement
+        StringBuilder sb = printBuffer;
+        sb.setLength(0);
         for (Expr e : s.parts) sb.append(stringify(eval(e)));
         // No automatic newline - user must explicitly use $ for newlines
-        ioHandler.writeOutput(sb.toString());
+        governor.onOutput(sb);
+        ioHandler.bufferOutput(sb);
         return null;
     }
 
@@ -51,36 +154,49 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         // Build prompt message
         String prompt = "Enter values for: " + String.join(", ", s.varNames);
         
-        String line;
+        // Everything printed so far must be visible before waiting for input
+        ioHandler.flushOutput();
+        
+        InputLine line;
+        ProgramEvents.InputWait wait = new ProgramEvents.InputWait();
+        wait.begin();
         try {
             if (!ioHandler.hasInput()) {
                 throw runtimeError(s.dawatToken, "DAWAT: No input available (empty input stream)");
             }
-            line = ioHandler.readInput(prompt);
+            line = ioHandler.readInputLine(prompt);
         } catch (RuntimeException e) {
             // Handle cancellation or input errors
             throw runtimeError(s.dawatToken, "DAWAT: " + e.getMessage());
+        } finally {
+            if (wait.shouldCommit()) {
+                wait.programId = ProgramEvents.programId();
+                wait.line = s.dawatToken.line;
+                wait.variableCount = s.varNames.size();
+                wait.commit();
+            }
         }
         
-        String[] values = line.split(",");
+        // Values are split in place, same rules as line.split(",") + trim()
+        int valueCount = line.fieldCount();
         
-        if (values.length != s.varNames.size()) {
+        if (valueCount != s.varNames.size()) {
             throw runtimeError(s.dawatToken, "DAWAT expects " + s.varNames.size() + 
-                " value(s), but got " + values.length);
+                " value(s), but got " + valueCount);
         }
         
         for (int i = 0; i < s.varNames.size(); i++) {
             String varName = s.varNames.get(i);
-            String inputValue = values[i].trim();
+            int slot = s.slots[i];
             
             // Check if variable exists - MUST check before getType()
-            if (!env.isDeclared(varName)) {
+            if (!env.isDeclared(slot)) {
                 throw runtimeError(s.dawatToken, "Undefined variable '" + varName + 
                     "'. Variables must be declared with MUGNA before using in DAWAT.");
             }
             
             // Get the variable's type (safe now, we know it exists)
-            TokenType type = env.getType(varName);
+            TokenType type = env.getType(slot);
             
             // Validate we have a non-null type
             if (type == null) {
@@ -88,9 +204,19 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                     "' exists but has no type information.");
             }
             
+            // Plain numbers are parsed straight from the input buffer
+            if (type == TokenType.NUMERO && line.isPlainInt(i)) {
+                env.assignInt(slot, varName, line.intValue(i));
+                continue;
+            }
+            if (type == TokenType.TIPIK && line.isPlainFloat(i)) {
+                env.assignFloat(slot, varName, line.floatValue(i));
+                continue;
+            }
+            
             // Parse and validate the input value
-            Object value = parseInputValue(inputValue, type, varName, s.dawatToken);
-            env.assign(varName, value);
+            Object value = parseInputValue(line.field(i), type, varName, s.dawatToken);
+            env.assign(slot, varName, value);
         }
         
         return null;
@@ -141,7 +267,9 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
 
     @Override
     public Void visitExprStmt(Stmt.ExprStmt s) {
-        eval(s.expr);
+        // A typed statement (i++) runs without boxing the value it discards
+        if (s.expr instanceof Expr.Typed t && specialized(t)) t.node.run(env);
+        else eval(s.expr);
         return null;
     }
 
@@ -149,7 +277,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     public Void visitVarDecl(Stmt.VarDecl s) {
         for (Stmt.VarDecl.Item it : s.items) {
             Object value = (it.init == null) ? null : eval(it.init);
-            env.declare(it.name, s.type, value);
+            env.declare(it.slot, it.name, s.type, value);
         }
         return null;
     }
@@ -191,6 +319,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
             if (s.update != null) {
                 execute(s.update);
             }
+            governor.onBackEdge();
         }
         
         return null;
@@ -202,6 +331,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         while (isTruthy(eval(s.condition))) {
             // Execute body
             execute(s.body);
+            governor.onBackEdge();
         }
         
         return null;
@@ -213,8 +343,8 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
 
     @Override
     public Object visitVariable(Expr.Variable e) {
-        Object v = env.get(e.name, e.token);
-        TokenType t = env.getType(e.name);
+        Object v = env.get(e.slot, e.token);
+        TokenType t = env.getType(e.slot);
         if (t == TokenType.TINUOD && v instanceof Boolean b) {
             return b ? "OO" : "DILI";
         }
@@ -225,10 +355,10 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
     public Object visitAssign(Expr.Assign e) {
         Object v = eval(e.value);
         // Require variables to be declared before assignment
-        if (!env.isDeclared(e.name)) {
+        if (!env.isDeclared(e.slot)) {
             throw new RuntimeException("Undefined variable '" + e.name + "'. Variables must be declared with MUGNA before assignment.");
         }
-        env.assign(e.name, v);
+        env.assign(e.slot, e.name, v);
         return v;
     }
 
@@ -296,7 +426,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
             // Note: UG (AND) and O (OR) are handled above with short-circuit evaluation
             
             default:
-                throw runtimeError(e.operator, "Unsupported binary operator: " + e.operator.lexeme);
+                throw runtimeError(e.operator, "Unsupported binary operator: " + e.operator.lexeme());
         }
     }
 
@@ -319,11 +449,14 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                     Number n = requireNumber(operand, e.operator);
                     Object result;
                     if (n instanceof Integer) {
-                        result = n.intValue() - 1;
+                        int r = n.intValue() - 1;
+                        env.assignInt(var.slot, var.name, r);
+                        result = r;
                     } else {
-                        result = n.floatValue() - 1.0f;
+                        float r = n.floatValue() - 1.0f;
+                        env.assignFloat(var.slot, var.name, r);
+                        result = r;
                     }
-                    env.assign(var.name, result);
                     return result;
                 }
                 throw runtimeError(e.operator, "Decrement operator requires a variable.");
@@ -338,11 +471,14 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                     Number n = requireNumber(operand, e.operator);
                     Object result;
                     if (n instanceof Integer) {
-                        result = n.intValue() + 1;
+                        int r = n.intValue() + 1;
+                        env.assignInt(var.slot, var.name, r);
+                        result = r;
                     } else {
-                        result = n.floatValue() + 1.0f;
+                        float r = n.floatValue() + 1.0f;
+                        env.assignFloat(var.slot, var.name, r);
+                        result = r;
                     }
-                    env.assign(var.name, result);
                     return result;
                 }
                 throw runtimeError(e.operator, "Increment operator requires a variable.");
@@ -352,7 +488,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                 return !bool;
             
             default:
-                throw runtimeError(e.operator, "Unsupported unary operator: " + e.operator.lexeme);
+                throw runtimeError(e.operator, "Unsupported unary operator: " + e.operator.lexeme());
         }
     }
 
@@ -366,13 +502,11 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                 if (e.operand instanceof Expr.Variable var) {
                     Number n = requireNumber(operand, e.operator);
                     Object oldValue = operand;
-                    Object newValue;
                     if (n instanceof Integer) {
-                        newValue = n.intValue() + 1;
+                        env.assignInt(var.slot, var.name, n.intValue() + 1);
                     } else {
-                        newValue = n.floatValue() + 1.0f;
+                        env.assignFloat(var.slot, var.name, n.floatValue() + 1.0f);
                     }
-                    env.assign(var.name, newValue);
                     return oldValue; // Return old value for postfix
                 }
                 throw runtimeError(e.operator, "Postfix increment operator requires a variable.");
@@ -382,19 +516,17 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
                 if (e.operand instanceof Expr.Variable var) {
                     Number n = requireNumber(operand, e.operator);
                     Object oldValue = operand;
-                    Object newValue;
                     if (n instanceof Integer) {
-                        newValue = n.intValue() - 1;
+                        env.assignInt(var.slot, var.name, n.intValue() - 1);
                     } else {
-                        newValue = n.floatValue() - 1.0f;
+                        env.assignFloat(var.slot, var.name, n.floatValue() - 1.0f);
                     }
-                    env.assign(var.name, newValue);
                     return oldValue; // Return old value for postfix
                 }
                 throw runtimeError(e.operator, "Postfix decrement operator requires a variable.");
             
             default:
-                throw runtimeError(e.operator, "Unsupported postfix operator: " + e.operator.lexeme);
+                throw runtimeError(e.operator, "Unsupported postfix operator: " + e.operator.lexeme());
         }
     }
 
@@ -403,28 +535,57 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return eval(e.expression);
     }
 
+    @Override
+    public Object visitTyped(Expr.Typed e) {
+        return specialized(e) ? e.node.evalBoxed(env) : eval(e.generic);
+    }
+
+    /**
+     * Guard of a typed node: every variable it reads must hold a value of its declared
+     * type, and the variable it assigns must be declared with the type it stores. The
+     * first failure rewrites the node to its generic form for good, so the generic node
+     * reports the error (or handles a program that ran before this one).
+     */
+    private boolean specialized(Expr.Typed e) {
+        if (e.node == null) return false;
+        Expr.Variable[] reads = e.reads;
+        for (int i = 0; i < reads.length; i++) {
+            int slot = reads[i].slot;
+            if (!env.isAssigned(slot) || env.getType(slot) != e.types[i]) {
+                e.node = null;
+                return false;
+            }
+        }
+        if (e.target != null && env.getType(e.target.slot) != e.targetType) {
+            e.node = null;
+            return false;
+        }
+        return true;
+    }
+
     // --- Helper methods ---
+    // Package-private so the VirtualMachine shares the exact same value semantics.
     
     /**
      * Creates a runtime error with line and column information.
      * This provides professional error messages that help users locate issues.
      */
-    private RuntimeException runtimeError(Token token, String message) {
+    RuntimeException runtimeError(Token token, String message) {
         return new RuntimeException("[line " + token.line + " col " + token.col + "] " + message);
     }
     
     /**
      * Ensures a value is a number, throwing an error with location if not.
      */
-    private Number requireNumber(Object value, Token operator) {
+    Number requireNumber(Object value, Token operator) {
         if (value instanceof Number n) return n;
-        throw runtimeError(operator, "type error: operand must be a number for operator '" + operator.lexeme + "'. Got: " + getTypeName(value));
+        throw runtimeError(operator, "type error: operand must be a number for operator '" + operator.lexeme() + "'. Got: " + getTypeName(value));
     }
     
     /**
      * Ensures a value is a boolean, throwing an error with location if not.
      */
-    private boolean requireBoolean(Object value, Token token, String context) {
+    boolean requireBoolean(Object value, Token token, String context) {
         if (value instanceof Boolean b) return b;
         if (value instanceof String s && (s.equals("OO") || s.equals("DILI"))) {
             return s.equals("OO");
@@ -445,7 +606,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return value.getClass().getSimpleName();
     }
 
-    private Object addNumbers(Object left, Object right, Token operator) {
+    Object addNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
@@ -455,7 +616,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return l.floatValue() + r.floatValue();
     }
 
-    private Object subtractNumbers(Object left, Object right, Token operator) {
+    Object subtractNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
@@ -465,7 +626,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return l.floatValue() - r.floatValue();
     }
 
-    private Object multiplyNumbers(Object left, Object right, Token operator) {
+    Object multiplyNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
@@ -475,7 +636,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return l.floatValue() * r.floatValue();
     }
 
-    private Object divideNumbers(Object left, Object right, Token operator) {
+    Object divideNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
@@ -489,7 +650,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return l.floatValue() / r.floatValue();
     }
 
-    private Object moduloNumbers(Object left, Object right, Token operator) {
+    Object moduloNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
@@ -503,14 +664,14 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return l.floatValue() % r.floatValue();
     }
 
-    private int compareNumbers(Object left, Object right, Token operator) {
+    int compareNumbers(Object left, Object right, Token operator) {
         Number l = requireNumber(left, operator);
         Number r = requireNumber(right, operator);
         
         return Float.compare(l.floatValue(), r.floatValue());
     }
 
-    private boolean isEqual(Object left, Object right) {
+    boolean isEqual(Object left, Object right) {
         if (left == null && right == null) return true;
         if (left == null) return false;
         
@@ -535,7 +696,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         return left.equals(right);
     }
 
-    private boolean isTruthy(Object value) {
+    boolean isTruthy(Object value) {
         if (value == null) {
             throw new RuntimeException("Condition cannot be null");
         }
@@ -556,7 +717,7 @@ public class Interpreter implements Expr.Visitor<Object>, Stmt.Visitor<Void> {
         throw new RuntimeException("Invalid type for boolean condition: " + value.getClass().getSimpleName());
     }
 
-    private String stringify(Object v) {
+    String stringify(Object v) {
         if (v == null) return "null";
         if (v instanceof Double d) {
             // Display double without unnecessary decimals (e.g., 4.0 -> 4)
@@ -1,11 +1,23 @@
 package com.bisayapp;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.UncheckedIOException;
 import java.util.*;
 
 public class Lexer {
-  // Source code string and token collection
-  private final String src;
+  // Source characters and token collection. For an in-memory source, src is the whole program;
+  // when streaming from a Reader, src is a window holding the characters from offset base on
+  private final CharSequence src;
+  private final CharSequence text;     // whole program, for lazy lexemes; null when streaming
+  private final Reader reader;         // null unless streaming
+  private final char[] readChunk;
+  private boolean readerDone = false;
+  private int base = 0;
   private final List<Token> tokens = new ArrayList<>();
+  private final Diagnostics diagnostics;
+  // Set by scanTokenBuffer(): tokens are then packed here instead of added to tokens
+  private TokenBuffer buffer;
   
   // Position tracking: start/current for current token, line/col for error reporting
   private int start = 0, current = 0, line = 1, col = 1;
@@ -42,11 +54,117 @@ public class Lexer {
     KEYWORDS.put("SAMTANG", TokenType.SAMTANG);   // WHILE
   }
 
+  // Keywords grouped by length so identifier() can recognize them in place, without
+  // cutting a String out of the source first. Every keyword is spelled like its TokenType.
+  private static final int MAX_KEYWORD_LENGTH = 9;
+  private static final TokenType[][] KEYWORDS_BY_LENGTH = new TokenType[MAX_KEYWORD_LENGTH + 1][];
+  static {
+    for (int len = 0; len <= MAX_KEYWORD_LENGTH; len++) {
+      final int n = len;
+      KEYWORDS_BY_LENGTH[len] = KEYWORDS.values().stream()
+          .filter(t -> t.name().length() == n).toArray(TokenType[]::new);
+    }
+  }
+
+  // Shared lexeme Strings for tokens whose text never varies (operators, keywords, NEWLINE).
+  // Tokens of the remaining types (IDENTIFIER, NUMBER, STRING, CHAR) cut their lexeme
+  // from the source lazily, the first time Token.lexeme() is called.
+  private static final String[] FIXED_LEXEMES = new String[TokenType.values().length];
+  static {
+    TokenType[] types = {
+      TokenType.LEFT_PAREN, TokenType.RIGHT_PAREN, TokenType.LEFT_BRACE, TokenType.RIGHT_BRACE,
+      TokenType.LEFT_BRACKET, TokenType.RIGHT_BRACKET,
+      TokenType.COMMA, TokenType.DOT, TokenType.COLON, TokenType.SEMICOLON,
+      TokenType.PLUS, TokenType.MINUS, TokenType.STAR, TokenType.SLASH, TokenType.PERCENT,
+      TokenType.AMPERSAND, TokenType.DOLLAR, TokenType.EQUAL,
+      TokenType.BANG, TokenType.BANG_EQUAL, TokenType.EQUAL_EQUAL,
+      TokenType.GREATER, TokenType.GREATER_EQUAL, TokenType.LESS, TokenType.LESS_EQUAL,
+      TokenType.LT_GT, TokenType.PLUS_PLUS, TokenType.MINUS_MINUS,
+      TokenType.NEWLINE, TokenType.EOF
+    };
+    String[] texts = {
+      "(", ")", "{", "}",
+      "[", "]",
+      ",", ".", ":", ";",
+      "+", "-", "*", "/", "%",
+      "&", "$", "=",
+      "!", "!=", "==",
+      ">", ">=", "<", "<=",
+      "<>", "++", "--",
+      "\n", ""
+    };
+    for (int i = 0; i < types.length; i++) FIXED_LEXEMES[types[i].ordinal()] = texts[i];
+    for (TokenType keyword : KEYWORDS.values()) FIXED_LEXEMES[keyword.ordinal()] = keyword.name();
+  }
+
+  // Longest digit run that number() converts itself; below 2^53, so the value is exact
+  private static final int MAX_FAST_DIGITS = 15;
+
+  // Streaming: characters read per Reader call, and how much consumed text the window
+  // may hold before nextToken() drops it
+  private static final int READ_CHUNK = 8192;
+  private static final int MAX_CONSUMED_WINDOW = 8192;
+
   /**
    * Constructor - Initialize lexer with source code
-   * @param source The Bisaya++ source code string to tokenize
+   * 
+   * Any CharSequence works, e.g. a String or a memory-mapped file (see MappedSource);
+   * it must not change while the lexer or its tokens are in use.
+   * 
+   * @param source The Bisaya++ source code to tokenize
    */
-  public Lexer(String source) { this.src = source; }
+  public Lexer(CharSequence source) {
+    this(source, new Diagnostics());
+  }
+
+  /**
+   * Constructor - Initialize lexer with source code, reporting errors to the given collector
+   * 
+   * @param source The Bisaya++ source code to tokenize
+   * @param diagnostics Receives lexical errors for this program
+   */
+  public Lexer(CharSequence source, Diagnostics diagnostics) {
+    this.src = source;
+    this.text = source;
+    this.reader = null;
+    this.readChunk = null;
+    this.diagnostics = diagnostics;
+  }
+
+  /**
+   * Streaming constructor - Read source code from a Reader as tokens are requested
+   * 
+   * Meant for nextToken() (pull mode, e.g. new Parser(lexer)): only a window of
+   * characters around the current token is kept, and every token carries its own
+   * lexeme. scanTokens() also works; scanTokenBuffer() needs an in-memory source.
+   * The caller closes the reader.
+   * 
+   * @param reader Source of the Bisaya++ program text
+   */
+  public Lexer(Reader reader) {
+    this(reader, new Diagnostics());
+  }
+
+  /**
+   * Streaming constructor - Read source code from a Reader, reporting errors to the given collector
+   * 
+   * @param reader Source of the Bisaya++ program text
+   * @param diagnostics Receives lexical errors for this program
+   */
+  public Lexer(Reader reader, Diagnostics diagnostics) {
+    this.src = new StringBuilder(READ_CHUNK * 2);
+    this.text = null;
+    this.reader = reader;
+    this.readChunk = new char[READ_CHUNK];
+    this.diagnostics = diagnostics;
+  }
+
+  /**
+   * @return The collector this lexer reports errors to; new Parser(lexer) reports there too
+   */
+  public Diagnostics diagnostics() {
+    return diagnostics;
+  }
 
   /**
    * MAIN TOKENIZATION DRIVER
@@ -64,13 +182,69 @@ public class Lexer {
    * Usage: Called by Parser or CLI to begin lexical analysis
    */
   public List<Token> scanTokens() {
+    scan();
+    return tokens;
+  }
+
+  /**
+   * PACKED TOKENIZATION - Same scan as scanTokens(), stored in a TokenBuffer
+   * 
+   * Holds the tokens in parallel arrays rather than one Token object each, which
+   * takes a fraction of the memory for large programs. Parser accepts either form.
+   * 
+   * @return Packed tokens including final EOF token
+   */
+  public TokenBuffer scanTokenBuffer() {
+    if (text == null) throw new IllegalStateException("scanTokenBuffer() needs an in-memory source, not a Reader");
+    buffer = new TokenBuffer(text);
+    scan();
+    return buffer;
+  }
+
+  private void scan() {
+    ProgramEvents.Lex event = new ProgramEvents.Lex();
+    event.begin();
     while (!isAtEnd()) {
       start = current;  // Mark start of next token
       scanToken();
     }
     // Add EOF token to mark end of input
-    tokens.add(new Token(TokenType.EOF, "", null, line, col));
-    return tokens;
+    start = current;
+    add(TokenType.EOF);
+    if (buffer != null) buffer.trimToSize();
+    if (event.shouldCommit()) {
+      event.programId = ProgramEvents.programId();
+      event.sourceLength = base + src.length();
+      event.tokenCount = buffer != null ? buffer.size() : tokens.size();
+      event.commit();
+    }
+  }
+
+  /**
+   * PULL-MODE TOKENIZATION - Scan just far enough to return the next token
+   * 
+   * Lets the Parser consume tokens as it goes instead of holding the whole token list
+   * (see Parser(Lexer)). With a Reader source, text before the returned token is
+   * dropped from the window as scanning moves on, so memory stays bounded by the
+   * longest token rather than the program. No Lex JFR event is recorded in this mode;
+   * lexing time is part of the Parse event.
+   * 
+   * Use one mode per Lexer: nextToken(), scanTokens() or scanTokenBuffer().
+   * 
+   * @return The next token; EOF once the source is exhausted, and again on every later call
+   */
+  public Token nextToken() {
+    tokens.clear();
+    dropConsumedText();
+    while (tokens.isEmpty()) {
+      start = current;
+      if (isAtEnd()) {
+        add(TokenType.EOF);
+      } else {
+        scanToken();
+      }
+    }
+    return tokens.get(0);
   }
 
   /**
@@ -89,7 +263,7 @@ public class Lexer {
    * Side effects:
    * - Updates current position and possibly line/col counters
    * - Adds tokens to the tokens list
-   * - May call ErrorReporter for invalid characters
+   * - May report invalid characters to diagnostics
    * 
    * Called by: scanTokens() repeatedly until end of source
    */
@@ -106,9 +280,9 @@ public class Lexer {
         if (match('[')) {
           // [[ is escape for literal [, need to consume the closing ]
           if (match(']')) {
-            tokens.add(new Token(TokenType.STRING, "[[]", "[", line, col));
+            add(TokenType.STRING, "[");
           } else {
-            ErrorReporter.error(line, col, "Expected ']' after '[['.");
+            diagnostics.error(line, col, "Expected ']' after '[['.");
           }
         } else {
           escapeCode();  // Handle escape sequences like [n], [t], etc.
@@ -136,7 +310,7 @@ public class Lexer {
         if (match('@')) {
           lineComment(); // Consume comment to end of line
         } else {
-          ErrorReporter.error(line, col, "Unexpected character: @");
+          diagnostics.error(line, col, "Unexpected character: @");
         }
       }
       
@@ -165,7 +339,7 @@ public class Lexer {
         // Numbers, identifiers, or error
         if (isDigit(c)) number();
         else if (isAlpha(c)) identifier();
-        else ErrorReporter.error(line, col, "Unexpected character: " + c);
+        else diagnostics.error(line, col, "Unexpected character: " + c);
       }
     }
     col++;  // Track column position
@@ -179,7 +353,51 @@ public class Lexer {
    * Check if we've reached the end of the source code
    * @return true if no more characters to scan, false otherwise
    */
-  private boolean isAtEnd() { return current >= src.length(); }
+  private boolean isAtEnd() { return !available(current); }
+
+  /**
+   * Whether the source has a character at offset index, reading more from the
+   * Reader if needed when streaming
+   */
+  private boolean available(int index) {
+    return index - base < src.length() || (reader != null && fill(index));
+  }
+
+  /**
+   * Reads from the Reader until offset index is in the window or input runs out
+   * @return true if index is now available
+   */
+  private boolean fill(int index) {
+    StringBuilder window = (StringBuilder) src;
+    try {
+      while (index - base >= window.length()) {
+        if (readerDone) return false;
+        int n = reader.read(readChunk);
+        if (n < 0) readerDone = true;
+        else window.append(readChunk, 0, n);
+      }
+      return true;
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+  }
+
+  /**
+   * Drops text before the current position from the streaming window once it
+   * grows past MAX_CONSUMED_WINDOW; every token before current already has its lexeme
+   */
+  private void dropConsumedText() {
+    if (reader != null && current - base > MAX_CONSUMED_WINDOW) {
+      ((StringBuilder) src).delete(0, current - base);
+      base = current;
+    }
+  }
+
+  /** Character at source offset index; index must be available */
+  private char charAt(int index) { return src.charAt(index - base); }
+
+  /** Source text between offsets from and to */
+  private String text(int from, int to) { return src.subSequence(from - base, to - base).toString(); }
 
   /**
    * CONSUME NEXT CHARACTER
@@ -193,7 +411,7 @@ public class Lexer {
    * 
    * Usage: Called whenever we need to consume a character we know we want
    */
-  private char advance() { return src.charAt(current++); }
+  private char advance() { return charAt(current++); }
   
   /**
    * CONDITIONAL CHARACTER CONSUMPTION - Lookahead for multi-character tokens
@@ -209,7 +427,7 @@ public class Lexer {
    */
   private boolean match(char expected) {
     if (isAtEnd()) return false;
-    if (src.charAt(current) != expected) return false;
+    if (charAt(current) != expected) return false;
     current++; return true;
   }
 
@@ -220,13 +438,14 @@ public class Lexer {
    * 
    * Usage: Safe for loops that scan until a terminator (strings, numbers, identifiers)
    */
-  private char peek() { return isAtEnd() ? '\0' : src.charAt(current); }
+  private char peek() { return isAtEnd() ? '\0' : charAt(current); }
 
   /**
    * TOKEN CREATION HELPER
    * 
-   * Creates a token from the current lexeme (substring from start to current position)
-   * and adds it to the tokens list with position information.
+   * Creates a token spanning start to current and adds it to the tokens list with
+   * position information. The lexeme is the shared constant for the type when it has
+   * one; otherwise it is cut from the source only if someone asks for it.
    * 
    * @param type The TokenType for this token
    * 
@@ -235,10 +454,24 @@ public class Lexer {
    * Usage: Called by simple single-character token cases
    */
   private void add(TokenType type) {
-    String text = src.substring(start, current);
-    tokens.add(new Token(type, text, null, line, col));
+    add(type, null);
+  }
+
+  private void add(TokenType type, Object literal) {
+    if (buffer != null) buffer.add(type, start, current, literal, line, col);
+    else {
+      String lexeme = FIXED_LEXEMES[type.ordinal()];
+      // Streaming tokens cannot go back to the source later, so they take their text now
+      if (lexeme == null && text == null) lexeme = text(start, current);
+      tokens.add(new Token(type, lexeme, text, start, current, literal, line, col));
+    }
   }
 
+  /**
+   * @return The shared lexeme for tokens of this type, or null if the text varies
+   */
+  static String fixedLexeme(TokenType type) { return FIXED_LEXEMES[type.ordinal()]; }
+
   /**
    * COMMENT PROCESSOR - Consume line comment until newline
    * 
@@ -281,7 +514,7 @@ public class Lexer {
    * Side effects: 
    * - Consumes characters until ']'
    * - Adds STRING token with escape sequence as lexeme and translated value
-   * - May call ErrorReporter for invalid sequences
+   * - May report invalid sequences to diagnostics
    */
   private void escapeCode() {
     // Already consumed the '['
@@ -289,39 +522,41 @@ public class Lexer {
     if (peek() == ']' && peekNext() == ']') {
       advance(); // consume first ']'
       advance(); // consume second ']'
-      tokens.add(new Token(TokenType.STRING, "[]]", "]", line, col));
+      add(TokenType.STRING, "]");
       return;
     }
     
     // Read escape code content until ']'
-    StringBuilder sb = new StringBuilder();
-    while (!isAtEnd() && peek() != ']') {
-      sb.append(advance());
-    }
+    int codeStart = current;
+    while (!isAtEnd() && peek() != ']') advance();
     if (isAtEnd()) {
-      ErrorReporter.error(line, col, "Unterminated escape code.");
+      diagnostics.error(line, col, "Unterminated escape code.");
       return;
     }
+    int codeLength = current - codeStart;
     advance(); // consume the ']'
     
-    String code = sb.toString();
-    String escaped;
-    switch (code) {
-      case "&" -> escaped = "&";      // literal ampersand
-      case "[" -> escaped = "[";      // literal left bracket  
-      case "]" -> escaped = "]";      // literal right bracket
-      case "" -> escaped = "";        // empty string
-      case ":" -> escaped = ":";        // empty string
-      default -> {
-        // For Increment 1, only [[, ]], and [&] are allowed per specification
-        ErrorReporter.error(line, col, "Invalid escape sequence: [" + code + "]. Only [[, ]], and [&] are supported.");
-        return; // Don't create a token for invalid sequences
+    String escaped = null;
+    if (codeLength == 0) {
+      escaped = "";                   // empty string
+    } else if (codeLength == 1) {
+      switch (charAt(codeStart)) {
+        case '&' -> escaped = "&";    // literal ampersand
+        case '[' -> escaped = "[";    // literal left bracket
+        case ']' -> escaped = "]";    // literal right bracket
+        case ':' -> escaped = ":";    // literal colon
+        default -> {}
       }
     }
+    if (escaped == null) {
+      // For Increment 1, only [[, ]], and [&] are allowed per specification
+      String code = text(codeStart, codeStart + codeLength);
+      diagnostics.error(line, col, "Invalid escape sequence: [" + code + "]. Only [[, ]], and [&] are supported.");
+      return; // Don't create a token for invalid sequences
+    }
     
-    // Create string token with escaped value
-    String lexeme = "[" + code + "]";
-    tokens.add(new Token(TokenType.STRING, lexeme, escaped, line, col));
+    // Create string token with escaped value; the lexeme is the whole [code]
+    add(TokenType.STRING, escaped);
   }
 
   /**
@@ -345,18 +580,17 @@ public class Lexer {
    * - Consumes characters until closing '"'
    * - Updates line/col counters for embedded newlines
    * - Adds STRING token with full lexeme and parsed content
-   * - Calls ErrorReporter if string is not terminated
+   * - Reports an error if string is not terminated
    */
   private void string() {
-    StringBuilder sb = new StringBuilder();
     while (!isAtEnd() && peek() != '"') {
       char ch = advance();
       if (ch == '\n') { line++; col = 0; }  // track newlines in strings
-      sb.append(ch);
     }
-    if (isAtEnd()) ErrorReporter.error(line, col, "Unterminated string.");
+    if (isAtEnd()) diagnostics.error(line, col, "Unterminated string.");
     advance(); // closing "
-    tokens.add(new Token(TokenType.STRING, src.substring(start, current), sb.toString(), line, col));
+    // Contents are raw, so the value is exactly the text between the quotes
+    add(TokenType.STRING, text(start + 1, current - 1));
   }
 
   /**
@@ -375,24 +609,24 @@ public class Lexer {
    * Side effects:
    * - Consumes the character and closing quote
    * - Adds CHAR token with lexeme and character value
-   * - Calls ErrorReporter for malformed character literals
+   * - Reports errors for malformed character literals
    */
   private void character() {
     if (isAtEnd() || peek() == '\n') {
-      ErrorReporter.error(line, col, "Unterminated character literal.");
+      diagnostics.error(line, col, "Unterminated character literal.");
       return;
     }
     char value = advance();
     if (isAtEnd()) {
-      ErrorReporter.error(line, col, "Unterminated character literal - missing closing quote.");
+      diagnostics.error(line, col, "Unterminated character literal - missing closing quote.");
       return;
     }
     if (peek() != '\'') {
-      ErrorReporter.error(line, col, "Invalid character literal - expected closing quote after character.");
+      diagnostics.error(line, col, "Invalid character literal - expected closing quote after character.");
       return;
     }
     advance(); // consume the closing '
-    tokens.add(new Token(TokenType.CHAR, src.substring(start, current), value, line, col));
+    add(TokenType.CHAR, value);
   }
 
   /**
@@ -414,6 +648,9 @@ public class Lexer {
    * Storage: All numbers stored as Double regardless of integer/decimal appearance
    * (Parser/Interpreter must handle NUMERO vs TIPIK type distinctions)
    * 
+   * Plain integers of up to MAX_FAST_DIGITS digits are converted in place, so the
+   * common case allocates no String; other forms go through Double.parseDouble.
+   * 
    * @precondition First digit character has been detected by scanToken()
    * 
    * Side effects:
@@ -422,13 +659,16 @@ public class Lexer {
    */
   private void number() {
     while (isDigit(peek())) advance();
+    boolean plainInteger = true;
     // Optional fractional part
     if (peek() == '.' && isDigit(peekNext())) {
       advance(); // consume the '.'
       while (isDigit(peek())) advance();
+      plainInteger = false;
     }
     // Optional scientific notation (e.g., 1.5E10, 2e-5)
     if (peek() == 'E' || peek() == 'e') {
+      plainInteger = false;
       advance(); // consume 'E' or 'e'
       // Optional sign
       if (peek() == '+' || peek() == '-') {
@@ -436,13 +676,18 @@ public class Lexer {
       }
       // Exponent digits (required)
       if (!isDigit(peek())) {
-        ErrorReporter.error(line, col, "Invalid scientific notation: expected digits after 'E'");
+        diagnostics.error(line, col, "Invalid scientific notation: expected digits after 'E'");
         return;
       }
       while (isDigit(peek())) advance();
     }
-    String text = src.substring(start, current);
-    tokens.add(new Token(TokenType.NUMBER, text, Double.parseDouble(text), line, col));
+    if (plainInteger && current - start <= MAX_FAST_DIGITS) {
+      long value = 0;
+      for (int i = start; i < current; i++) value = value * 10 + (charAt(i) - '0');
+      add(TokenType.NUMBER, (double) value);
+      return;
+    }
+    add(TokenType.NUMBER, Double.parseDouble(text(start, current)));
   }
   
   /**
@@ -455,7 +700,7 @@ public class Lexer {
    * 
    * Usage: Validating patterns like "1.5" (ensuring digit after dot)
    */
-  private char peekNext() { return (current + 1 >= src.length()) ? '\0' : src.charAt(current + 1); }
+  private char peekNext() { return available(current + 1) ? charAt(current + 1) : '\0'; }
 
   /**
    * IDENTIFIER AND KEYWORD PROCESSOR
@@ -472,7 +717,8 @@ public class Lexer {
    * Keyword detection:
    * - All keywords are uppercase (MUGNA, NUMERO, etc.)
    * - Lowercase versions treated as identifiers
-   * - Uses HashMap lookup for O(1) keyword recognition
+   * - Compared in place against the keywords of the same length (KEYWORDS_BY_LENGTH),
+   *   so neither keywords nor identifiers allocate a String here
    * 
    * @precondition First alphabetic character detected by scanToken()
    * 
@@ -483,10 +729,22 @@ public class Lexer {
    */
   private void identifier() {
     while (isAlphaNum(peek())) advance();
-    String text = src.substring(start, current);
     // Check if identifier is a reserved keyword, default to IDENTIFIER
-    TokenType type = KEYWORDS.getOrDefault(text, TokenType.IDENTIFIER);
-    tokens.add(new Token(type, text, null, line, col));
+    add(keywordType(start, current - start));
+  }
+
+  /**
+   * @return The keyword TokenType spelled by src[from, from+length), or IDENTIFIER
+   */
+  private TokenType keywordType(int from, int length) {
+    if (length > MAX_KEYWORD_LENGTH) return TokenType.IDENTIFIER;
+    for (TokenType keyword : KEYWORDS_BY_LENGTH[length]) {
+      String name = keyword.name();
+      int i = 0;
+      while (i < length && charAt(from + i) == name.charAt(i)) i++;
+      if (i == length) return keyword;
+    }
+    return TokenType.IDENTIFIER;
   }
 
   // ============================================================================
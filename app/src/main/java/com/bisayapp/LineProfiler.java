@@ -0,0 +1,130 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.regex.Pattern;
+
+/**
+ * Line-level execution profiler for the tree-walking interpreter.
+ *
+ * For every source line it records how often statements and expressions that start
+ * on that line ran, and their cumulative self-time: the time spent in a node minus the
+ * time spent in the nodes nested inside it. Self-times of all lines add up to the
+ * total run time, so the report shows where a program really spends its time.
+ *
+ * The Interpreter routes execute()/eval() through this class only while a profiled
+ * run is active; constant folding before the run is not counted.
+ */
+public class LineProfiler {
+    private static final Pattern LINE_BREAK = Pattern.compile("\r\n|\r|\n");
+
+    private long[] statements = new long[64];
+    private long[] expressions = new long[64];
+    private long[] selfNanos = new long[64];
+
+    private boolean running = false;
+    private long childNanos = 0;    // time spent in nested nodes of the node being timed
+
+    /** Starts recording; called by the Interpreter after the static passes */
+    void start() {
+        running = true;
+        childNanos = 0;
+    }
+
+    /** Stops recording */
+    void stop() {
+        running = false;
+    }
+
+    void execute(Stmt s, Interpreter interpreter) {
+        if (!running) {
+            s.accept(interpreter);
+            return;
+        }
+        long savedChild = childNanos;
+        childNanos = 0;
+        long t0 = System.nanoTime();
+        try {
+            s.accept(interpreter);
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            record(s.line, elapsed - childNanos, true);
+            childNanos = savedChild + elapsed;
+        }
+    }
+
+    Object eval(Expr e, Interpreter interpreter) {
+        if (!running) return e.accept(interpreter);
+        long savedChild = childNanos;
+        childNanos = 0;
+        long t0 = System.nanoTime();
+        try {
+            return e.accept(interpreter);
+        } finally {
+            long elapsed = System.nanoTime() - t0;
+            record(e.line, elapsed - childNanos, false);
+            childNanos = savedChild + elapsed;
+        }
+    }
+
+    private void record(int line, long self, boolean statement) {
+        if (line >= selfNanos.length) {
+            int n = Math.max(line + 1, selfNanos.length * 2);
+            statements = Arrays.copyOf(statements, n);
+            expressions = Arrays.copyOf(expressions, n);
+            selfNanos = Arrays.copyOf(selfNanos, n);
+        }
+        if (statement) statements[line]++;
+        else expressions[line]++;
+        selfNanos[line] += self;
+    }
+
+    /** Statements executed that start on the given line */
+    public long statementCount(int line) {
+        return line < statements.length ? statements[line] : 0;
+    }
+
+    /** Expressions evaluated that start on the given line */
+    public long expressionCount(int line) {
+        return line < expressions.length ? expressions[line] : 0;
+    }
+
+    /** Cumulative self-time of the nodes on the given line */
+    public long selfNanos(int line) {
+        return line < selfNanos.length ? selfNanos[line] : 0;
+    }
+
+    /**
+     * Formats the hottest lines, by self-time
+     *
+     * @param source Program text, used to show each line
+     * @param limit Maximum number of lines to list
+     * @return Report text ending with a newline
+     */
+    public String report(CharSequence source, int limit) {
+        String[] lines = LINE_BREAK.split(source, -1);
+        List<Integer> hot = new ArrayList<>();
+        long total = 0;
+        for (int line = 0; line < selfNanos.length; line++) {
+            if (statements[line] == 0 && expressions[line] == 0) continue;
+            hot.add(line);
+            total += selfNanos[line];
+        }
+        hot.sort((a, b) -> Long.compare(selfNanos[b], selfNanos[a]));
+
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "=== PROFILE (total %.3f ms) ===\n", total / 1e6));
+        sb.append(String.format(Locale.ROOT, "%6s %10s %10s %10s %6s  %s\n", "LINE", "STMTS", "EXPRS", "SELF ms", "%", "SOURCE"));
+        for (int i = 0; i < hot.size() && i < limit; i++) {
+            int line = hot.get(i);
+            String text = line >= 1 && line <= lines.length ? lines[line - 1].strip() : "";
+            double percent = total > 0 ? 100.0 * selfNanos[line] / total : 0;
+            sb.append(String.format(Locale.ROOT, "%6s %10d %10d %10.3f %5.1f%%  %s\n",
+                line > 0 ? String.valueOf(line) : "?", statements[line], expressions[line],
+                selfNanos[line] / 1e6, percent, text));
+        }
+        return sb.toString();
+    }
+}
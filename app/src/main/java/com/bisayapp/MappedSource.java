@@ -0,0 +1,65 @@
+package com.bisayapp;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Program text read straight out of a memory-mapped source file.
+ *
+ * Bisaya++ programs are almost always plain ASCII, where every byte is one char:
+ * open() then lexes over the mapped bytes themselves, so the file is never copied
+ * into a heap String and repeated runs of the same file are served from the OS page
+ * cache. Files with any non-ASCII byte are decoded as UTF-8 into a CharBuffer instead,
+ * failing on malformed input the way Files.readString does.
+ *
+ * Only the text of identifiers, literals and error snippets is ever copied out, via
+ * subSequence(). The mapping stays valid after the file channel is closed and is
+ * released once the source and every Token cut from it are unreachable.
+ */
+public final class MappedSource implements CharSequence {
+  private final ByteBuffer bytes;
+
+  private MappedSource(ByteBuffer bytes) { this.bytes = bytes; }
+
+  /**
+   * Maps a source file for lexing
+   * @param path File to map
+   * @return The file's text, backed by the mapping when the file is ASCII
+   * @throws IOException if the file cannot be read, is over 2 GB, or is not valid UTF-8
+   */
+  public static CharSequence open(Path path) throws IOException {
+    MappedByteBuffer mapped;
+    try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+      long size = channel.size();
+      if (size > Integer.MAX_VALUE) throw new IOException("Source file too large to map: " + path);
+      mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+    }
+    if (isAscii(mapped)) return new MappedSource(mapped);
+    return StandardCharsets.UTF_8.newDecoder().decode(mapped);
+  }
+
+  private static boolean isAscii(ByteBuffer bytes) {
+    for (int i = 0, n = bytes.limit(); i < n; i++) {
+      if (bytes.get(i) < 0) return false;
+    }
+    return true;
+  }
+
+  @Override public int length() { return bytes.limit(); }
+
+  @Override public char charAt(int index) { return (char) bytes.get(index); }
+
+  /** Copies the text between start and end into a String */
+  @Override public CharSequence subSequence(int start, int end) {
+    byte[] text = new byte[end - start];
+    bytes.get(start, text);
+    return new String(text, StandardCharsets.ISO_8859_1);
+  }
+
+  @Override public String toString() { return subSequence(0, length()).toString(); }
+}
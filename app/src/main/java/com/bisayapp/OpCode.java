@@ -0,0 +1,59 @@
+package com.bisayapp;
+
+/**
+ * Instruction set for the Bisaya++ bytecode VM.
+ *
+ * Each instruction is one int opcode followed by zero or more int operands in the
+ * code array. Operands named "k" index the constant pool, "slot" is an Environment
+ * slot assigned by the Resolver, and "offset" is a jump distance relative to the
+ * instruction that follows the jump.
+ */
+final class OpCode {
+    private OpCode() {}
+
+    // --- Constants and variables ---
+    static final int CONSTANT      = 0;  // k            push constants[k]
+    static final int POP           = 1;  //              discard top of stack
+    static final int LOAD          = 2;  // slot, kTok   push variable value
+    static final int STORE         = 3;  // slot, kName  assign top of stack (value stays)
+    static final int DECLARE       = 4;  // slot, kName, kType   pop value and declare
+
+    // --- Arithmetic and text (kTok = operator token for errors) ---
+    static final int ADD           = 5;  // kTok
+    static final int SUBTRACT      = 6;  // kTok
+    static final int MULTIPLY      = 7;  // kTok
+    static final int DIVIDE        = 8;  // kTok
+    static final int MODULO        = 9;  // kTok
+    static final int CONCAT        = 10;
+
+    // --- Comparison ---
+    static final int GREATER       = 11; // kTok
+    static final int GREATER_EQUAL = 12; // kTok
+    static final int LESS          = 13; // kTok
+    static final int LESS_EQUAL    = 14; // kTok
+    static final int EQUAL         = 15;
+    static final int NOT_EQUAL     = 16;
+
+    // --- Unary and logical ---
+    static final int NEGATE        = 17; // kTok
+    static final int POSITIVE      = 18; // kTok
+    static final int NOT           = 19; // kTok
+    static final int REQUIRE_BOOL  = 20; // kTok, kContext   replace top with Boolean
+
+    // --- Increment / decrement (operand value already on stack) ---
+    static final int PRE_INCREMENT  = 21; // slot, kName, kTok
+    static final int PRE_DECREMENT  = 22; // slot, kName, kTok
+    static final int POST_INCREMENT = 23; // slot, kName, kTok
+    static final int POST_DECREMENT = 24; // slot, kName, kTok
+
+    // --- Statements ---
+    static final int PRINT         = 25; // count        pop count parts and write them
+    static final int INPUT         = 26; // k            run DAWAT for constants[k]
+    static final int FAIL          = 27; // kTok, kMsg   raise a runtime error
+
+    // --- Control flow ---
+    static final int JUMP               = 28; // offset
+    static final int JUMP_IF_FALSE      = 29; // offset   pop condition
+    static final int JUMP_IF_FALSE_KEEP = 30; // offset   peek Boolean (UG short-circuit)
+    static final int JUMP_IF_TRUE_KEEP  = 31; // offset   peek Boolean (O short-circuit)
+}
@@ -0,0 +1,338 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * AST Optimizer for Bisaya++ Programs
+ *
+ * Runs once between Parser.parseProgram() and the Resolver and rewrites the tree so
+ * loops stop re-evaluating work whose result is already known:
+ * - Constant folding: operators whose operands are all literals become a Literal
+ *   (arithmetic, comparisons, & concatenation, UG/O, DILI, unary minus)
+ * - Adjacent literal text in IPAKITA and & chains (x & " " & $) is merged into one string
+ * - Algebraic simplification: x*1, 1*x, x/1, x-0 become x, and x+0 / 0+x become x
+ *   where the value is only printed
+ * - KUNG branches whose condition folds to OO/DILI are replaced by the branch taken
+ * - SAMTANG / ALANG SA loops whose condition folds to DILI are removed
+ * - Statements after a loop that can never finish (condition folds to OO) are dropped
+ *
+ * The rewrite must not change what a program prints or which error it reports:
+ * - Literal operands are evaluated with the Interpreter's own helpers, so folded
+ *   values are exactly what the program would have computed
+ * - Anything that throws (division by zero, type errors) is left in place so the
+ *   error still happens at runtime, at the same point in the output
+ * - Simplifications only apply when x is known to produce a TIPIK value. With a
+ *   NUMERO x, x*1 gives a TIPIK (number literals are decimal), so it is kept.
+ *   x+0 turns -0.0 into 0.0, which is only invisible once the value is stringified
+ *
+ * Unchanged nodes are returned as-is, so node identity is preserved wherever
+ * nothing was rewritten.
+ */
+public class Optimizer implements Expr.Visitor<Expr>, Stmt.Visitor<Stmt> {
+    private final Interpreter interpreter;
+
+    /**
+     * @param interpreter Used to evaluate literal-only subexpressions
+     */
+    public Optimizer(Interpreter interpreter) {
+        this.interpreter = interpreter;
+    }
+
+    /**
+     * Optimizes a whole program
+     *
+     * @param program Statements produced by the parser (not modified)
+     * @return Optimized statements
+     */
+    public List<Stmt> optimize(List<Stmt> program) {
+        return optimizeAll(program);
+    }
+
+    private Expr optimize(Expr e) { return e == null ? null : e.accept(this); }
+    private Stmt optimize(Stmt s) { return s == null ? null : s.accept(this); }
+
+    /** Optimizes a statement list, dropping removed and unreachable statements */
+    private List<Stmt> optimizeAll(List<Stmt> statements) {
+        List<Stmt> result = new ArrayList<>(statements.size());
+        for (Stmt s : statements) {
+            Stmt optimized = optimize(s);
+            if (optimized == null) continue;
+            result.add(optimized);
+            // Nothing after a loop that never finishes can run
+            if (neverCompletes(optimized)) break;
+        }
+        return result;
+    }
+
+    // --- Stmt ---
+    @Override
+    public Stmt visitPrint(Stmt.Print s) {
+        List<Expr> parts = new ArrayList<>(s.parts.size());
+        boolean changed = false;
+        for (Expr part : s.parts) {
+            Expr optimized = simplifyForText(optimize(part));
+            changed |= optimized != part;
+
+            // Merge with the previous part when both are literals
+            int last = parts.size() - 1;
+            if (last >= 0 && parts.get(last) instanceof Expr.Literal prev && optimized instanceof Expr.Literal lit) {
+                parts.set(last, at(new Expr.Literal(interpreter.stringify(prev.value) + interpreter.stringify(lit.value)), prev));
+                changed = true;
+            } else {
+                parts.add(optimized);
+            }
+        }
+        return changed ? at(new Stmt.Print(parts), s) : s;
+    }
+
+    @Override
+    public Stmt visitExprStmt(Stmt.ExprStmt s) {
+        Expr expr = optimize(s.expr);
+        return expr == s.expr ? s : at(new Stmt.ExprStmt(expr), s);
+    }
+
+    @Override
+    public Stmt visitVarDecl(Stmt.VarDecl s) {
+        List<Stmt.VarDecl.Item> items = new ArrayList<>(s.items.size());
+        boolean changed = false;
+        for (Stmt.VarDecl.Item it : s.items) {
+            Expr init = optimize(it.init);
+            if (init != it.init) {
+                items.add(new Stmt.VarDecl.Item(it.name, init));
+                changed = true;
+            } else {
+                items.add(it);
+            }
+        }
+        return changed ? at(new Stmt.VarDecl(s.type, items), s) : s;
+    }
+
+    @Override
+    public Stmt visitInput(Stmt.Input s) { return s; }
+
+    @Override
+    public Stmt visitIf(Stmt.If s) {
+        Expr condition = optimize(s.condition);
+        Stmt thenBranch = optimize(s.thenBranch);
+        Stmt elseBranch = optimize(s.elseBranch);
+
+        Boolean known = constantCondition(condition);
+        if (known != null) return known ? thenBranch : elseBranch;
+
+        if (condition == s.condition && thenBranch == s.thenBranch && elseBranch == s.elseBranch) return s;
+        return at(new Stmt.If(condition, thenBranch, elseBranch), s);
+    }
+
+    @Override
+    public Stmt visitBlock(Stmt.Block s) {
+        List<Stmt> statements = optimizeAll(s.statements);
+        return sameStatements(statements, s.statements) ? s : at(new Stmt.Block(statements), s);
+    }
+
+    @Override
+    public Stmt visitFor(Stmt.For s) {
+        Stmt initializer = optimize(s.initializer);
+        Expr condition = optimize(s.condition);
+        Stmt update = optimize(s.update);
+        Stmt body = optimize(s.body);
+
+        // The initializer still runs once even when the loop body never does
+        if (Boolean.FALSE.equals(constantCondition(condition))) return initializer;
+
+        if (initializer == s.initializer && condition == s.condition && update == s.update && body == s.body) return s;
+        return at(new Stmt.For(initializer, condition, update, body), s);
+    }
+
+    @Override
+    public Stmt visitWhile(Stmt.While s) {
+        Expr condition = optimize(s.condition);
+        Stmt body = optimize(s.body);
+
+        if (Boolean.FALSE.equals(constantCondition(condition))) return null;
+
+        if (condition == s.condition && body == s.body) return s;
+        return at(new Stmt.While(condition, body), s);
+    }
+
+    // --- Expr ---
+    @Override
+    public Expr visitLiteral(Expr.Literal e) { return e; }
+
+    @Override
+    public Expr visitVariable(Expr.Variable e) { return e; }
+
+    @Override
+    public Expr visitAssign(Expr.Assign e) {
+        Expr value = optimize(e.value);
+        return value == e.value ? e : at(new Expr.Assign(e.name, value), e);
+    }
+
+    @Override
+    public Expr visitBinary(Expr.Binary e) {
+        Expr left = optimize(e.left);
+        Expr right = optimize(e.right);
+        if (e.operator.type == TokenType.AMPERSAND) {
+            left = simplifyForText(left);
+            right = simplifyForText(right);
+        }
+        Expr.Binary node = left == e.left && right == e.right ? e : at(new Expr.Binary(left, e.operator, right), e);
+
+        if (left instanceof Expr.Literal && right instanceof Expr.Literal) return fold(node);
+
+        // (x & "a") & "b" -> x & "ab": & always produces text, so the literals can be joined
+        if (e.operator.type == TokenType.AMPERSAND && right instanceof Expr.Literal lit
+                && left instanceof Expr.Binary inner && inner.operator.type == TokenType.AMPERSAND
+                && inner.right instanceof Expr.Literal innerLit) {
+            String joined = interpreter.stringify(innerLit.value) + interpreter.stringify(lit.value);
+            return at(new Expr.Binary(inner.left, inner.operator, at(new Expr.Literal(joined), innerLit)), e);
+        }
+
+        // A literal left operand can decide UG/O without evaluating the right one
+        if (left instanceof Expr.Literal lit && (e.operator.type == TokenType.UG || e.operator.type == TokenType.O)) {
+            Boolean known = constantCondition(lit);
+            if (known != null && known == (e.operator.type == TokenType.O)) return at(new Expr.Literal(known), e);
+        }
+
+        return simplify(node);
+    }
+
+    @Override
+    public Expr visitUnary(Expr.Unary e) {
+        Expr operand = optimize(e.operand);
+        Expr.Unary node = operand == e.operand ? e : at(new Expr.Unary(e.operator, operand), e);
+        // ++/-- on a literal is an error; leave it for the interpreter to report
+        if (operand instanceof Expr.Literal && e.operator.type != TokenType.PLUS_PLUS
+                && e.operator.type != TokenType.MINUS_MINUS) {
+            return fold(node);
+        }
+        return node;
+    }
+
+    @Override
+    public Expr visitPostfix(Expr.Postfix e) {
+        Expr operand = optimize(e.operand);
+        return operand == e.operand ? e : at(new Expr.Postfix(operand, e.operator), e);
+    }
+
+    @Override
+    public Expr visitGrouping(Expr.Grouping e) {
+        Expr inner = optimize(e.expression);
+        // Parentheses only matter to the parser; a folded value needs none
+        if (inner instanceof Expr.Literal) return inner;
+        return inner == e.expression ? e : at(new Expr.Grouping(inner), e);
+    }
+
+    @Override
+    public Expr visitTyped(Expr.Typed e) {
+        return e;   // built later by the Specializer
+    }
+
+    // --- Folding and simplification ---
+
+    /** Gives a rewritten node the source span of the node it replaces */
+    private static <T extends Stmt> T at(T node, Stmt original) {
+        node.spanFrom(original);
+        return node;
+    }
+
+    private static <T extends Expr> T at(T node, Expr original) {
+        node.spanFrom(original);
+        return node;
+    }
+
+    /** Evaluates a literal-only node, or keeps it when evaluation fails */
+    private Expr fold(Expr e) {
+        try {
+            return at(new Expr.Literal(e.accept(interpreter)), e);
+        } catch (RuntimeException error) {
+            // Keep the node so the error is still raised when (and if) it executes
+            return e;
+        }
+    }
+
+    /** Removes x*1, 1*x, x/1 and x-0 when x produces a TIPIK value */
+    private Expr simplify(Expr.Binary e) {
+        switch (e.operator.type) {
+            case STAR:
+                if (isOne(e.right) && isFloatValued(e.left)) return e.left;
+                if (isOne(e.left) && isFloatValued(e.right)) return e.right;
+                break;
+            case SLASH:
+                if (isOne(e.right) && isFloatValued(e.left)) return e.left;
+                break;
+            case MINUS:
+                if (isZero(e.right) && isFloatValued(e.left)) return e.left;
+                break;
+            default:
+                break;
+        }
+        return e;
+    }
+
+    /** Also removes x+0 and 0+x, whose only effect (-0.0 to 0.0) is lost when stringified */
+    private Expr simplifyForText(Expr e) {
+        if (e instanceof Expr.Binary b && b.operator.type == TokenType.PLUS) {
+            if (isZero(b.right) && isFloatValued(b.left)) return b.left;
+            if (isZero(b.left) && isFloatValued(b.right)) return b.right;
+        }
+        return e;
+    }
+
+    /** True if e always yields a TIPIK (Float) whenever it does not throw */
+    private static boolean isFloatValued(Expr e) {
+        if (e instanceof Expr.Literal lit) return lit.value instanceof Float;
+        if (e instanceof Expr.Grouping g) return isFloatValued(g.expression);
+        if (e instanceof Expr.Unary u) return u.operator.type == TokenType.MINUS && isFloatValued(u.operand);
+        if (e instanceof Expr.Binary b) {
+            switch (b.operator.type) {
+                case PLUS: case MINUS: case STAR: case SLASH: case PERCENT:
+                    // Any decimal operand makes the arithmetic TIPIK
+                    return isDecimal(b.left) || isDecimal(b.right);
+                default:
+                    return false;
+            }
+        }
+        return false;
+    }
+
+    private static boolean isDecimal(Expr e) {
+        if (e instanceof Expr.Literal lit) return lit.value instanceof Double || lit.value instanceof Float;
+        return isFloatValued(e);
+    }
+
+    private static boolean isOne(Expr e) {
+        return e instanceof Expr.Literal lit && isDecimal(lit) && ((Number) lit.value).floatValue() == 1.0f;
+    }
+
+    /** Positive zero only: x - 0.0 keeps x exactly, x - (-0.0) does not */
+    private static boolean isZero(Expr e) {
+        return e instanceof Expr.Literal lit && isDecimal(lit)
+            && Float.floatToRawIntBits(((Number) lit.value).floatValue()) == 0;
+    }
+
+    /** OO/DILI value of a literal condition, or null if not a valid constant condition */
+    private static Boolean constantCondition(Expr e) {
+        if (!(e instanceof Expr.Literal lit)) return null;
+        if (lit.value instanceof Boolean b) return b;
+        if ("OO".equals(lit.value)) return true;
+        if ("DILI".equals(lit.value)) return false;
+        return null;
+    }
+
+    /** A loop whose condition folded to OO (Bisaya++ has no break) */
+    private static boolean neverCompletes(Stmt s) {
+        if (s instanceof Stmt.While w) return Boolean.TRUE.equals(constantCondition(w.condition));
+        if (s instanceof Stmt.For f) return Boolean.TRUE.equals(constantCondition(f.condition));
+        if (s instanceof Stmt.Block b) return !b.statements.isEmpty() && neverCompletes(b.statements.get(b.statements.size() - 1));
+        return false;
+    }
+
+    private static boolean sameStatements(List<Stmt> a, List<Stmt> b) {
+        if (a.size() != b.size()) return false;
+        for (int i = 0; i < a.size(); i++) {
+            if (a.get(i) != b.get(i)) return false;
+        }
+        return true;
+    }
+}
@@ -19,11 +19,11 @@ public class Parser {
     // FIELDS AND CONSTRUCTOR
     // ========================================================================================
     
-    /** The list of tokens to parse, provided by the lexer */
-    private final List<Token> tokens;
+    /** The tokens to parse, provided by the lexer; tracks the current position */
+    private final TokenCursor tokens;
     
-    /** Current position in the token stream */
-    private int current = 0;
+    /** Receives syntax errors for this program */
+    private final Diagnostics diagnostics;
     
     /** Tracks variables declared during parsing to catch undeclared variable usage early */
     private final Set<String> declaredVariables = new HashSet<>();
@@ -33,7 +33,55 @@ public class Parser {
      * @param tokens List of tokens from the lexer to parse
      */
     public Parser(List<Token> tokens) { 
-        this.tokens = tokens; 
+        this(TokenCursor.of(tokens), new Diagnostics()); 
+    }
+
+    /**
+     * Constructs a new Parser with the given token list, reporting errors to the given collector
+     * @param tokens List of tokens from the lexer to parse
+     * @param diagnostics Receives syntax errors, usually the collector the lexer reported to
+     */
+    public Parser(List<Token> tokens, Diagnostics diagnostics) {
+        this(TokenCursor.of(tokens), diagnostics);
+    }
+
+    /**
+     * Constructs a new Parser over a packed token buffer (see Lexer.scanTokenBuffer())
+     * @param tokens Packed tokens from the lexer to parse
+     */
+    public Parser(TokenBuffer tokens) {
+        this(tokens.cursor(), new Diagnostics());
+    }
+
+    /**
+     * Constructs a new Parser over a packed token buffer, reporting errors to the given collector
+     * @param tokens Packed tokens from the lexer to parse
+     * @param diagnostics Receives syntax errors, usually the collector the lexer reported to
+     */
+    public Parser(TokenBuffer tokens, Diagnostics diagnostics) {
+        this(tokens.cursor(), diagnostics);
+    }
+
+    /**
+     * Constructs a new Parser that pulls tokens from the lexer while it parses
+     * (see Lexer.nextToken()), so the full token list is never held.
+     * Syntax errors go to the lexer's diagnostics, next to its lexical errors.
+     * @param lexer Lexer positioned at the start of the program
+     */
+    public Parser(Lexer lexer) {
+        this(TokenCursor.pull(lexer), lexer.diagnostics());
+    }
+
+    private Parser(TokenCursor tokens, Diagnostics diagnostics) {
+        this.tokens = tokens;
+        this.diagnostics = diagnostics;
+    }
+
+    /**
+     * @return The collector this parser reports syntax errors to
+     */
+    public Diagnostics diagnostics() {
+        return diagnostics;
     }
 
     // ========================================================================================
@@ -55,6 +103,25 @@ public class Parser {
      * @throws ParseError if program structure is invalid
      */
     public List<Stmt> parseProgram() {
+        ProgramEvents.Parse event = new ProgramEvents.Parse();
+        event.begin();
+        List<Stmt> program = null;
+        try {
+            program = parseStatements();
+            return program;
+        } finally {
+            // Also recorded when parsing fails, with 0 statements
+            if (event.shouldCommit()) {
+                event.programId = ProgramEvents.programId();
+                event.tokenCount = tokens.count();
+                event.statementCount = program != null ? program.size() : 0;
+                event.commit();
+            }
+        }
+    }
+
+    /** Parses SUGOD statement* KATAPUSAN; see parseProgram() */
+    private List<Stmt> parseStatements() {
         skipNewlines();
         consume(TokenType.SUGOD, "Program must start with SUGOD.");
         skipNewlines();
@@ -101,13 +168,14 @@ public class Parser {
      * @throws ParseError if statement is invalid
      */
     private Stmt statement() {
-        if (match(TokenType.IPAKITA)) return printStmt();
-        if (match(TokenType.DAWAT))   return inputStmt();
-        if (match(TokenType.MUGNA))   return varDecl();
-        if (match(TokenType.KUNG))    return ifStmt();
-        if (match(TokenType.ALANG))   return forStmt();
-        if (match(TokenType.SAMTANG)) return whileStmt();
-        if (match(TokenType.PUNDOK))  return block();
+        Token start = peek();
+        if (match(TokenType.IPAKITA)) return span(printStmt(), start);
+        if (match(TokenType.DAWAT))   return span(inputStmt(), start);
+        if (match(TokenType.MUGNA))   return span(varDecl(), start);
+        if (match(TokenType.KUNG))    return span(ifStmt(), start);
+        if (match(TokenType.ALANG))   return span(forStmt(), start);
+        if (match(TokenType.SAMTANG)) return span(whileStmt(), start);
+        if (match(TokenType.PUNDOK))  return span(block(), start);
         return exprStmt(); // Default: treat as expression statement (assignments, etc.)
     }
 
@@ -160,32 +228,32 @@ public class Parser {
         Token firstVar = consume(TokenType.IDENTIFIER, "Expect variable name.");
         
         // Validate that the variable is declared
-        if (!declaredVariables.contains(firstVar.lexeme)) {
-            throw error(firstVar, "Undefined variable '" + firstVar.lexeme + 
+        if (!declaredVariables.contains(firstVar.lexeme())) {
+            throw error(firstVar, "Undefined variable '" + firstVar.lexeme() + 
                 "'. Variables must be declared with MUGNA before using in DAWAT.");
         }
         
-        varNames.add(firstVar.lexeme);
-        seenVariables.add(firstVar.lexeme);
+        varNames.add(firstVar.lexeme());
+        seenVariables.add(firstVar.lexeme());
 
         // Parse additional variables separated by comma
         while (match(TokenType.COMMA)) {
             Token varToken = consume(TokenType.IDENTIFIER, "Expect variable name after ','.");
             
             // Validate that the variable is declared
-            if (!declaredVariables.contains(varToken.lexeme)) {
-                throw error(varToken, "Undefined variable '" + varToken.lexeme + 
+            if (!declaredVariables.contains(varToken.lexeme())) {
+                throw error(varToken, "Undefined variable '" + varToken.lexeme() + 
                     "'. Variables must be declared with MUGNA before using in DAWAT.");
             }
             
             // Check for duplicate variables in this DAWAT statement
-            if (seenVariables.contains(varToken.lexeme)) {
-                throw error(varToken, "Duplicate variable '" + varToken.lexeme + 
+            if (seenVariables.contains(varToken.lexeme())) {
+                throw error(varToken, "Duplicate variable '" + varToken.lexeme() + 
                     "' in DAWAT statement. Each variable should appear only once.");
             }
             
-            varNames.add(varToken.lexeme);
-            seenVariables.add(varToken.lexeme);
+            varNames.add(varToken.lexeme());
+            seenVariables.add(varToken.lexeme());
         }
 
         // Check for unexpected tokens after the variable list
@@ -219,7 +287,7 @@ public class Parser {
         
         // Parse comma-separated list of variable declarations
         do {
-            String name = consume(TokenType.IDENTIFIER, "Expect variable name.").lexeme;
+            String name = consume(TokenType.IDENTIFIER, "Expect variable name.").lexeme();
             
             // Check for duplicate declaration in same statement
             if (declaredNames.contains(name)) {
@@ -261,6 +329,7 @@ public class Parser {
      * @throws ParseError if expression is invalid
      */
     private Stmt exprStmt() {
+        Token start = peek();
         Expr e = assignment();
         
         // Check for semicolons and throw error if found
@@ -268,7 +337,7 @@ public class Parser {
             throw error(peek(), "Semicolons are not allowed after statements in Bisaya++.");
         }
         
-        return new Stmt.ExprStmt(e);
+        return span(new Stmt.ExprStmt(e), start);
     }
 
     /**
@@ -332,6 +401,7 @@ public class Parser {
      * @throws ParseError if syntax is invalid
      */
     private Stmt parseElseIfChain() {
+        Token start = previous(); // DILI of KUNG DILI
         skipNewlines();
         consume(TokenType.LEFT_PAREN, "Expect '(' after KUNG DILI.");
         Expr condition = assignment();
@@ -359,7 +429,7 @@ public class Parser {
             }
         }
         
-        return new Stmt.If(condition, thenBranch, elseBranch);
+        return span(new Stmt.If(condition, thenBranch, elseBranch), start);
     }
 
     /**
@@ -447,6 +517,7 @@ public class Parser {
      * @throws ParseError if block syntax is invalid
      */
     private Stmt block() {
+        Token start = previous(); // PUNDOK
         consume(TokenType.LEFT_BRACE, "Expect '{' after PUNDOK.");
         skipNewlines();
         
@@ -463,7 +534,7 @@ public class Parser {
         
         consume(TokenType.RIGHT_BRACE, "Expect '}' after block.");
         
-        return new Stmt.Block(statements);
+        return span(new Stmt.Block(statements), start);
     }
 
     // ========================================================================================
@@ -481,6 +552,7 @@ public class Parser {
      * @throws ParseError if assignment target is invalid
      */
     private Expr assignment() {
+        Token start = peek();
         Expr expr = logical(); // Try to parse as logical first
         
         if (match(TokenType.EQUAL)) {
@@ -488,7 +560,7 @@ public class Parser {
             
             // Ensure left-hand side is a valid assignment target (variable)
             if (expr instanceof Expr.Variable var) {
-                return new Expr.Assign(var.name, value);
+                return span(new Expr.Assign(var.name, value), start);
             }
             
             throw error(previous(), "Invalid assignment target.");
@@ -510,7 +582,7 @@ public class Parser {
         while (match(TokenType.O)) {
             Token operator = previous();
             Expr right = logicalAnd();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -529,7 +601,7 @@ public class Parser {
         while (match(TokenType.UG)) {
             Token operator = previous();
             Expr right = equality();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -548,7 +620,7 @@ public class Parser {
         while (match(TokenType.EQUAL_EQUAL) || match(TokenType.LT_GT)) {
             Token operator = previous();
             Expr right = comparison();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -568,7 +640,7 @@ public class Parser {
             || match(TokenType.LESS) || match(TokenType.LESS_EQUAL)) {
             Token operator = previous();
             Expr right = concatenation();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -590,7 +662,7 @@ public class Parser {
         while (match(TokenType.AMPERSAND)) {
             Token operator = previous(); // The & operator token
             Expr right = term();  // Right operand
-            expr = new Expr.Binary(expr, operator, right); // Build left-associative tree
+            expr = span(new Expr.Binary(expr, operator, right), expr); // Build left-associative tree
         }
 
         return expr;
@@ -609,7 +681,7 @@ public class Parser {
         while (match(TokenType.PLUS) || match(TokenType.MINUS)) {
             Token operator = previous();
             Expr right = factor();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -628,7 +700,7 @@ public class Parser {
         while (match(TokenType.STAR) || match(TokenType.SLASH) || match(TokenType.PERCENT)) {
             Token operator = previous();
             Expr right = unary();
-            expr = new Expr.Binary(expr, operator, right);
+            expr = span(new Expr.Binary(expr, operator, right), expr);
         }
 
         return expr;
@@ -646,7 +718,7 @@ public class Parser {
             || match(TokenType.PLUS_PLUS) || match(TokenType.MINUS_MINUS)) {
             Token operator = previous();
             Expr right = unary(); // Right-associative
-            return new Expr.Unary(operator, right);
+            return span(new Expr.Unary(operator, right), operator);
         }
 
         return postfix();
@@ -664,7 +736,7 @@ public class Parser {
         
         while (match(TokenType.PLUS_PLUS) || match(TokenType.MINUS_MINUS)) {
             Token operator = previous();
-            expr = new Expr.Postfix(expr, operator);
+            expr = span(new Expr.Postfix(expr, operator), expr);
         }
         
         return expr;
@@ -687,21 +759,22 @@ public class Parser {
      * @throws ParseError if no valid primary expression found
      */
     private Expr primary() {
-        if (match(TokenType.STRING))     return new Expr.Literal(previous().literal);
-        if (match(TokenType.NUMBER))     return new Expr.Literal(previous().literal);
-        if (match(TokenType.CHAR))       return new Expr.Literal(previous().literal);
-        if (match(TokenType.DOLLAR))     return new Expr.Literal("\n"); // $ becomes newline
+        if (match(TokenType.STRING))     return span(new Expr.Literal(previous().literal), previous());
+        if (match(TokenType.NUMBER))     return span(new Expr.Literal(previous().literal), previous());
+        if (match(TokenType.CHAR))       return span(new Expr.Literal(previous().literal), previous());
+        if (match(TokenType.DOLLAR))     return span(new Expr.Literal("\n"), previous()); // $ becomes newline
         
         // Parenthesized expressions
         if (match(TokenType.LEFT_PAREN)) {
+            Token paren = previous();
             Expr expr = assignment(); // Allow full expressions inside parens
             consume(TokenType.RIGHT_PAREN, "Expect ')' after expression.");
-            return new Expr.Grouping(expr);
+            return span(new Expr.Grouping(expr), paren);
         }
         
         if (match(TokenType.IDENTIFIER)) {
             Token identToken = previous();
-            return new Expr.Variable(identToken, identToken.lexeme);
+            return span(new Expr.Variable(identToken, identToken.lexeme()), identToken);
         }
         
         throw error(peek(), "Expect expression.");
@@ -711,9 +784,7 @@ public class Parser {
      * Helper to peek ahead n tokens
      */
     private Token peekAhead(int n) {
-        int idx = current + n;
-        if (idx >= tokens.size()) return null;
-        return tokens.get(idx);
+        return tokens.peek(n);
     }
 
     // ========================================================================================
@@ -756,7 +827,7 @@ public class Parser {
      */
     private boolean match(TokenType t) {
         if (check(t)) { 
-            advance(); 
+            tokens.advance(); // callers that need the token use previous()
             return true; 
         }
         return false;
@@ -770,7 +841,7 @@ public class Parser {
      */
     private boolean check(TokenType t) {
         if (isAtEnd()) return false;
-        return peek().type == t;
+        return tokens.type(0) == t;
     }
 
     /**
@@ -781,8 +852,7 @@ public class Parser {
      */
     private boolean checkNext(TokenType t) {
         if (isAtEnd()) return false;
-        if (current + 1 >= tokens.size()) return false;
-        return tokens.get(current + 1).type == t;
+        return tokens.type(1) == t;
     }
 
     // ========================================================================================
@@ -795,7 +865,7 @@ public class Parser {
      * @return The token that was current before advancing
      */
     private Token advance() {
-        if (!isAtEnd()) current++;
+        if (!isAtEnd()) tokens.advance();
         return previous();
     }
 
@@ -805,7 +875,7 @@ public class Parser {
      * @return true if current token is EOF, false otherwise
      */
     private boolean isAtEnd() { 
-        return peek().type == TokenType.EOF; 
+        return tokens.type(0) == TokenType.EOF; 
     }
 
     /**
@@ -814,7 +884,7 @@ public class Parser {
      * @return Current token
      */
     private Token peek() { 
-        return tokens.get(current); 
+        return tokens.peek(0); 
     }
 
     /**
@@ -823,7 +893,7 @@ public class Parser {
      * @return Previous token
      */
     private Token previous() { 
-        return tokens.get(current - 1); 
+        return tokens.previous(); 
     }
 
     /**
@@ -839,6 +909,42 @@ public class Parser {
         }
     }
 
+    // ========================================================================================
+    // SOURCE SPANS
+    // ========================================================================================
+
+    /**
+     * Records a statement's source span: from the start token to the last consumed token
+     *
+     * @return The same node, for use in return statements
+     */
+    private <T extends Stmt> T span(T node, Token start) {
+        node.line = start.line;
+        node.col = start.col;
+        node.endLine = tokens.previousLine();
+        return node;
+    }
+
+    /**
+     * Records an expression's source span: from the start token to the last consumed token
+     */
+    private <T extends Expr> T span(T node, Token start) {
+        node.line = start.line;
+        node.col = start.col;
+        node.endLine = tokens.previousLine();
+        return node;
+    }
+
+    /**
+     * Records the span of a binary or postfix expression, which starts where its left operand starts
+     */
+    private <T extends Expr> T span(T node, Expr first) {
+        node.line = first.line;
+        node.col = first.col;
+        node.endLine = tokens.previousLine();
+        return node;
+    }
+
     // ========================================================================================
     // ERROR HANDLING
     // ========================================================================================
@@ -846,14 +952,14 @@ public class Parser {
     /**
      * Creates a parse error with the given token and message
      * 
-     * Reports the error to ErrorReporter with line and column information
+     * Reports the error to diagnostics with line and column information
      * 
      * @param token Token where error occurred
      * @param message Descriptive error message
      * @return ParseError exception ready to be thrown
      */
     ParseError error(Token token, String message) {
-        ErrorReporter.error(token.line, token.col, message);
+        diagnostics.error(token.line, token.col, message);
         return new ParseError(message, token);
     }
 
@@ -0,0 +1,99 @@
+package com.bisayapp;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/**
+ * Java Flight Recorder events for the phases of a Bisaya++ run.
+ *
+ * Each phase (lex, parse, optimize, execute) and every DAWAT wait is recorded as a
+ * duration event under the "Bisaya++" category, so slow runs in a continuous
+ * recording can be lined up with GC pauses and other JVM events. When JFR is not
+ * recording, begin()/commit() do nothing and the events cost close to nothing.
+ *
+ * All events of one run carry the same program identifier. Entry points in Bisaya
+ * set it with setProgramId(); it is kept per thread because every phase of a run
+ * executes on the thread that started it.
+ */
+public final class ProgramEvents {
+    private static final ThreadLocal<String> programId = ThreadLocal.withInitial(() -> "");
+
+    private ProgramEvents() {}
+
+    /**
+     * Names the program run next on this thread (e.g. a file path)
+     */
+    public static void setProgramId(String id) {
+        programId.set(id != null ? id : "");
+    }
+
+    /**
+     * Identifier for source text without a file name: "source#" + hash
+     */
+    public static String idForSource(String source) {
+        return "source#" + Integer.toHexString(source.hashCode());
+    }
+
+    static String programId() {
+        return programId.get();
+    }
+
+    @Name("com.bisayapp.Lex")
+    @Label("Bisaya++ Lex")
+    @Category("Bisaya++")
+    @Description("Lexer.scanTokens() over one program")
+    @StackTrace(false)
+    static final class Lex extends Event {
+        @Label("Program") String programId;
+        @Label("Source Length") @Description("Characters of source text") int sourceLength;
+        @Label("Tokens") int tokenCount;
+    }
+
+    @Name("com.bisayapp.Parse")
+    @Label("Bisaya++ Parse")
+    @Category("Bisaya++")
+    @Description("Parser.parseProgram() over one token stream")
+    @StackTrace(false)
+    static final class Parse extends Event {
+        @Label("Program") String programId;
+        @Label("Tokens") int tokenCount;
+        @Label("Statements") int statementCount;
+    }
+
+    @Name("com.bisayapp.Optimize")
+    @Label("Bisaya++ Optimize")
+    @Category("Bisaya++")
+    @Description("Static passes before execution: constant folding, type checking, slot resolution")
+    @StackTrace(false)
+    static final class Optimize extends Event {
+        @Label("Program") String programId;
+        @Label("Statements") int statementCount;
+        @Label("Variable Slots") int slotCount;
+    }
+
+    @Name("com.bisayapp.Execute")
+    @Label("Bisaya++ Execute")
+    @Category("Bisaya++")
+    @Description("Execution of one program, including the static passes and DAWAT waits")
+    @StackTrace(false)
+    static final class Execute extends Event {
+        @Label("Program") String programId;
+        @Label("Engine") String engine;
+        @Label("Statements") int statementCount;
+    }
+
+    @Name("com.bisayapp.InputWait")
+    @Label("Bisaya++ DAWAT Wait")
+    @Category("Bisaya++")
+    @Description("Time a DAWAT statement spent waiting for an input line")
+    @StackTrace(false)
+    static final class InputWait extends Event {
+        @Label("Program") String programId;
+        @Label("Line") int line;
+        @Label("Variables") int variableCount;
+    }
+}
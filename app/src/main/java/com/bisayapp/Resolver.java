@@ -0,0 +1,166 @@
+package com.bisayapp;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static Resolver for Bisaya++ Programs
+ *
+ * Runs once between Parser.parseProgram() and Interpreter.interpret() and binds every
+ * variable reference in the AST to a fixed slot index in the interpreter's Environment.
+ *
+ * Bisaya++ has a single flat variable namespace (PUNDOK blocks do not open a new scope),
+ * so each distinct name gets exactly one slot, numbered in order of first appearance.
+ *
+ * Nodes that receive a slot:
+ * - Expr.Variable and Expr.Assign (reads and writes)
+ * - Stmt.VarDecl.Item (MUGNA declarations)
+ * - Stmt.Input (each DAWAT target)
+ *
+ * The resolver only assigns storage - it does not report undeclared variables. Those
+ * are still detected at runtime so programs behave exactly as before (a use before
+ * MUGNA fails only when that statement actually executes).
+ */
+public class Resolver implements Expr.Visitor<Void>, Stmt.Visitor<Void> {
+    /** Slot index per variable name; shared across resolve() calls on the same instance */
+    private final Map<String, Integer> slots = new HashMap<>();
+
+    /**
+     * Resolves every variable reference in the program
+     *
+     * @param program Statements produced by the parser
+     * @return Number of slots needed to run the program
+     */
+    public int resolve(List<Stmt> program) {
+        for (Stmt s : program) resolve(s);
+        return slots.size();
+    }
+
+    /**
+     * @return Number of distinct variable slots assigned so far
+     */
+    public int slotCount() { return slots.size(); }
+
+    private void resolve(Stmt s) { if (s != null) s.accept(this); }
+    private void resolve(Expr e) { if (e != null) e.accept(this); }
+
+    private int slotFor(String name) {
+        Integer slot = slots.get(name);
+        if (slot == null) {
+            slot = slots.size();
+            slots.put(name, slot);
+        }
+        return slot;
+    }
+
+    // --- Stmt ---
+    @Override
+    public Void visitPrint(Stmt.Print s) {
+        for (Expr e : s.parts) resolve(e);
+        return null;
+    }
+
+    @Override
+    public Void visitExprStmt(Stmt.ExprStmt s) {
+        resolve(s.expr);
+        return null;
+    }
+
+    @Override
+    public Void visitVarDecl(Stmt.VarDecl s) {
+        for (Stmt.VarDecl.Item it : s.items) {
+            // Initializer is evaluated before the name is declared
+            resolve(it.init);
+            it.slot = slotFor(it.name);
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitInput(Stmt.Input s) {
+        for (int i = 0; i < s.varNames.size(); i++) {
+            s.slots[i] = slotFor(s.varNames.get(i));
+        }
+        return null;
+    }
+
+    @Override
+    public Void visitIf(Stmt.If s) {
+        resolve(s.condition);
+        resolve(s.thenBranch);
+        resolve(s.elseBranch);
+        return null;
+    }
+
+    @Override
+    public Void visitBlock(Stmt.Block s) {
+        for (Stmt stmt : s.statements) resolve(stmt);
+        return null;
+    }
+
+    @Override
+    public Void visitFor(Stmt.For s) {
+        resolve(s.initializer);
+        resolve(s.condition);
+        resolve(s.update);
+        resolve(s.body);
+        return null;
+    }
+
+    @Override
+    public Void visitWhile(Stmt.While s) {
+        resolve(s.condition);
+        resolve(s.body);
+        return null;
+    }
+
+    // --- Expr ---
+    @Override
+    public Void visitLiteral(Expr.Literal e) { return null; }
+
+    @Override
+    public Void visitVariable(Expr.Variable e) {
+        e.slot = slotFor(e.name);
+        return null;
+    }
+
+    @Override
+    public Void visitAssign(Expr.Assign e) {
+        resolve(e.value);
+        e.slot = slotFor(e.name);
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(Expr.Binary e) {
+        resolve(e.left);
+        resolve(e.right);
+        return null;
+    }
+
+    @Override
+    public Void visitUnary(Expr.Unary e) {
+        resolve(e.operand);
+        return null;
+    }
+
+    @Override
+    public Void visitPostfix(Expr.Postfix e) {
+        resolve(e.operand);
+        return null;
+    }
+
+    @Override
+    public Void visitGrouping(Expr.Grouping e) {
+        resolve(e.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitTyped(Expr.Typed e) {
+        // The specialized node reads the same Variable nodes
+        resolve(e.generic);
+        return null;
+    }
+}
@@ -0,0 +1,129 @@
+package com.bisayapp;
+
+import java.time.Duration;
+
+/**
+ * Per-run resource limits for a Bisaya++ program.
+ *
+ * Bounds a run so a runaway SAMTANG cannot spin forever:
+ * - Step budget: number of loop back-edges (iterations of ALANG SA / SAMTANG).
+ *   Straight-line code is bounded by the program size, so loops are the only place
+ *   a run can grow without limit. The count is deterministic and CPU-independent.
+ * - Output cap: UTF-8 bytes written by IPAKITA
+ * - Deadline: wall-clock time since start(), a backstop for slow I/O or hosts.
+ *   The clock is only read every CLOCK_POLL_INTERVAL back-edges to keep loops cheap.
+ * - Cancellation: cancel() may be called from another thread (e.g. the IDE's Stop
+ *   button); the run stops at the next clock poll.
+ *
+ * Create one governor per run; it keeps counters. A limit of 0 (or a null timeout)
+ * means unlimited. When a limit is hit a ResourceLimitException is thrown, which
+ * stops the run like any other runtime error.
+ */
+public final class ResourceGovernor {
+    /** Back-edges between two reads of the clock; a power of two */
+    static final int CLOCK_POLL_INTERVAL = 1024;
+
+    private final long maxSteps;
+    private final long maxOutputBytes;
+    private final long timeoutNanos;
+
+    private long steps = 0;
+    private long outputBytes = 0;
+    private long deadline = 0;  // System.nanoTime() value, valid once started
+    private volatile boolean cancelled = false;
+
+    /**
+     * @param maxSteps Maximum loop iterations, 0 for unlimited
+     * @param maxOutputBytes Maximum bytes of IPAKITA output, 0 for unlimited
+     * @param timeout Maximum run time, null for unlimited
+     */
+    public ResourceGovernor(long maxSteps, long maxOutputBytes, Duration timeout) {
+        this.maxSteps = maxSteps > 0 ? maxSteps : Long.MAX_VALUE;
+        this.maxOutputBytes = maxOutputBytes > 0 ? maxOutputBytes : Long.MAX_VALUE;
+        this.timeoutNanos = timeout != null ? timeout.toNanos() : 0;
+    }
+
+    /**
+     * @return A governor without limits (still counts steps and output)
+     */
+    public static ResourceGovernor unlimited() {
+        return new ResourceGovernor(0, 0, null);
+    }
+
+    /**
+     * Starts the deadline clock; called by the Interpreter when a run begins
+     */
+    public void start() {
+        if (timeoutNanos > 0) deadline = System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     * Asks the run to stop; safe to call from any thread
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /** @return Whether cancel() was called */
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * Charges one loop iteration; called on every loop back-edge
+     *
+     * @throws ResourceLimitException if the step budget or the deadline is exceeded,
+     *         or the run was cancelled
+     */
+    public void onBackEdge() {
+        if (++steps > maxSteps) {
+            throw new ResourceLimitException("Execution stopped: step limit of " + maxSteps
+                + " loop iterations exceeded (possible infinite loop).");
+        }
+        if ((steps & (CLOCK_POLL_INTERVAL - 1)) == 0) {
+            poll();
+        }
+    }
+
+    private void poll() {
+        if (cancelled) {
+            throw new ResourceLimitException("Execution stopped by user.");
+        }
+        if (timeoutNanos > 0 && System.nanoTime() - deadline > 0) {
+            throw new ResourceLimitException("Execution stopped: time limit of "
+                + (timeoutNanos / 1_000_000) + " ms exceeded.");
+        }
+    }
+
+    /**
+     * Charges output before it is written
+     *
+     * @param text Text about to be printed
+     * @throws ResourceLimitException if the output cap would be exceeded
+     */
+    public void onOutput(CharSequence text) {
+        outputBytes += utf8Length(text);
+        if (outputBytes > maxOutputBytes) {
+            throw new ResourceLimitException("Execution stopped: output limit of " + maxOutputBytes
+                + " bytes exceeded.");
+        }
+    }
+
+    /** @return Loop iterations executed so far */
+    public long steps() { return steps; }
+
+    /** @return Bytes of output written so far */
+    public long outputBytes() { return outputBytes; }
+
+    private static long utf8Length(CharSequence text) {
+        long bytes = 0;
+        for (int i = 0, n = text.length(); i < n; i++) {
+            char c = text.charAt(i);
+            if (c < 0x80) bytes += 1;
+            else if (c < 0x800) bytes += 2;
+            else if (Character.isHighSurrogate(c)) bytes += 2;  // + 2 for the low surrogate
+            else bytes += Character.isLowSurrogate(c) ? 2 : 3;
+        }
+        return bytes;
+    }
+}
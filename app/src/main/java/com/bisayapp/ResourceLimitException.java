@@ -0,0 +1,11 @@
+package com.bisayapp;
+
+/**
+ * Thrown when a run exceeds a limit set by its ResourceGovernor.
+ * A RuntimeException, so callers that report runtime errors handle it unchanged.
+ */
+public class ResourceLimitException extends RuntimeException {
+    public ResourceLimitException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,342 @@
+package com.bisayapp;
+
+/**
+ * Expression nodes specialized on NUMERO, TIPIK and TINUOD values.
+ *
+ * The Specializer builds these for Binary, Unary and Postfix subtrees whose operand
+ * types follow from the MUGNA declarations, and hangs them off an Expr.Typed. Every
+ * operator has its own node class whose evaluate method takes its operands as
+ * primitives and returns a primitive, so arithmetic neither boxes nor dispatches on
+ * operand types.
+ *
+ * Reads and stores do not check their variable. Expr.Typed lists the variables its tree
+ * reads and the one it assigns, and the Interpreter checks once, before evaluating the
+ * tree, that each read holds a value and the target is declared with the expected type;
+ * when one does not, the Typed node is rewritten back to its generic form for good.
+ * Every node gives exactly the generic result, including the float-based comparisons,
+ * -0.0 == 0.0 and the zero-division errors.
+ */
+abstract class Specialized {
+
+    /** Evaluates the node as the root of an Expr.Typed, boxing only the final value */
+    abstract Object evalBoxed(Environment env);
+
+    /** Evaluates the node for its side effects only (i++ or x = y + 1 as a statement) */
+    abstract void run(Environment env);
+
+    /** Same message format as Interpreter.runtimeError */
+    static RuntimeException error(Token token, String message) {
+        return new RuntimeException("[line " + token.line + " col " + token.col + "] " + message);
+    }
+
+    // --- Value kinds ---
+
+    /** A NUMERO or TIPIK value */
+    abstract static class Numeric extends Specialized {
+        /** @return The value as a float; a NUMERO widens exactly like Integer.floatValue() */
+        abstract float evalFloat(Environment env);
+    }
+
+    /** A NUMERO value */
+    abstract static class IntNode extends Numeric {
+        abstract int evalInt(Environment env);
+
+        @Override float evalFloat(Environment env) { return evalInt(env); }
+        @Override Object evalBoxed(Environment env) { return evalInt(env); }
+        @Override void run(Environment env) { evalInt(env); }
+    }
+
+    /** A TIPIK value */
+    abstract static class FloatNode extends Numeric {
+        @Override Object evalBoxed(Environment env) { return evalFloat(env); }
+        @Override void run(Environment env) { evalFloat(env); }
+    }
+
+    /** A TINUOD value */
+    abstract static class BoolNode extends Specialized {
+        abstract boolean evalBoolean(Environment env);
+
+        @Override Object evalBoxed(Environment env) { return evalBoolean(env); }
+        @Override void run(Environment env) { evalBoolean(env); }
+    }
+
+    // --- Constants and reads ---
+
+    static final class IntConst extends IntNode {
+        final int value;
+        IntConst(int value) { this.value = value; }
+        @Override int evalInt(Environment env) { return value; }
+    }
+
+    /** A TIPIK literal, or a decimal number literal (the lexer produces doubles) */
+    static final class FloatConst extends FloatNode {
+        final float value;
+        FloatConst(float value) { this.value = value; }
+        @Override float evalFloat(Environment env) { return value; }
+    }
+
+    static final class BoolConst extends BoolNode {
+        final boolean value;
+        BoolConst(boolean value) { this.value = value; }
+        @Override boolean evalBoolean(Environment env) { return value; }
+    }
+
+    static final class IntRead extends IntNode {
+        final Expr.Variable variable;
+        IntRead(Expr.Variable variable) { this.variable = variable; }
+        @Override int evalInt(Environment env) { return env.getInt(variable.slot); }
+    }
+
+    static final class FloatRead extends FloatNode {
+        final Expr.Variable variable;
+        FloatRead(Expr.Variable variable) { this.variable = variable; }
+        @Override float evalFloat(Environment env) { return env.getFloat(variable.slot); }
+    }
+
+    static final class BoolRead extends BoolNode {
+        final Expr.Variable variable;
+        BoolRead(Expr.Variable variable) { this.variable = variable; }
+        @Override boolean evalBoolean(Environment env) { return env.getBoolean(variable.slot); }
+    }
+
+    // --- NUMERO arithmetic: both operands NUMERO ---
+
+    abstract static class IntBinary extends IntNode {
+        final IntNode left, right;
+        IntBinary(IntNode left, IntNode right) { this.left = left; this.right = right; }
+    }
+
+    static final class IntAdd extends IntBinary {
+        IntAdd(IntNode left, IntNode right) { super(left, right); }
+        @Override int evalInt(Environment env) { return left.evalInt(env) + right.evalInt(env); }
+    }
+
+    static final class IntSubtract extends IntBinary {
+        IntSubtract(IntNode left, IntNode right) { super(left, right); }
+        @Override int evalInt(Environment env) { return left.evalInt(env) - right.evalInt(env); }
+    }
+
+    static final class IntMultiply extends IntBinary {
+        IntMultiply(IntNode left, IntNode right) { super(left, right); }
+        @Override int evalInt(Environment env) { return left.evalInt(env) * right.evalInt(env); }
+    }
+
+    static final class IntDivide extends IntBinary {
+        final Token operator;
+        IntDivide(IntNode left, Token operator, IntNode right) { super(left, right); this.operator = operator; }
+        @Override int evalInt(Environment env) {
+            int l = left.evalInt(env);
+            int r = right.evalInt(env);
+            if (r == 0) throw error(operator, "Division by zero.");
+            return l / r;
+        }
+    }
+
+    static final class IntModulo extends IntBinary {
+        final Token operator;
+        IntModulo(IntNode left, Token operator, IntNode right) { super(left, right); this.operator = operator; }
+        @Override int evalInt(Environment env) {
+            int l = left.evalInt(env);
+            int r = right.evalInt(env);
+            if (r == 0) throw error(operator, "Modulo by zero.");
+            return l % r;
+        }
+    }
+
+    static final class IntNegate extends IntNode {
+        final IntNode operand;
+        IntNegate(IntNode operand) { this.operand = operand; }
+        @Override int evalInt(Environment env) { return -operand.evalInt(env); }
+    }
+
+    /** ++/-- on a NUMERO variable; the postfix form returns the old value */
+    static final class IntIncrement extends IntNode {
+        final Expr.Variable variable;
+        final int delta;
+        final boolean postfix;
+        IntIncrement(Expr.Variable variable, int delta, boolean postfix) {
+            this.variable = variable; this.delta = delta; this.postfix = postfix;
+        }
+        @Override int evalInt(Environment env) {
+            int old = env.getInt(variable.slot);
+            int updated = old + delta;
+            env.setInt(variable.slot, updated);
+            return postfix ? old : updated;
+        }
+    }
+
+    // --- TIPIK arithmetic: numeric operands, at least one TIPIK ---
+
+    abstract static class FloatBinary extends FloatNode {
+        final Numeric left, right;
+        FloatBinary(Numeric left, Numeric right) { this.left = left; this.right = right; }
+    }
+
+    static final class FloatAdd extends FloatBinary {
+        FloatAdd(Numeric left, Numeric right) { super(left, right); }
+        @Override float evalFloat(Environment env) { return left.evalFloat(env) + right.evalFloat(env); }
+    }
+
+    static final class FloatSubtract extends FloatBinary {
+        FloatSubtract(Numeric left, Numeric right) { super(left, right); }
+        @Override float evalFloat(Environment env) { return left.evalFloat(env) - right.evalFloat(env); }
+    }
+
+    static final class FloatMultiply extends FloatBinary {
+        FloatMultiply(Numeric left, Numeric right) { super(left, right); }
+        @Override float evalFloat(Environment env) { return left.evalFloat(env) * right.evalFloat(env); }
+    }
+
+    static final class FloatDivide extends FloatBinary {
+        final Token operator;
+        FloatDivide(Numeric left, Token operator, Numeric right) { super(left, right); this.operator = operator; }
+        @Override float evalFloat(Environment env) {
+            float l = left.evalFloat(env);
+            float r = right.evalFloat(env);
+            if (r == 0.0f) throw error(operator, "Division by zero.");
+            return l / r;
+        }
+    }
+
+    static final class FloatModulo extends FloatBinary {
+        final Token operator;
+        FloatModulo(Numeric left, Token operator, Numeric right) { super(left, right); this.operator = operator; }
+        @Override float evalFloat(Environment env) {
+            float l = left.evalFloat(env);
+            float r = right.evalFloat(env);
+            if (r == 0.0f) throw error(operator, "Modulo by zero.");
+            return l % r;
+        }
+    }
+
+    static final class FloatNegate extends FloatNode {
+        final FloatNode operand;
+        FloatNegate(FloatNode operand) { this.operand = operand; }
+        @Override float evalFloat(Environment env) { return -operand.evalFloat(env); }
+    }
+
+    /** ++/-- on a TIPIK variable; the postfix form returns the old value */
+    static final class FloatIncrement extends FloatNode {
+        final Expr.Variable variable;
+        final float delta;
+        final boolean postfix;
+        FloatIncrement(Expr.Variable variable, float delta, boolean postfix) {
+            this.variable = variable; this.delta = delta; this.postfix = postfix;
+        }
+        @Override float evalFloat(Environment env) {
+            float old = env.getFloat(variable.slot);
+            float updated = old + delta;
+            env.setFloat(variable.slot, updated);
+            return postfix ? old : updated;
+        }
+    }
+
+    // --- Stores into a declared NUMERO or TIPIK variable; the value is the one assigned ---
+
+    static final class StoreInt extends IntNode {
+        final Expr.Assign target;
+        final IntNode value;
+        StoreInt(Expr.Assign target, IntNode value) { this.target = target; this.value = value; }
+        @Override int evalInt(Environment env) {
+            int v = value.evalInt(env);
+            env.setInt(target.slot, v);
+            return v;
+        }
+    }
+
+    static final class StoreIntAsFloat extends IntNode {
+        final Expr.Assign target;
+        final IntNode value;
+        StoreIntAsFloat(Expr.Assign target, IntNode value) { this.target = target; this.value = value; }
+        @Override int evalInt(Environment env) {
+            int v = value.evalInt(env);
+            env.setFloat(target.slot, v);
+            return v;
+        }
+    }
+
+    static final class StoreFloat extends FloatNode {
+        final Expr.Assign target;
+        final FloatNode value;
+        StoreFloat(Expr.Assign target, FloatNode value) { this.target = target; this.value = value; }
+        @Override float evalFloat(Environment env) {
+            float v = value.evalFloat(env);
+            env.setFloat(target.slot, v);
+            return v;
+        }
+    }
+
+    /** Fails like Environment.assign when the TIPIK has a fractional part */
+    static final class StoreFloatAsInt extends FloatNode {
+        final Expr.Assign target;
+        final FloatNode value;
+        StoreFloatAsInt(Expr.Assign target, FloatNode value) { this.target = target; this.value = value; }
+        @Override float evalFloat(Environment env) {
+            float v = value.evalFloat(env);
+            env.setInt(target.slot, Environment.floatToNumero(v));
+            return v;
+        }
+    }
+
+    // --- Comparisons: numeric operands, compared as floats like Interpreter.compareNumbers ---
+
+    abstract static class Compare extends BoolNode {
+        final Numeric left, right;
+        Compare(Numeric left, Numeric right) { this.left = left; this.right = right; }
+    }
+
+    static final class Greater extends Compare {
+        Greater(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return Float.compare(left.evalFloat(env), right.evalFloat(env)) > 0; }
+    }
+
+    static final class GreaterEqual extends Compare {
+        GreaterEqual(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return Float.compare(left.evalFloat(env), right.evalFloat(env)) >= 0; }
+    }
+
+    static final class Less extends Compare {
+        Less(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return Float.compare(left.evalFloat(env), right.evalFloat(env)) < 0; }
+    }
+
+    static final class LessEqual extends Compare {
+        LessEqual(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return Float.compare(left.evalFloat(env), right.evalFloat(env)) <= 0; }
+    }
+
+    /** -0.0 equals 0.0, as in Interpreter.isEqual */
+    static final class Equal extends Compare {
+        Equal(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return equal(left.evalFloat(env), right.evalFloat(env)); }
+    }
+
+    static final class NotEqual extends Compare {
+        NotEqual(Numeric left, Numeric right) { super(left, right); }
+        @Override boolean evalBoolean(Environment env) { return !equal(left.evalFloat(env), right.evalFloat(env)); }
+    }
+
+    private static boolean equal(float l, float r) {
+        return (l == 0.0f && r == 0.0f) || Float.compare(l, r) == 0;
+    }
+
+    // --- TINUOD operators ---
+
+    static final class And extends BoolNode {
+        final BoolNode left, right;
+        And(BoolNode left, BoolNode right) { this.left = left; this.right = right; }
+        @Override boolean evalBoolean(Environment env) { return left.evalBoolean(env) && right.evalBoolean(env); }
+    }
+
+    static final class Or extends BoolNode {
+        final BoolNode left, right;
+        Or(BoolNode left, BoolNode right) { this.left = left; this.right = right; }
+        @Override boolean evalBoolean(Environment env) { return left.evalBoolean(env) || right.evalBoolean(env); }
+    }
+
+    static final class Not extends BoolNode {
+        final BoolNode operand;
+        Not(BoolNode operand) { this.operand = operand; }
+        @Override boolean evalBoolean(Environment env) { return !operand.evalBoolean(env); }
+    }
+}
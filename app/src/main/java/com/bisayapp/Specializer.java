@@ -0,0 +1,361 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Node Specializer for the Tree Walker
+ *
+ * Runs after the TypeChecker and before the Resolver, for tree-walker runs only.
+ * Every Binary, Unary and Postfix subtree whose operands are all NUMERO, TIPIK or
+ * TINUOD by their MUGNA declarations is wrapped in an Expr.Typed that carries a
+ * Specialized node for it: one node class per operator and operand type, evaluated on
+ * primitives (see Specialized). The largest such subtree is wrapped, so a whole loop
+ * condition or update like i + 1 <= n * 2 becomes one Typed. An assignment of such a
+ * value to a NUMERO or TIPIK variable becomes a typed store (s = s + i).
+ *
+ * Not specialized:
+ * - & concatenation, LETRA and text operands, and names declared with two types
+ * - A bare literal or variable, whose generic value is already a ready-made object
+ * - ++/-- on anything but a variable, which is an error the generic node reports
+ *
+ * A declared type only says what the variable holds once it has a value, so each Typed
+ * lists the variables it reads and the Interpreter checks them before running the node
+ * (see Interpreter.specialized). Like the Optimizer, unchanged nodes are returned as-is
+ * and rewritten parents are new nodes; the input program is not modified.
+ */
+public class Specializer implements Expr.Visitor<Expr>, Stmt.Visitor<Stmt> {
+    private final Map<String, TokenType> declared;
+
+    // Specialized form of the expression visited last, or null when it has none
+    private Specialized last;
+
+    /**
+     * @param declared Declared type per name (TypeChecker.declaredTypes); null for conflicts
+     */
+    public Specializer(Map<String, TokenType> declared) {
+        this.declared = declared;
+    }
+
+    /**
+     * Specializes a whole program
+     *
+     * @param program Type-checked statements (not modified)
+     * @return Statements with typed subtrees wrapped in Expr.Typed
+     */
+    public List<Stmt> specialize(List<Stmt> program) {
+        return specializeAll(program);
+    }
+
+    private Stmt specialize(Stmt s) { return s == null ? null : s.accept(this); }
+
+    /** Rewrites e and leaves its specialized form in last */
+    private Expr rewrite(Expr e) {
+        last = null;
+        return e == null ? null : e.accept(this);
+    }
+
+    /** Rewrites an expression whose value is used as a whole (statement, condition, operand of an untyped node) */
+    private Expr specialize(Expr e) {
+        Expr rewritten = rewrite(e);
+        return wrap(rewritten, last);
+    }
+
+    private List<Stmt> specializeAll(List<Stmt> statements) {
+        List<Stmt> result = new ArrayList<>(statements.size());
+        boolean changed = false;
+        for (Stmt s : statements) {
+            Stmt specialized = specialize(s);
+            changed |= specialized != s;
+            result.add(specialized);
+        }
+        return changed ? result : statements;
+    }
+
+    // --- Stmt ---
+    @Override
+    public Stmt visitPrint(Stmt.Print s) {
+        List<Expr> parts = new ArrayList<>(s.parts.size());
+        boolean changed = false;
+        for (Expr part : s.parts) {
+            Expr specialized = specialize(part);
+            changed |= specialized != part;
+            parts.add(specialized);
+        }
+        return changed ? at(new Stmt.Print(parts), s) : s;
+    }
+
+    @Override
+    public Stmt visitExprStmt(Stmt.ExprStmt s) {
+        Expr expr = specialize(s.expr);
+        return expr == s.expr ? s : at(new Stmt.ExprStmt(expr), s);
+    }
+
+    @Override
+    public Stmt visitVarDecl(Stmt.VarDecl s) {
+        List<Stmt.VarDecl.Item> items = new ArrayList<>(s.items.size());
+        boolean changed = false;
+        for (Stmt.VarDecl.Item it : s.items) {
+            Expr init = specialize(it.init);
+            if (init != it.init) {
+                items.add(new Stmt.VarDecl.Item(it.name, init));
+                changed = true;
+            } else {
+                items.add(it);
+            }
+        }
+        return changed ? at(new Stmt.VarDecl(s.type, items), s) : s;
+    }
+
+    @Override
+    public Stmt visitInput(Stmt.Input s) { return s; }
+
+    @Override
+    public Stmt visitIf(Stmt.If s) {
+        Expr condition = specialize(s.condition);
+        Stmt thenBranch = specialize(s.thenBranch);
+        Stmt elseBranch = specialize(s.elseBranch);
+        if (condition == s.condition && thenBranch == s.thenBranch && elseBranch == s.elseBranch) return s;
+        return at(new Stmt.If(condition, thenBranch, elseBranch), s);
+    }
+
+    @Override
+    public Stmt visitBlock(Stmt.Block s) {
+        List<Stmt> statements = specializeAll(s.statements);
+        return statements == s.statements ? s : at(new Stmt.Block(statements), s);
+    }
+
+    @Override
+    public Stmt visitFor(Stmt.For s) {
+        Stmt initializer = specialize(s.initializer);
+        Expr condition = specialize(s.condition);
+        Stmt update = specialize(s.update);
+        Stmt body = specialize(s.body);
+        if (initializer == s.initializer && condition == s.condition && update == s.update && body == s.body) return s;
+        return at(new Stmt.For(initializer, condition, update, body), s);
+    }
+
+    @Override
+    public Stmt visitWhile(Stmt.While s) {
+        Expr condition = specialize(s.condition);
+        Stmt body = specialize(s.body);
+        if (condition == s.condition && body == s.body) return s;
+        return at(new Stmt.While(condition, body), s);
+    }
+
+    // --- Expr ---
+    // Each visit returns the rewritten node and sets last. A node with a specialized
+    // form comes back unchanged; its children are only wrapped when it has none.
+
+    @Override
+    public Expr visitLiteral(Expr.Literal e) {
+        Object v = e.value;
+        if (v instanceof Integer i) last = new Specialized.IntConst(i);
+        else if (v instanceof Double || v instanceof Float) last = new Specialized.FloatConst(((Number) v).floatValue());
+        else if (v instanceof Boolean b) last = new Specialized.BoolConst(b);
+        return e;
+    }
+
+    @Override
+    public Expr visitVariable(Expr.Variable e) {
+        TokenType type = declared.get(e.name);
+        if (type == TokenType.NUMERO) last = new Specialized.IntRead(e);
+        else if (type == TokenType.TIPIK) last = new Specialized.FloatRead(e);
+        else if (type == TokenType.TINUOD) last = new Specialized.BoolRead(e);
+        return e;
+    }
+
+    @Override
+    public Expr visitAssign(Expr.Assign e) {
+        Expr value = rewrite(e.value);
+        Specialized v = last;
+        TokenType target = declared.get(e.name);
+        // A number literal is a Double; storing its float form could round a NUMERO
+        Specialized node = v == null || isDoubleLiteral(e.value) ? null : store(e, target, v);
+        last = null;
+        if (node != null) return typed(e, node, e, target);
+
+        value = wrap(value, v);
+        return value == e.value ? e : at(new Expr.Assign(e.name, value), e);
+    }
+
+    @Override
+    public Expr visitBinary(Expr.Binary e) {
+        Expr left = rewrite(e.left);
+        Specialized l = last;
+        Expr right = rewrite(e.right);
+        Specialized r = last;
+
+        Specialized node = l != null && r != null ? binary(e.operator, l, r) : null;
+        last = node;
+        if (node != null) return e;
+
+        left = wrap(left, l);
+        right = wrap(right, r);
+        return left == e.left && right == e.right ? e : at(new Expr.Binary(left, e.operator, right), e);
+    }
+
+    @Override
+    public Expr visitUnary(Expr.Unary e) {
+        Expr operand = rewrite(e.operand);
+        Specialized o = last;
+
+        Specialized node = o == null ? null : unary(e.operator.type, e.operand, o, false);
+        last = node;
+        if (node != null) return e;
+
+        operand = wrap(operand, o);
+        return operand == e.operand ? e : at(new Expr.Unary(e.operator, operand), e);
+    }
+
+    @Override
+    public Expr visitPostfix(Expr.Postfix e) {
+        Expr operand = rewrite(e.operand);
+        Specialized o = last;
+
+        Specialized node = o == null ? null : unary(e.operator.type, e.operand, o, true);
+        last = node;
+        if (node != null) return e;
+
+        operand = wrap(operand, o);
+        return operand == e.operand ? e : at(new Expr.Postfix(operand, e.operator), e);
+    }
+
+    @Override
+    public Expr visitGrouping(Expr.Grouping e) {
+        // Transparent: the parenthesized expression's specialized form is the group's
+        Expr inner = rewrite(e.expression);
+        return inner == e.expression ? e : at(new Expr.Grouping(inner), e);
+    }
+
+    @Override
+    public Expr visitTyped(Expr.Typed e) {
+        return e;
+    }
+
+    // --- Node construction ---
+
+    /** Specialized node for a binary operator, or null if the operand types are not covered */
+    private static Specialized binary(Token op, Specialized l, Specialized r) {
+        if (op.type == TokenType.UG || op.type == TokenType.O) {
+            if (!(l instanceof Specialized.BoolNode bl && r instanceof Specialized.BoolNode br)) return null;
+            return op.type == TokenType.UG ? new Specialized.And(bl, br) : new Specialized.Or(bl, br);
+        }
+        if (!(l instanceof Specialized.Numeric nl && r instanceof Specialized.Numeric nr)) return null;
+
+        if (nl instanceof Specialized.IntNode il && nr instanceof Specialized.IntNode ir) {
+            switch (op.type) {
+                case PLUS: return new Specialized.IntAdd(il, ir);
+                case MINUS: return new Specialized.IntSubtract(il, ir);
+                case STAR: return new Specialized.IntMultiply(il, ir);
+                case SLASH: return new Specialized.IntDivide(il, op, ir);
+                case PERCENT: return new Specialized.IntModulo(il, op, ir);
+                default: break;
+            }
+        }
+        switch (op.type) {
+            case PLUS: return new Specialized.FloatAdd(nl, nr);
+            case MINUS: return new Specialized.FloatSubtract(nl, nr);
+            case STAR: return new Specialized.FloatMultiply(nl, nr);
+            case SLASH: return new Specialized.FloatDivide(nl, op, nr);
+            case PERCENT: return new Specialized.FloatModulo(nl, op, nr);
+            case GREATER: return new Specialized.Greater(nl, nr);
+            case GREATER_EQUAL: return new Specialized.GreaterEqual(nl, nr);
+            case LESS: return new Specialized.Less(nl, nr);
+            case LESS_EQUAL: return new Specialized.LessEqual(nl, nr);
+            case EQUAL_EQUAL: return new Specialized.Equal(nl, nr);
+            case LT_GT: return new Specialized.NotEqual(nl, nr);
+            default: return null;
+        }
+    }
+
+    /** Specialized node for a prefix or postfix operator, or null if not covered */
+    private static Specialized unary(TokenType op, Expr operandExpr, Specialized o, boolean postfix) {
+        switch (op) {
+            case MINUS:
+                if (postfix) return null;
+                if (o instanceof Specialized.IntNode i) return new Specialized.IntNegate(i);
+                if (o instanceof Specialized.FloatNode f) return new Specialized.FloatNegate(f);
+                return null;
+            case PLUS:
+                // Unary + returns its operand unchanged
+                return postfix || !(o instanceof Specialized.Numeric) ? null : o;
+            case DILI:
+                return !postfix && o instanceof Specialized.BoolNode b ? new Specialized.Not(b) : null;
+            case PLUS_PLUS: case MINUS_MINUS:
+                if (!(operandExpr instanceof Expr.Variable var)) return null;
+                int delta = op == TokenType.PLUS_PLUS ? 1 : -1;
+                if (o instanceof Specialized.IntRead) return new Specialized.IntIncrement(var, delta, postfix);
+                if (o instanceof Specialized.FloatRead) return new Specialized.FloatIncrement(var, delta, postfix);
+                return null;
+            default:
+                return null;
+        }
+    }
+
+    /** Store node for x = value when x is declared NUMERO or TIPIK, or null */
+    private static Specialized store(Expr.Assign e, TokenType target, Specialized value) {
+        if (target == TokenType.NUMERO) {
+            if (value instanceof Specialized.IntNode i) return new Specialized.StoreInt(e, i);
+            if (value instanceof Specialized.FloatNode f) return new Specialized.StoreFloatAsInt(e, f);
+        } else if (target == TokenType.TIPIK) {
+            if (value instanceof Specialized.IntNode i) return new Specialized.StoreIntAsFloat(e, i);
+            if (value instanceof Specialized.FloatNode f) return new Specialized.StoreFloat(e, f);
+        }
+        return null;
+    }
+
+    /** Wraps e in an Expr.Typed when it has a specialized form worth running */
+    private Expr wrap(Expr e, Specialized node) {
+        if (node == null || !isOperation(e)) return e;
+        return typed(e, node, null, null);
+    }
+
+    private Expr.Typed typed(Expr e, Specialized node, Expr.Assign target, TokenType targetType) {
+        Map<String, Expr.Variable> reads = new LinkedHashMap<>();
+        collectReads(e, reads);
+        Expr.Variable[] vars = reads.values().toArray(new Expr.Variable[0]);
+        TokenType[] types = new TokenType[vars.length];
+        for (int i = 0; i < vars.length; i++) types[i] = declared.get(vars[i].name);
+        return at(new Expr.Typed(e, node, vars, types, target, targetType), e);
+    }
+
+    private static boolean isDoubleLiteral(Expr e) {
+        if (e instanceof Expr.Grouping g) return isDoubleLiteral(g.expression);
+        if (e instanceof Expr.Unary u && u.operator.type == TokenType.PLUS) return isDoubleLiteral(u.operand);
+        return e instanceof Expr.Literal lit && lit.value instanceof Double;
+    }
+
+    /**
+     * True for an operator node. A literal or variable (even in parentheses or behind
+     * unary +) is left alone: a number literal is a Double, its typed form a Float.
+     */
+    private static boolean isOperation(Expr e) {
+        if (e instanceof Expr.Grouping g) return isOperation(g.expression);
+        if (e instanceof Expr.Unary u && u.operator.type == TokenType.PLUS) return isOperation(u.operand);
+        return e instanceof Expr.Binary || e instanceof Expr.Unary || e instanceof Expr.Postfix;
+    }
+
+    /** Collects the variables a fully typed subtree reads, one per name */
+    private static void collectReads(Expr e, Map<String, Expr.Variable> reads) {
+        if (e instanceof Expr.Variable v) reads.putIfAbsent(v.name, v);
+        else if (e instanceof Expr.Assign a) collectReads(a.value, reads);
+        else if (e instanceof Expr.Binary b) { collectReads(b.left, reads); collectReads(b.right, reads); }
+        else if (e instanceof Expr.Unary u) collectReads(u.operand, reads);
+        else if (e instanceof Expr.Postfix p) collectReads(p.operand, reads);
+        else if (e instanceof Expr.Grouping g) collectReads(g.expression, reads);
+    }
+
+    /** Gives a rewritten node the source span of the node it replaces */
+    private static <T extends Stmt> T at(T node, Stmt original) {
+        node.spanFrom(original);
+        return node;
+    }
+
+    private static <T extends Expr> T at(T node, Expr original) {
+        node.spanFrom(original);
+        return node;
+    }
+}
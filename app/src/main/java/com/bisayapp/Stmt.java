@@ -30,6 +30,7 @@ public abstract class Stmt {
         public static final class Item {
             public final String name;
             public final Expr init; // may be null
+            public int slot = -1;   // assigned by Resolver
             public Item(String name, Expr init) { this.name = name; this.init = init; }
         }
         public final TokenType type;        // NUMERO | LETRA | TINUOD | TIPIK
@@ -41,9 +42,12 @@ public abstract class Stmt {
     public static final class Input extends Stmt {
         public final Token dawatToken;
         public final List<String> varNames;
+        public final int[] slots; // assigned by Resolver, parallel to varNames
         public Input(Token dawatToken, List<String> varNames) { 
             this.dawatToken = dawatToken;
             this.varNames = varNames; 
+            this.slots = new int[varNames.size()];
+            java.util.Arrays.fill(this.slots, -1);
         }
         @Override public <R> R accept(Visitor<R> v) { return v.visitInput(this); }
     }
@@ -92,5 +96,13 @@ public abstract class Stmt {
         @Override public <R> R accept(Visitor<R> v) { return v.visitWhile(this); }
     }
 
+    // Source span (1-based): first line and column, last line; 0 if synthesized without a position
+    public int line, col, endLine;
+
+    /** Copies the source span of the node this one was derived from */
+    public void spanFrom(Stmt other) {
+        this.line = other.line; this.col = other.col; this.endLine = other.endLine;
+    }
+
     public abstract <R> R accept(Visitor<R> v);
 }
\ No newline at end of file
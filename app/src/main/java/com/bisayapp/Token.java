@@ -2,16 +2,66 @@ package com.bisayapp;
 
 public class Token {
   public final TokenType type;
-  public final String lexeme;
   public final Object literal;
   public final int line;
   public final int col;
 
+  // Source offsets [start, end) of the token text; -1 for tokens built without source
+  private final CharSequence source;
+  private final int start, end;
+
+  // Lexeme text, cut from source on first use unless the lexer supplied a shared constant
+  private String lexeme;
+
   public Token(TokenType type, String lexeme, Object literal, int line, int col) {
-    this.type = type; this.lexeme = lexeme; this.literal = literal; this.line = line; this.col = col;
+    this(type, lexeme, null, -1, -1, literal, line, col);
+  }
+
+  /**
+   * Token produced by the Lexer. lexeme may be null, in which case it is
+   * materialized from source[start, end) the first time it is asked for.
+   */
+  Token(TokenType type, String lexeme, CharSequence source, int start, int end, Object literal, int line, int col) {
+    this.type = type; this.lexeme = lexeme; this.source = source; this.start = start; this.end = end;
+    this.literal = literal; this.line = line; this.col = col;
+  }
+
+  /**
+   * @return The source text of this token (e.g. "MUGNA", "==", "\"hi\"")
+   */
+  public String lexeme() {
+    String text = lexeme;
+    if (text == null && source != null) {
+      text = source.subSequence(start, end).toString();
+      lexeme = text;
+    }
+    return text;
   }
 
+  /** Offset of the first character of this token in the source, or -1 if unknown */
+  public int start() { return start; }
+
+  /** Offset just past the last character of this token in the source, or -1 if unknown */
+  public int end() { return end; }
+
   @Override public String toString() {
-    return String.format("%-14s %-12s %s", type, lexeme, literal == null ? "" : literal);
+    return appendTo(new StringBuilder(40)).toString();
+  }
+
+  /**
+   * Appends the toString() form - type, lexeme and literal in padded columns -
+   * without going through String.format, for dumping long token lists.
+   */
+  public StringBuilder appendTo(StringBuilder sb) {
+    pad(sb, type.name(), 14).append(' ');
+    pad(sb, String.valueOf(lexeme()), 12).append(' ');
+    if (literal != null) sb.append(literal);
+    return sb;
+  }
+
+  private static StringBuilder pad(StringBuilder sb, String text, int width) {
+    sb.append(text);
+    for (int i = text.length(); i < width; i++) sb.append(' ');
+    return sb;
   }
 }
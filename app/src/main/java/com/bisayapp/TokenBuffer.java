@@ -0,0 +1,158 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Packed token stream: one entry per token in parallel primitive arrays instead of
+ * one Token object each.
+ *
+ * Per token it stores the type ordinal (one byte) and five ints: the start and end
+ * offsets, the line/col used for error messages and a literal slot - 21 bytes, against
+ * roughly 50 for a Token plus its ArrayList slot. Literal values live in side tables that only literal tokens have an
+ * entry in; numbers are kept unboxed. Token objects are created only for the
+ * tokens the parser keeps in the AST or reports errors on.
+ *
+ * Filled by Lexer.scanTokenBuffer(); read by the Parser through cursor().
+ */
+public final class TokenBuffer {
+  private static final TokenType[] TYPES = TokenType.values();
+  private static final int INITIAL_CAPACITY = 256;
+
+  private final CharSequence source;
+  private int size = 0;
+
+  private byte[] types = new byte[INITIAL_CAPACITY];
+  private int[] starts = new int[INITIAL_CAPACITY];
+  private int[] ends = new int[INITIAL_CAPACITY];
+  private int[] lines = new int[INITIAL_CAPACITY];
+  private int[] cols = new int[INITIAL_CAPACITY];
+
+  // Side tables for literal values: literalSlots[i] indexes numbers for NUMBER tokens and
+  // literals for STRING and CHAR tokens, or is -1 when token i has no literal
+  private int[] literalSlots = new int[INITIAL_CAPACITY];
+  private double[] numbers = new double[16];
+  private int numberCount = 0;
+  private final ArrayList<Object> literals = new ArrayList<>();
+
+  TokenBuffer(CharSequence source) { this.source = source; }
+
+  void add(TokenType type, int start, int end, Object literal, int line, int col) {
+    if (size == types.length) grow();
+    types[size] = (byte) type.ordinal();
+    starts[size] = start;
+    ends[size] = end;
+    lines[size] = line;
+    cols[size] = col;
+    if (literal == null) {
+      literalSlots[size] = -1;
+    } else if (type == TokenType.NUMBER) {
+      if (numberCount == numbers.length) numbers = Arrays.copyOf(numbers, numberCount * 2);
+      literalSlots[size] = numberCount;
+      numbers[numberCount++] = (Double) literal;
+    } else {
+      literalSlots[size] = literals.size();
+      literals.add(literal);
+    }
+    size++;
+  }
+
+  private void grow() {
+    int capacity = types.length * 2;
+    types = Arrays.copyOf(types, capacity);
+    starts = Arrays.copyOf(starts, capacity);
+    ends = Arrays.copyOf(ends, capacity);
+    lines = Arrays.copyOf(lines, capacity);
+    cols = Arrays.copyOf(cols, capacity);
+    literalSlots = Arrays.copyOf(literalSlots, capacity);
+  }
+
+  /** Drops spare capacity once the lexer has added the last token */
+  void trimToSize() {
+    types = Arrays.copyOf(types, size);
+    starts = Arrays.copyOf(starts, size);
+    ends = Arrays.copyOf(ends, size);
+    lines = Arrays.copyOf(lines, size);
+    cols = Arrays.copyOf(cols, size);
+    literalSlots = Arrays.copyOf(literalSlots, size);
+    numbers = Arrays.copyOf(numbers, numberCount);
+    literals.trimToSize();
+  }
+
+  /** @return Number of tokens, including the final EOF */
+  public int size() { return size; }
+
+  public TokenType type(int i) { return TYPES[types[i]]; }
+
+  public int line(int i) { return lines[i]; }
+
+  public int col(int i) { return cols[i]; }
+
+  /** Offset of the first character of token i in the source */
+  public int start(int i) { return starts[i]; }
+
+  /** Offset just past the last character of token i in the source */
+  public int end(int i) { return ends[i]; }
+
+  public Object literal(int i) {
+    int slot = literalSlots[i];
+    if (slot < 0) return null;
+    return types[i] == TokenType.NUMBER.ordinal() ? (Object) numbers[slot] : literals.get(slot);
+  }
+
+  /** @return The text of token i; shared constants for operators and keywords */
+  public String lexeme(int i) { return token(i).lexeme(); }
+
+  /**
+   * Creates a Token for entry i. Each call returns a new object; its lexeme is
+   * still cut from the source lazily.
+   */
+  public Token token(int i) {
+    TokenType type = type(i);
+    return new Token(type, Lexer.fixedLexeme(type), source, starts[i], ends[i], literal(i), lines[i], cols[i]);
+  }
+
+  /** Creates Token objects for every entry, e.g. for code written against List<Token> */
+  public List<Token> toList() {
+    List<Token> list = new ArrayList<>(size);
+    for (int i = 0; i < size; i++) list.add(token(i));
+    return list;
+  }
+
+  /** @return A cursor at the first token, for the Parser */
+  TokenCursor cursor() {
+    return new TokenCursor() {
+      private int current = 0;
+      // previous() is asked for repeatedly (match, then span and the node itself); keep the last one
+      private Token last;
+      private int lastIndex = -1;
+
+      @Override public TokenType type(int ahead) {
+        int i = current + ahead;
+        return i < size ? TokenBuffer.this.type(i) : TokenType.EOF;
+      }
+
+      @Override public Token peek(int ahead) {
+        int i = current + ahead;
+        return i < size ? tokenAt(i) : null;
+      }
+
+      @Override public Token previous() { return tokenAt(current - 1); }
+
+      @Override public int previousLine() { return lines[current - 1]; }
+
+      @Override public void advance() { current++; }
+
+      @Override public int count() { return size; }
+
+      private Token tokenAt(int i) {
+        if (i != lastIndex) {
+          last = token(i);
+          lastIndex = i;
+        }
+        return last;
+      }
+    };
+  }
+}
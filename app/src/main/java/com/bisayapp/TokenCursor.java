@@ -0,0 +1,109 @@
+package com.bisayapp;
+
+import java.util.List;
+
+/**
+ * Sequential view of a token stream for the Parser.
+ *
+ * Positions are relative to the cursor: ahead 0 is the current (not yet consumed)
+ * token. type() answers lookahead checks without creating Token objects, so a
+ * packed TokenBuffer only materializes the tokens the parser actually keeps.
+ */
+interface TokenCursor {
+
+  /** Tokens a pull() cursor holds: the current one and up to PULL_WINDOW - 1 of lookahead */
+  int PULL_WINDOW = 4;
+
+  /** Type of the token ahead positions past the current one; EOF past the end */
+  TokenType type(int ahead);
+
+  /** The token ahead positions past the current one, or null past the end */
+  Token peek(int ahead);
+
+  /** The most recently consumed token */
+  Token previous();
+
+  /** Line of the most recently consumed token */
+  int previousLine();
+
+  /** Consumes the current token */
+  void advance();
+
+  /** Number of tokens in the stream (read so far, for pulled streams) */
+  int count();
+
+  /** Cursor over an already materialized token list */
+  static TokenCursor of(List<Token> tokens) {
+    return new TokenCursor() {
+      private int current = 0;
+
+      @Override public TokenType type(int ahead) {
+        int i = current + ahead;
+        return i < tokens.size() ? tokens.get(i).type : TokenType.EOF;
+      }
+
+      @Override public Token peek(int ahead) {
+        int i = current + ahead;
+        return i < tokens.size() ? tokens.get(i) : null;
+      }
+
+      @Override public Token previous() { return tokens.get(current - 1); }
+
+      @Override public int previousLine() { return tokens.get(current - 1).line; }
+
+      @Override public void advance() { current++; }
+
+      @Override public int count() { return tokens.size(); }
+    };
+  }
+
+  /**
+   * Cursor that pulls tokens from the lexer as the parser reaches them, keeping only
+   * the current token, the previous one and at most PULL_WINDOW - 1 tokens of lookahead.
+   */
+  static TokenCursor pull(Lexer lexer) {
+    return new TokenCursor() {
+      // Ring buffer of pulled but not yet consumed tokens, starting at head
+      private final Token[] window = new Token[PULL_WINDOW];
+      private int head = 0, buffered = 0, pulled = 0;
+      private boolean sawEof = false;
+      private Token previous;
+
+      private Token fetch(int ahead) {
+        if (ahead >= PULL_WINDOW) {
+          throw new IllegalArgumentException("Lookahead " + ahead + " is beyond the pull window of " + PULL_WINDOW);
+        }
+        while (buffered <= ahead && !sawEof) {
+          Token token = lexer.nextToken();
+          window[(head + buffered) % PULL_WINDOW] = token;
+          buffered++;
+          pulled++;
+          sawEof = token.type == TokenType.EOF;
+        }
+        return ahead < buffered ? window[(head + ahead) % PULL_WINDOW] : null;
+      }
+
+      @Override public TokenType type(int ahead) {
+        Token token = fetch(ahead);
+        return token != null ? token.type : TokenType.EOF;
+      }
+
+      @Override public Token peek(int ahead) { return fetch(ahead); }
+
+      @Override public Token previous() { return previous; }
+
+      @Override public int previousLine() { return previous.line; }
+
+      @Override public void advance() {
+        Token token = fetch(0);
+        if (token == null) return;  // already past EOF
+        previous = token;
+        window[head] = null;
+        head = (head + 1) % PULL_WINDOW;
+        buffered--;
+      }
+
+      @Override public int count() { return pulled; }
+    };
+  }
+}
@@ -0,0 +1,243 @@
+package com.bisayapp;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Static Type Checker for Bisaya++ Programs
+ *
+ * Runs after the Optimizer and before the Resolver. Using the types declared with MUGNA
+ * it checks every literal stored into a declared variable and:
+ * - Reports literal values that can never be stored in their target before anything
+ *   runs (a decimal into NUMERO, "ab" or '' into LETRA, "YES" into TINUOD)
+ * - Pre-coerces literal values of declarations and assignment statements to the
+ *   declared type (MUGNA NUMERO x = 5 stores Integer 5 instead of converting 5.0)
+ *
+ * Like the Optimizer it does not modify the program it is given: statements holding a
+ * pre-coerced literal are rebuilt and everything else is returned as-is.
+ *
+ * Types are the declared TokenTypes (NUMERO, TIPIK, LETRA, TINUOD). A name declared
+ * with two different types (e.g. in both branches of a KUNG) is not checked. Values that
+ * are only known at runtime (DAWAT input, NUMERO = TIPIK expressions) are still checked
+ * by the Environment; the Specializer types whole expressions from declaredTypes().
+ */
+public class TypeChecker implements Expr.Visitor<Void>, Stmt.Visitor<Stmt> {
+    /** Declared type per name; null value when declarations disagree */
+    private final Map<String, TokenType> declared = new HashMap<>();
+
+    /**
+     * Checks a whole program
+     *
+     * @param program Statements to check (not modified)
+     * @return Statements with pre-coerced literals
+     * @throws RuntimeException with the Environment's message for the first invalid literal
+     */
+    public List<Stmt> check(List<Stmt> program) {
+        collectDeclarations(program);
+        return checkAll(program);
+    }
+
+    /**
+     * @return Declared type per name in the program; null for names declared with two types
+     */
+    static Map<String, TokenType> declaredTypes(List<Stmt> program) {
+        TypeChecker checker = new TypeChecker();
+        checker.collectDeclarations(program);
+        return checker.declared;
+    }
+
+    private Stmt check(Stmt s) { return s == null ? null : s.accept(this); }
+    private void check(Expr e) { if (e != null) e.accept(this); }
+
+    private List<Stmt> checkAll(List<Stmt> statements) {
+        List<Stmt> result = new ArrayList<>(statements.size());
+        boolean changed = false;
+        for (Stmt s : statements) {
+            Stmt checked = check(s);
+            changed |= checked != s;
+            result.add(checked);
+        }
+        return changed ? result : statements;
+    }
+
+    private void collectDeclarations(List<Stmt> statements) {
+        for (Stmt s : statements) collectDeclarations(s);
+    }
+
+    private void collectDeclarations(Stmt s) {
+        if (s instanceof Stmt.VarDecl d) {
+            for (Stmt.VarDecl.Item it : d.items) {
+                if (declared.containsKey(it.name) && declared.get(it.name) != d.type) {
+                    declared.put(it.name, null);
+                } else {
+                    declared.put(it.name, d.type);
+                }
+            }
+        } else if (s instanceof Stmt.Block b) {
+            collectDeclarations(b.statements);
+        } else if (s instanceof Stmt.If i) {
+            collectDeclarations(i.thenBranch);
+            if (i.elseBranch != null) collectDeclarations(i.elseBranch);
+        } else if (s instanceof Stmt.For f) {
+            collectDeclarations(f.body);
+        } else if (s instanceof Stmt.While w) {
+            collectDeclarations(w.body);
+        }
+    }
+
+    /**
+     * Checks a literal against the target type and returns the pre-coerced literal
+     */
+    private Expr.Literal coerceLiteral(TokenType target, Expr.Literal lit) {
+        // MUGNA NUMERO x without a value, or x = <null> is checked at runtime
+        if (lit.value == null) return lit;
+        Object coerced = Environment.coerce(target, lit.value);
+        if (coerced.equals(lit.value)) return lit;
+        Expr.Literal result = new Expr.Literal(coerced);
+        result.spanFrom(lit);
+        return result;
+    }
+
+    /**
+     * Checks an assignment whose own value is discarded
+     *
+     * @return The assignment with its literal replaced by the coerced one
+     */
+    private Expr.Assign checkAssignStatement(Expr.Assign e) {
+        check(e.value);
+        TokenType target = declared.get(e.name);
+        if (target == null || !(e.value instanceof Expr.Literal lit)) return e;
+
+        Expr.Literal coerced = coerceLiteral(target, lit);
+        if (coerced == lit) return e;
+        Expr.Assign result = new Expr.Assign(e.name, coerced);
+        result.spanFrom(e);
+        return result;
+    }
+
+    // --- Stmt ---
+    @Override
+    public Stmt visitPrint(Stmt.Print s) {
+        for (Expr e : s.parts) check(e);
+        return s;
+    }
+
+    @Override
+    public Stmt visitExprStmt(Stmt.ExprStmt s) {
+        if (!(s.expr instanceof Expr.Assign a)) {
+            check(s.expr);
+            return s;
+        }
+        Expr.Assign checked = checkAssignStatement(a);
+        return checked == a ? s : at(new Stmt.ExprStmt(checked), s);
+    }
+
+    @Override
+    public Stmt visitVarDecl(Stmt.VarDecl s) {
+        List<Stmt.VarDecl.Item> items = new ArrayList<>(s.items.size());
+        boolean changed = false;
+        for (Stmt.VarDecl.Item it : s.items) {
+            check(it.init);
+            Expr init = it.init instanceof Expr.Literal lit ? coerceLiteral(s.type, lit) : it.init;
+            if (init != it.init) {
+                items.add(new Stmt.VarDecl.Item(it.name, init));
+                changed = true;
+            } else {
+                items.add(it);
+            }
+        }
+        return changed ? at(new Stmt.VarDecl(s.type, items), s) : s;
+    }
+
+    @Override
+    public Stmt visitInput(Stmt.Input s) { return s; }
+
+    @Override
+    public Stmt visitIf(Stmt.If s) {
+        check(s.condition);
+        Stmt thenBranch = check(s.thenBranch);
+        Stmt elseBranch = check(s.elseBranch);
+        if (thenBranch == s.thenBranch && elseBranch == s.elseBranch) return s;
+        return at(new Stmt.If(s.condition, thenBranch, elseBranch), s);
+    }
+
+    @Override
+    public Stmt visitBlock(Stmt.Block s) {
+        List<Stmt> statements = checkAll(s.statements);
+        return statements == s.statements ? s : at(new Stmt.Block(statements), s);
+    }
+
+    @Override
+    public Stmt visitFor(Stmt.For s) {
+        Stmt initializer = check(s.initializer);
+        check(s.condition);
+        Stmt update = check(s.update);
+        Stmt body = check(s.body);
+        if (initializer == s.initializer && update == s.update && body == s.body) return s;
+        return at(new Stmt.For(initializer, s.condition, update, body), s);
+    }
+
+    @Override
+    public Stmt visitWhile(Stmt.While s) {
+        check(s.condition);
+        Stmt body = check(s.body);
+        return body == s.body ? s : at(new Stmt.While(s.condition, body), s);
+    }
+
+    /** Gives a rebuilt statement the source span of the one it replaces */
+    private static <T extends Stmt> T at(T node, Stmt original) {
+        node.spanFrom(original);
+        return node;
+    }
+
+    // --- Expr ---
+    // Expressions are only walked to find assignments nested in them (IPAKITA: x = 5)
+
+    @Override
+    public Void visitLiteral(Expr.Literal e) { return null; }
+
+    @Override
+    public Void visitVariable(Expr.Variable e) { return null; }
+
+    @Override
+    public Void visitAssign(Expr.Assign e) {
+        // The value of x = 5 is observable here, so the literal is only checked
+        check(e.value);
+        TokenType target = declared.get(e.name);
+        if (target != null && e.value instanceof Expr.Literal lit) coerceLiteral(target, lit);
+        return null;
+    }
+
+    @Override
+    public Void visitBinary(Expr.Binary e) {
+        check(e.left);
+        check(e.right);
+        return null;
+    }
+
+    @Override
+    public Void visitUnary(Expr.Unary e) {
+        check(e.operand);
+        return null;
+    }
+
+    @Override
+    public Void visitPostfix(Expr.Postfix e) {
+        check(e.operand);
+        return null;
+    }
+
+    @Override
+    public Void visitGrouping(Expr.Grouping e) {
+        check(e.expression);
+        return null;
+    }
+
+    @Override
+    public Void visitTyped(Expr.Typed e) {
+        check(e.generic);
+        return null;
+    }
+}
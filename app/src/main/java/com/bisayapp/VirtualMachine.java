@@ -0,0 +1,373 @@
+package com.bisayapp;
+
+import java.util.Arrays;
+
+/**
+ * Stack-based virtual machine that executes Bytecode.
+ *
+ * An alternative to walking the AST: the program is a flat int[] instruction stream
+ * driven by a single dispatch loop, so there is no per-node accept() double dispatch.
+ *
+ * Operand stack values are tagged and unboxed: NUMERO stays an int, TIPIK a float,
+ * booleans and LETRA are kept as primitives too, and only text (and null) lives in the
+ * Object column. Together with the typed Environment stores this keeps arithmetic,
+ * comparisons, loads/stores and loop conditions allocation-free.
+ *
+ * Anything outside the fast paths (mixed or invalid types) is boxed and handed to the
+ * Interpreter's value helpers, so both engines produce identical output and error messages.
+ */
+public class VirtualMachine {
+    // Value tags for the operand stack
+    private static final byte REF = 0;     // refs[i]: String, null or other object
+    private static final byte INT = 1;     // (int) nums[i]
+    private static final byte FLOAT = 2;   // (float) nums[i]
+    private static final byte DOUBLE = 3;  // nums[i], numeric literals from the lexer
+    private static final byte BOOL = 4;    // nums[i] != 0
+    private static final byte CHAR = 5;    // (char) nums[i]
+
+    private final Interpreter interp;
+    private final Environment env;
+    private final IOHandler ioHandler;
+    private final ResourceGovernor governor;
+
+    // Operand stack as parallel arrays; a double holds any int, float or char exactly
+    private byte[] tags = new byte[64];
+    private double[] nums = new double[64];
+    private Object[] refs = new Object[64];
+    private int sp = 0;
+
+    // Reused by PRINT; the IOHandler only reads it during bufferOutput()
+    private final StringBuilder printBuffer = new StringBuilder();
+
+    VirtualMachine(Interpreter interp, Environment env, IOHandler ioHandler, ResourceGovernor governor) {
+        this.interp = interp;
+        this.env = env;
+        this.ioHandler = ioHandler;
+        this.governor = governor;
+    }
+
+    // --- Stack helpers ---
+
+    private void grow() {
+        int n = tags.length * 2;
+        tags = Arrays.copyOf(tags, n);
+        nums = Arrays.copyOf(nums, n);
+        refs = Arrays.copyOf(refs, n);
+    }
+
+    private void push(byte tag, double num, Object ref) {
+        if (sp == tags.length) grow();
+        tags[sp] = tag;
+        nums[sp] = num;
+        refs[sp] = ref;
+        sp++;
+    }
+
+    private void set(int i, byte tag, double num) {
+        tags[i] = tag;
+        nums[i] = num;
+        refs[i] = null;
+    }
+
+    private void setRef(int i, Object ref) {
+        tags[i] = REF;
+        refs[i] = ref;
+    }
+
+    private void pushBoxed(Object v) {
+        if (sp == tags.length) grow();
+        setBoxed(sp++, v);
+    }
+
+    private void setBoxed(int i, Object v) {
+        if (v instanceof Integer n) set(i, INT, n);
+        else if (v instanceof Float f) set(i, FLOAT, f);
+        else if (v instanceof Double d) set(i, DOUBLE, d);
+        else if (v instanceof Boolean b) set(i, BOOL, b ? 1 : 0);
+        else if (v instanceof Character c) set(i, CHAR, c);
+        else setRef(i, v);
+    }
+
+    /** Boxes stack entry i (slow paths only) */
+    private Object box(int i) {
+        return switch (tags[i]) {
+            case INT -> (int) nums[i];
+            case FLOAT -> (float) nums[i];
+            case DOUBLE -> nums[i];
+            case BOOL -> nums[i] != 0;
+            case CHAR -> (char) nums[i];
+            default -> refs[i];
+        };
+    }
+
+    private static boolean isNumeric(byte tag) {
+        return tag == INT || tag == FLOAT || tag == DOUBLE;
+    }
+
+    /** Same formatting as Interpreter.stringify() without boxing primitives */
+    private String stringify(int i) {
+        switch (tags[i]) {
+            case INT: return Integer.toString((int) nums[i]);
+            case FLOAT: {
+                float f = (float) nums[i];
+                if (f == (int) f) return String.valueOf((int) f);
+                return Float.toString(f);
+            }
+            case DOUBLE: {
+                double d = nums[i];
+                if (d == (int) d) return String.valueOf((int) d);
+                return Double.toString(d);
+            }
+            case BOOL: return nums[i] != 0 ? "OO" : "DILI";
+            case CHAR: return String.valueOf((char) nums[i]);
+            default: return interp.stringify(refs[i]);
+        }
+    }
+
+    /**
+     * Executes a compiled program until the end of its instruction stream
+     *
+     * @param bytecode Output of BytecodeCompiler.compile()
+     */
+    public void run(Bytecode bytecode) {
+        final int[] code = bytecode.code;
+        final Object[] k = bytecode.constants;
+
+        // Pre-classify constants so CONSTANT never inspects boxed values
+        final byte[] kTags = new byte[k.length];
+        final double[] kNums = new double[k.length];
+        for (int i = 0; i < k.length; i++) {
+            pushBoxed(k[i]);
+            kTags[i] = tags[sp - 1];
+            kNums[i] = nums[sp - 1];
+            sp--;
+            refs[sp] = null;
+        }
+
+        int ip = 0;
+        while (ip < code.length) {
+            switch (code[ip++]) {
+                case OpCode.CONSTANT -> {
+                    int c = code[ip++];
+                    push(kTags[c], kNums[c], kTags[c] == REF ? k[c] : null);
+                }
+                case OpCode.POP -> refs[--sp] = null;
+
+                case OpCode.LOAD -> {
+                    int slot = code[ip++];
+                    TokenType type = env.getType(slot);
+                    if (type == null) throw env.undefinedVariable((Token) k[code[ip]]);
+                    ip++;
+                    if (!env.isAssigned(slot)) push(REF, 0, null);
+                    else switch (type) {
+                        case NUMERO -> push(INT, env.getInt(slot), null);
+                        case TIPIK  -> push(FLOAT, env.getFloat(slot), null);
+                        case LETRA  -> push(CHAR, env.getChar(slot), null);
+                        // TINUOD variables read back as "OO"/"DILI" text, as in visitVariable()
+                        default     -> push(REF, 0, env.getBoolean(slot) ? "OO" : "DILI");
+                    }
+                }
+                case OpCode.STORE -> {
+                    int slot = code[ip++];
+                    String name = (String) k[code[ip++]];
+                    if (!env.isDeclared(slot)) {
+                        throw new RuntimeException("Undefined variable '" + name + "'. Variables must be declared with MUGNA before assignment.");
+                    }
+                    int top = sp - 1;
+                    switch (tags[top]) {
+                        case INT    -> env.assignInt(slot, name, (int) nums[top]);
+                        case FLOAT  -> env.assignFloat(slot, name, (float) nums[top]);
+                        case DOUBLE -> env.assignDouble(slot, name, nums[top]);
+                        default     -> env.assign(slot, name, box(top));
+                    }
+                }
+                case OpCode.DECLARE -> {
+                    int slot = code[ip++];
+                    String name = (String) k[code[ip++]];
+                    TokenType type = (TokenType) k[code[ip++]];
+                    Object v = box(--sp);
+                    refs[sp] = null;
+                    env.declare(slot, name, type, v);
+                }
+
+                case OpCode.ADD -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    if (tags[a] == INT && tags[b] == INT) set(a, INT, (int) nums[a] + (int) nums[b]);
+                    else if (isNumeric(tags[a]) && isNumeric(tags[b])) set(a, FLOAT, (float) nums[a] + (float) nums[b]);
+                    else setBoxed(a, interp.addNumbers(box(a), box(b), tok));
+                    refs[b] = null;
+                }
+                case OpCode.SUBTRACT -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    if (tags[a] == INT && tags[b] == INT) set(a, INT, (int) nums[a] - (int) nums[b]);
+                    else if (isNumeric(tags[a]) && isNumeric(tags[b])) set(a, FLOAT, (float) nums[a] - (float) nums[b]);
+                    else setBoxed(a, interp.subtractNumbers(box(a), box(b), tok));
+                    refs[b] = null;
+                }
+                case OpCode.MULTIPLY -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    if (tags[a] == INT && tags[b] == INT) set(a, INT, (int) nums[a] * (int) nums[b]);
+                    else if (isNumeric(tags[a]) && isNumeric(tags[b])) set(a, FLOAT, (float) nums[a] * (float) nums[b]);
+                    else setBoxed(a, interp.multiplyNumbers(box(a), box(b), tok));
+                    refs[b] = null;
+                }
+                case OpCode.DIVIDE -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    if (isNumeric(tags[a]) && isNumeric(tags[b])) {
+                        if ((float) nums[b] == 0.0f) throw interp.runtimeError(tok, "Division by zero.");
+                        if (tags[a] == INT && tags[b] == INT) set(a, INT, (int) nums[a] / (int) nums[b]);
+                        else set(a, FLOAT, (float) nums[a] / (float) nums[b]);
+                    } else {
+                        setBoxed(a, interp.divideNumbers(box(a), box(b), tok));
+                    }
+                    refs[b] = null;
+                }
+                case OpCode.MODULO -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    if (isNumeric(tags[a]) && isNumeric(tags[b])) {
+                        if ((float) nums[b] == 0.0f) throw interp.runtimeError(tok, "Modulo by zero.");
+                        if (tags[a] == INT && tags[b] == INT) set(a, INT, (int) nums[a] % (int) nums[b]);
+                        else set(a, FLOAT, (float) nums[a] % (float) nums[b]);
+                    } else {
+                        setBoxed(a, interp.moduloNumbers(box(a), box(b), tok));
+                    }
+                    refs[b] = null;
+                }
+                case OpCode.CONCAT -> {
+                    int b = --sp, a = b - 1;
+                    setRef(a, stringify(a) + stringify(b));
+                    refs[b] = null;
+                }
+
+                case OpCode.GREATER, OpCode.GREATER_EQUAL, OpCode.LESS, OpCode.LESS_EQUAL -> {
+                    int op = code[ip - 1];
+                    Token tok = (Token) k[code[ip++]];
+                    int b = --sp, a = b - 1;
+                    int cmp = (isNumeric(tags[a]) && isNumeric(tags[b]))
+                        ? Float.compare((float) nums[a], (float) nums[b])
+                        : interp.compareNumbers(box(a), box(b), tok);
+                    boolean result = switch (op) {
+                        case OpCode.GREATER -> cmp > 0;
+                        case OpCode.GREATER_EQUAL -> cmp >= 0;
+                        case OpCode.LESS -> cmp < 0;
+                        default -> cmp <= 0;
+                    };
+                    set(a, BOOL, result ? 1 : 0);
+                    refs[b] = null;
+                }
+                case OpCode.EQUAL, OpCode.NOT_EQUAL -> {
+                    int op = code[ip - 1];
+                    int b = --sp, a = b - 1;
+                    boolean equal;
+                    if (isNumeric(tags[a]) && isNumeric(tags[b])) {
+                        float l = (float) nums[a], r = (float) nums[b];
+                        // -0.0 equals 0.0, as in Interpreter.isEqual()
+                        equal = (l == 0.0f && r == 0.0f) || Float.compare(l, r) == 0;
+                    } else {
+                        equal = interp.isEqual(box(a), box(b));
+                    }
+                    set(a, BOOL, (equal == (op == OpCode.EQUAL)) ? 1 : 0);
+                    refs[b] = null;
+                }
+
+                case OpCode.NEGATE -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int top = sp - 1;
+                    if (tags[top] == INT) set(top, INT, -(int) nums[top]);
+                    else if (isNumeric(tags[top])) set(top, FLOAT, -(float) nums[top]);
+                    else interp.requireNumber(box(top), tok); // always throws
+                }
+                case OpCode.POSITIVE -> {
+                    Token tok = (Token) k[code[ip++]];
+                    if (!isNumeric(tags[sp - 1])) interp.requireNumber(box(sp - 1), tok); // always throws
+                }
+                case OpCode.NOT -> {
+                    Token tok = (Token) k[code[ip++]];
+                    int top = sp - 1;
+                    boolean b = tags[top] == BOOL ? nums[top] != 0
+                        : interp.requireBoolean(box(top), tok, "DILI operator (NOT)");
+                    set(top, BOOL, b ? 0 : 1);
+                }
+                case OpCode.REQUIRE_BOOL -> {
+                    Token tok = (Token) k[code[ip++]];
+                    String context = (String) k[code[ip++]];
+                    int top = sp - 1;
+                    if (tags[top] != BOOL) set(top, BOOL, interp.requireBoolean(box(top), tok, context) ? 1 : 0);
+                }
+
+                case OpCode.PRE_INCREMENT, OpCode.PRE_DECREMENT,
+                     OpCode.POST_INCREMENT, OpCode.POST_DECREMENT -> {
+                    int op = code[ip - 1];
+                    int slot = code[ip++];
+                    String name = (String) k[code[ip++]];
+                    Token tok = (Token) k[code[ip++]];
+                    int delta = (op == OpCode.PRE_INCREMENT || op == OpCode.POST_INCREMENT) ? 1 : -1;
+                    boolean prefix = op == OpCode.PRE_INCREMENT || op == OpCode.PRE_DECREMENT;
+                    int top = sp - 1;
+                    if (tags[top] == INT) {
+                        int r = (int) nums[top] + delta;
+                        env.assignInt(slot, name, r);
+                        if (prefix) nums[top] = r;
+                    } else if (isNumeric(tags[top])) {
+                        float r = (float) nums[top] + delta;
+                        env.assignFloat(slot, name, r);
+                        if (prefix) set(top, FLOAT, r);
+                    } else {
+                        interp.requireNumber(box(top), tok); // always throws
+                    }
+                }
+
+                case OpCode.PRINT -> {
+                    int count = code[ip++];
+                    StringBuilder sb = printBuffer;
+                    sb.setLength(0);
+                    for (int i = sp - count; i < sp; i++) {
+                        switch (tags[i]) {
+                            case INT -> sb.append((int) nums[i]);
+                            case CHAR -> sb.append((char) nums[i]);
+                            default -> sb.append(stringify(i));
+                        }
+                        refs[i] = null;
+                    }
+                    sp -= count;
+                    governor.onOutput(sb);
+                    ioHandler.bufferOutput(sb);
+                }
+                case OpCode.INPUT -> interp.visitInput((Stmt.Input) k[code[ip++]]);
+                case OpCode.FAIL -> {
+                    Token tok = (Token) k[code[ip++]];
+                    throw interp.runtimeError(tok, (String) k[code[ip++]]);
+                }
+
+                case OpCode.JUMP -> {
+                    int offset = code[ip++];
+                    // Only loops jump backwards
+                    if (offset < 0) governor.onBackEdge();
+                    ip += offset;
+                }
+                case OpCode.JUMP_IF_FALSE -> {
+                    int offset = code[ip++];
+                    int top = --sp;
+                    boolean truthy = tags[top] == BOOL ? nums[top] != 0 : interp.isTruthy(box(top));
+                    refs[top] = null;
+                    if (!truthy) ip += offset;
+                }
+                case OpCode.JUMP_IF_FALSE_KEEP -> {
+                    int offset = code[ip++];
+                    if (nums[sp - 1] == 0) ip += offset;
+                }
+                case OpCode.JUMP_IF_TRUE_KEEP -> {
+                    int offset = code[ip++];
+                    if (nums[sp - 1] != 0) ip += offset;
+                }
+
+                default -> throw new IllegalStateException("Unknown opcode " + code[ip - 1] + " at " + (ip - 1));
+            }
+        }
+    }
+}
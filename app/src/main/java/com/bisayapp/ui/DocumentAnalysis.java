@@ -0,0 +1,171 @@
+package com.bisayapp.ui;
+
+import com.bisayapp.CompileException;
+import com.bisayapp.Diagnostics;
+import com.bisayapp.Lexer;
+import com.bisayapp.Parser;
+import com.bisayapp.Stmt;
+import com.bisayapp.Token;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Versioned analysis of the editor document, shared by the highlighter, formatter and runner
+ *
+ * Every edit starts a new version. The tokens of a version, and its parsed program once
+ * someone asks for it, are cached until the next edit, so the syntax highlighter's
+ * background pass does the lexing and parsing that Run and Format then reuse.
+ *
+ * Each result collects its own lexical and syntax errors, so analyses of different
+ * versions, or of different editors, may run at the same time. Results may be read
+ * from any thread.
+ */
+public class DocumentAnalysis {
+
+    private final AtomicLong version = new AtomicLong();
+    private volatile Result latest;
+
+    /**
+     * Tokens and, when they are free of errors, the parsed program for one version of the text
+     */
+    public static final class Result {
+        private final long version;
+        private final String text;
+        private final List<Token> tokens;
+        private final Diagnostics diagnostics;
+        private final boolean lexicalErrors;
+
+        // Filled in by the first program() call
+        private boolean parsed;
+        private List<Stmt> program;
+        private RuntimeException error;
+
+        private Result(long version, String text, List<Token> tokens, Diagnostics diagnostics) {
+            this.version = version;
+            this.text = text;
+            this.tokens = tokens;
+            this.diagnostics = diagnostics;
+            this.lexicalErrors = diagnostics.hadError();
+        }
+
+        /** @return Document version this result describes */
+        public long version() {
+            return version;
+        }
+
+        /** @return The analyzed text */
+        public String text() {
+            return text;
+        }
+
+        /** @return All tokens of the text, ending with EOF */
+        public List<Token> tokens() {
+            return tokens;
+        }
+
+        /** @return Lexical errors, and syntax errors once program() has parsed */
+        public Diagnostics diagnostics() {
+            return diagnostics;
+        }
+
+        /**
+         * Parses the tokens on first use; later calls return the same program
+         *
+         * @return The parsed program, ready to hand to the Interpreter
+         * @throws CompileException with the same message and diagnostics Bisaya.runSource
+         *         gives for lexical or syntax errors
+         */
+        public List<Stmt> program() {
+            synchronized (this) {
+                if (!parsed) {
+                    parse();
+                    parsed = true;
+                }
+            }
+            if (error != null) {
+                throw error;
+            }
+            return program;
+        }
+
+        private void parse() {
+            if (lexicalErrors) {
+                error = new CompileException("Lexical errors found", diagnostics);
+                return;
+            }
+            try {
+                program = new Parser(tokens, diagnostics).parseProgram();
+            } catch (RuntimeException e) {
+                // The parser stops at its first syntax error after reporting it
+                error = diagnostics.hadError() ? new CompileException("Syntax errors found", diagnostics) : e;
+            }
+        }
+    }
+
+    /**
+     * Records an edit; results for earlier versions are no longer reused
+     * @return The new version
+     */
+    public long edited() {
+        return version.incrementAndGet();
+    }
+
+    /** @return The current document version */
+    public long version() {
+        return version.get();
+    }
+
+    /**
+     * Analysis of the current text, reusing the cached result when it is for the current version
+     *
+     * @param text The editor text as of version()
+     */
+    public Result current(String text) {
+        return analyze(version(), text);
+    }
+
+    /**
+     * Tokenizes one version of the text, or returns the cached result for it. The result
+     * is cached only while textVersion is still the current version.
+     *
+     * @param textVersion Version the text was read at
+     * @param text The editor text as of textVersion
+     */
+    public Result analyze(long textVersion, String text) {
+        Result cached = latest;
+        if (cached != null && cached.version == textVersion) {
+            return cached;
+        }
+
+        // Quiet: the editor analyzes while the user types; Run shows them from the CompileException
+        Diagnostics diagnostics = Diagnostics.quiet();
+        List<Token> tokens = new Lexer(text, diagnostics).scanTokens();
+        Result result = new Result(textVersion, text, tokens, diagnostics);
+        if (textVersion == version()) {
+            latest = result;
+        }
+        return result;
+    }
+
+    /**
+     * Tokenizes and parses one version ahead of time, so a Run right afterwards finds it cached
+     *
+     * @param textVersion Version the text was read at
+     * @param text The editor text as of textVersion
+     */
+    public void prefetch(long textVersion, String text) {
+        if (textVersion != version()) {
+            return;   // already outdated
+        }
+        Result result = analyze(textVersion, text);
+        if (textVersion != version()) {
+            return;   // edited while lexing; don't spend time parsing an old version
+        }
+        try {
+            result.program();
+        } catch (RuntimeException e) {
+            // Kept in the result; Run throws them again
+        }
+    }
+}
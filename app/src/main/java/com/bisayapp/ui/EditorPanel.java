@@ -22,6 +22,7 @@ public class EditorPanel extends VBox {
     
     private final CodeArea codeEditor;
     private final SyntaxHighlighter syntaxHighlighter;
+    private final DocumentAnalysis analysis = new DocumentAnalysis();
     
     public EditorPanel() {
         super(5);
@@ -45,8 +46,11 @@ public class EditorPanel extends VBox {
         // Add line numbers with current line highlighting
         codeEditor.setParagraphGraphicFactory(HighlightedLineNumberFactory.get(codeEditor));
         
+        // Every edit starts a new document version; cached tokens and AST are for the latest one
+        codeEditor.multiPlainChanges().subscribe(changes -> analysis.edited());
+        
         // Initialize syntax highlighter
-        syntaxHighlighter = new SyntaxHighlighter(codeEditor);
+        syntaxHighlighter = new SyntaxHighlighter(codeEditor, analysis);
         
         // Apply initial highlighting if there's any text
         if (!codeEditor.getText().isEmpty()) {
@@ -130,6 +134,13 @@ public class EditorPanel extends VBox {
         codeEditor.requestFocus();
     }
     
+    /**
+     * Gets the shared tokens and parse of the editor text
+     */
+    public DocumentAnalysis getAnalysis() {
+        return analysis;
+    }
+    
     /**
      * Gets the syntax highlighter
      */
@@ -1,5 +1,7 @@
 package com.bisayapp.ui;
 
+import com.bisayapp.Diagnostics;
+
 /**
  * Error Formatter Utility
  * 
@@ -38,6 +40,31 @@ public class ErrorFormatter {
         return formatted.toString();
     }
     
+    /**
+     * Formats every lexical or syntax error of a program, each with its code context
+     */
+    public static String formatCompileErrors(Diagnostics diagnostics, String sourceCode) {
+        StringBuilder formatted = new StringBuilder();
+        formatted.append("═══════════════════════════════════════════\n");
+        formatted.append("❌ ERROR DETECTED\n");
+        formatted.append("═══════════════════════════════════════════\n\n");
+        
+        for (Diagnostics.Diagnostic error : diagnostics.errors()) {
+            formatted.append(error).append("\n");
+            String context = getCodeContext(sourceCode, error.line());
+            if (!context.isEmpty()) {
+                formatted.append(context);
+            }
+            formatted.append("\n");
+        }
+        
+        int omitted = diagnostics.count() - diagnostics.errors().size();
+        if (omitted > 0) {
+            formatted.append("... and ").append(omitted).append(" more errors\n");
+        }
+        return formatted.toString();
+    }
+    
     /**
      * Extracts line number from error message
      */
@@ -1,6 +1,7 @@
 package com.bisayapp.ui;
 
 import com.bisayapp.IOHandler;
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
 import javafx.scene.control.TextInputDialog;
 
@@ -18,45 +19,112 @@ import java.util.concurrent.ExecutionException;
  * - Displays input dialog when DAWAT is encountered
  * - Thread-safe interaction with JavaFX UI thread
  * - Graceful handling of input cancellation
- * - Output/error delegation to OutputPanel
+ * - cancel() closes a pending input dialog when the run is stopped
+ * - Output/error delegation to OutputPanel, appended at most once per frame
+ *   through a bounded OutputQueue so heavy output cannot flood the FX thread
  */
 public class GUIIOHandler implements IOHandler {
     
+    // Most text appended to the output panel in one frame
+    private static final int FRAME_CHARS = 1 << 15;
+    
     private final OutputPanel outputPanel;
-    private final StringBuilder outputBuffer;
+    private final OutputQueue queue = new OutputQueue();
+    private final AnimationTimer pump;
+    
+    private volatile boolean cancelled = false;
+    private volatile CompletableFuture<String> pendingInput;
+    private TextInputDialog inputDialog;   // open DAWAT dialog; JavaFX thread only
     
     /**
-     * Creates GUI I/O handler
+     * Creates GUI I/O handler and starts pumping its output to the panel.
+     * Must be called on the JavaFX thread.
      * 
      * @param outputPanel The output panel to write to
      */
     public GUIIOHandler(OutputPanel outputPanel) {
         this.outputPanel = outputPanel;
-        this.outputBuffer = new StringBuilder();
+        this.pump = new AnimationTimer() {
+            @Override
+            public void handle(long now) {
+                queue.drain(FRAME_CHARS, GUIIOHandler.this::show);
+            }
+        };
+        pump.start();
     }
     
     @Override
     public void writeOutput(String text) {
-        outputBuffer.append(text);
-        // Update UI on JavaFX thread
-        Platform.runLater(() -> outputPanel.appendText(text));
+        // Blocks while the panel is too far behind
+        queue.add(text, false);
     }
     
     @Override
     public void writeError(String error) {
-        // Update UI on JavaFX thread
-        Platform.runLater(() -> {
-            outputPanel.appendText("\n[ERROR] " + error + "\n");
+        queue.add("\n[ERROR] " + error + "\n", true);
+    }
+    
+    /**
+     * Appends drained text to the panel (JavaFX thread)
+     */
+    private void show(OutputQueue.Chunk chunk) {
+        outputPanel.appendText(chunk.text());
+        if (chunk.error()) {
             outputPanel.setErrorStyle();
-        });
+        }
+    }
+    
+    /**
+     * Appends everything still queued (JavaFX thread)
+     */
+    private void showPending() {
+        while (queue.drain(Integer.MAX_VALUE, this::show)) {
+            // keep going until writers have nothing left
+        }
+    }
+    
+    /**
+     * Shows the remaining output and stops the pump. Call on the JavaFX thread once the
+     * program has finished, before appending anything else to the panel.
+     */
+    public void finish() {
+        pump.stop();
+        showPending();
+    }
+    
+    /**
+     * Stops the pump without showing queued output and fails any pending DAWAT,
+     * closing its dialog. Call on the JavaFX thread when the run is stopped.
+     */
+    public void cancel() {
+        cancelled = true;
+        pump.stop();
+        CompletableFuture<String> input = pendingInput;
+        if (input != null) {
+            input.completeExceptionally(new RuntimeException("Execution stopped by user"));
+        }
+        if (inputDialog != null) {
+            inputDialog.close();
+        }
     }
     
     @Override
     public String readInput(String prompt) {
         // Must run on JavaFX thread - use CompletableFuture for synchronization
         CompletableFuture<String> future = new CompletableFuture<>();
+        pendingInput = future;
+        if (cancelled) {
+            // cancel() may have run before pendingInput was set
+            future.completeExceptionally(new RuntimeException("Execution stopped by user"));
+        }
         
         Platform.runLater(() -> {
+            if (future.isDone()) {
+                return;   // stopped before the dialog could open
+            }
+            // The prompt's preceding output should be visible before the dialog opens
+            showPending();
+            
             TextInputDialog dialog = new TextInputDialog();
             dialog.setTitle("DAWAT - Input Required");
             dialog.setHeaderText(prompt);
@@ -68,7 +136,9 @@ public class GUIIOHandler implements IOHandler {
                 "-fx-font-size: 10pt;"
             );
             
+            inputDialog = dialog;
             Optional<String> result = dialog.showAndWait();
+            inputDialog = null;
             
             if (result.isPresent()) {
                 future.complete(result.get().trim());
@@ -84,6 +154,8 @@ public class GUIIOHandler implements IOHandler {
             throw new RuntimeException("Input interrupted", e);
         } catch (ExecutionException e) {
             throw new RuntimeException("Input cancelled or failed", e.getCause());
+        } finally {
+            pendingInput = null;
         }
     }
     
@@ -94,18 +166,11 @@ public class GUIIOHandler implements IOHandler {
     }
     
     /**
-     * Gets the accumulated output buffer
+     * Whether the program wrote any output
      * 
-     * @return The complete output as a string
-     */
-    public String getOutput() {
-        return outputBuffer.toString();
-    }
-    
-    /**
-     * Clears the output buffer
+     * @return True once writeOutput has been called with non-empty text
      */
-    public void clearBuffer() {
-        outputBuffer.setLength(0);
+    public boolean hasOutput() {
+        return queue.hadOutput();
     }
 }
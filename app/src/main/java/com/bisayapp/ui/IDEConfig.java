@@ -19,6 +19,10 @@ public class IDEConfig {
     public static final String OUTPUT_FONT = "Consolas";
     public static final int OUTPUT_FONT_SIZE = 10;
     
+    // Output Configuration
+    public static final int OUTPUT_SCROLLBACK_LINES = 10_000; // oldest lines are dropped beyond this
+    public static final int OUTPUT_SCROLLBACK_CHARS = 2_000_000; // and oldest text beyond this, even within a line
+    
     // Color Scheme
     public static final String EDITOR_BG_COLOR = "#ffffff";
     public static final String EDITOR_TEXT_COLOR = "#000000";
@@ -1,12 +1,22 @@
 package com.bisayapp.ui;
 
 import com.bisayapp.Bisaya;
+import com.bisayapp.CompileException;
+import com.bisayapp.ExecutionEngine;
+import com.bisayapp.LineProfiler;
+import com.bisayapp.ProgramEvents;
+import com.bisayapp.ResourceGovernor;
+import com.bisayapp.Token;
 import javafx.scene.control.Alert;
 import javafx.scene.control.ButtonType;
 import javafx.stage.Stage;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * IDE Controller
@@ -21,6 +31,37 @@ public class IDEController {
     private final StatusBar statusBar;
     private final FileManager fileManager;
     
+    // Runs programs one at a time; starting a run first stops the one before it
+    private final ExecutorService executor = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "Bisaya-Execution-Thread");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private ProgramRun currentRun;   // JavaFX thread only
+    
+    /**
+     * A program run and what it takes to stop it
+     */
+    private static final class ProgramRun {
+        final GUIIOHandler ioHandler;
+        final ResourceGovernor governor = ResourceGovernor.unlimited();
+        Future<?> task;
+        
+        ProgramRun(GUIIOHandler ioHandler) {
+            this.ioHandler = ioHandler;
+        }
+        
+        /**
+         * Stops the interpreter at its next loop back-edge, fails a pending DAWAT and
+         * interrupts blocking I/O
+         */
+        void cancel() {
+            governor.cancel();
+            ioHandler.cancel();
+            task.cancel(true);
+        }
+    }
+    
     public IDEController(Stage stage, EditorPanel editorPanel, OutputPanel outputPanel, StatusBar statusBar) {
         this.stage = stage;
         this.editorPanel = editorPanel;
@@ -192,6 +233,18 @@ public class IDEController {
      * Runs the Bisaya++ program with threading and DAWAT support
      */
     public void runProgram() {
+        runProgram(null);
+    }
+    
+    /**
+     * Runs the program with the line profiler and appends the hot-line report to the output
+     */
+    public void profileProgram() {
+        runProgram(new LineProfiler());
+    }
+    
+    private void runProgram(LineProfiler profiler) {
+        cancelRun();
         String code = editorPanel.getCode();
         
         if (code.trim().isEmpty()) {
@@ -202,26 +255,36 @@ public class IDEController {
         }
         
         // Update status
-        statusBar.setStatus("Running program...");
+        statusBar.setStatus(profiler != null ? "Profiling program..." : "Running program...");
         
         // Clear previous output
         outputPanel.clear();
         
         // Create GUI I/O handler for interactive input support
         GUIIOHandler ioHandler = new GUIIOHandler(outputPanel);
+        ProgramRun run = new ProgramRun(ioHandler);
+        currentRun = run;
+        
+        // Version of the code being run, so the highlighter's tokens and parse can be reused
+        DocumentAnalysis analysis = editorPanel.getAnalysis();
+        long version = analysis.version();
         
-        // Run in background thread to keep UI responsive
-        Thread executionThread = new Thread(() -> {
+        // Run on the execution thread to keep UI responsive
+        run.task = executor.submit(() -> {
             try {
-                // Run interpreter with GUI I/O handler
-                Bisaya.runSource(code, ioHandler);
+                // Parse (or reuse the cached parse), then run with GUI I/O handler
+                ProgramEvents.setProgramId(ProgramEvents.idForSource(code));
+                Bisaya.runProgram(analysis.analyze(version, code).program(), ioHandler,
+                                  ExecutionEngine.TREE_WALKER, run.governor, profiler);
                 
-                // Update UI on JavaFX thread
+                // Update UI on JavaFX thread, unless the run was stopped meanwhile
                 javafx.application.Platform.runLater(() -> {
-                    String output = ioHandler.getOutput();
-                    if (output.isEmpty()) {
+                    if (!finishRun(run)) return;
+                    ioHandler.finish();
+                    if (!ioHandler.hasOutput()) {
                         outputPanel.appendText("\n" + ErrorFormatter.formatSuccess("(Program completed with no output)"));
                     }
+                    appendProfile(profiler, code);
                     outputPanel.setNormalStyle();
                     statusBar.setStatus("✓ Execution completed successfully");
                 });
@@ -229,27 +292,67 @@ public class IDEController {
             } catch (Exception e) {
                 // Update UI on JavaFX thread
                 javafx.application.Platform.runLater(() -> {
+                    if (!finishRun(run)) return;
+                    // Show any output that was generated before the error
+                    ioHandler.finish();
                     outputPanel.setErrorStyle();
                     
-                    // Get any output that was generated before the error
-                    String output = ioHandler.getOutput();
-                    
-                    String formattedError;
-                    if (!output.isEmpty()) {
-                        formattedError = ErrorFormatter.formatError(e.getMessage(), code);
-                    } else {
-                        formattedError = ErrorFormatter.formatError(e.getMessage(), code);
-                    }
-                    
+                    String formattedError = e instanceof CompileException compileError
+                        ? ErrorFormatter.formatCompileErrors(compileError.diagnostics(), code)
+                        : ErrorFormatter.formatError(e.getMessage(), code);
                     outputPanel.appendText("\n" + formattedError);
+                    appendProfile(profiler, code);
                     statusBar.setStatus("✗ Execution failed");
                 });
             }
         });
-        
-        executionThread.setDaemon(true);
-        executionThread.setName("Bisaya-Execution-Thread");
-        executionThread.start();
+    }
+    
+    /**
+     * Stops the running program, keeping the output it produced so far
+     */
+    public void stopProgram() {
+        ProgramRun run = currentRun;
+        if (run == null) {
+            statusBar.setStatus("No program is running");
+            return;
+        }
+        cancelRun();
+        run.ioHandler.finish();
+        outputPanel.setWarningStyle();
+        outputPanel.appendText("\n■ Execution stopped by user.\n");
+        statusBar.setStatus("■ Execution stopped");
+    }
+    
+    /**
+     * Stops the current run, if any; its results are no longer shown
+     */
+    private void cancelRun() {
+        if (currentRun != null) {
+            currentRun.cancel();
+            currentRun = null;
+        }
+    }
+    
+    /**
+     * Called when a run's thread is done
+     * @return Whether the run is still current and its results should be shown
+     */
+    private boolean finishRun(ProgramRun run) {
+        if (currentRun != run) {
+            return false;
+        }
+        currentRun = null;
+        return true;
+    }
+    
+    /**
+     * Appends the profiler's hot-line report, if the run was profiled
+     */
+    private void appendProfile(LineProfiler profiler, String code) {
+        if (profiler != null) {
+            outputPanel.appendText("\n\n" + profiler.report(code, Bisaya.PROFILE_REPORT_LINES));
+        }
     }
     
     /**
@@ -286,8 +389,9 @@ public class IDEController {
                 int originalSelStart = selStart;
                 int originalSelEnd = selEnd;
                 
-                // Format the selection
-                formattedCode = PrettyPrinter.formatSelection(originalCode, selStart, selEnd);
+                // Format the selection, reusing the tokens of the current text
+                List<Token> tokens = editorPanel.getAnalysis().current(originalCode).tokens();
+                formattedCode = PrettyPrinter.formatSelection(originalCode, tokens, selStart, selEnd);
                 
                 // Check if code actually changed
                 if (formattedCode.equals(originalCode)) {
@@ -313,8 +417,9 @@ public class IDEController {
                     ? (double) caretPos / originalCode.length() 
                     : 0.0;
                 
-                // Format the code
-                formattedCode = PrettyPrinter.format(originalCode);
+                // Format the code, reusing the tokens of the current text
+                List<Token> tokens = editorPanel.getAnalysis().current(originalCode).tokens();
+                formattedCode = PrettyPrinter.format(originalCode, tokens);
                 
                 // Check if code actually changed
                 if (formattedCode.equals(originalCode)) {
@@ -447,6 +552,7 @@ public class IDEController {
             
             RUNNING:
             • Ctrl+R - Run Program
+            • Ctrl+Shift+R - Profile Program
             • F5 - Reload File
             • Ctrl+L - Clear Output
             
@@ -0,0 +1,299 @@
+package com.bisayapp.ui;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.IntFunction;
+
+/**
+ * Line-by-line highlighting lexer for the editor
+ *
+ * Scans one line at a time, following the Lexer's token rules, and turns each line
+ * into runs of CSS style classes. The only state carried from one line to the next
+ * is whether a double-quoted string is still open (strings may span lines), and
+ * that state is remembered for the start of every line. After an edit only the
+ * touched lines are rescanned; scanning then continues past them just until a
+ * line ends in the same state as before, since everything below is unchanged.
+ *
+ * Has no JavaFX dependency: SyntaxHighlighter feeds it edits and applies the
+ * resulting runs to the CodeArea. Edits, pass() and commit() are confined to one
+ * thread; the Pass a snapshot returns may run on any other.
+ */
+class IncrementalLexer {
+
+    // CSS style classes for different token types
+    static final String KEYWORD_CLASS = "keyword";       // Control flow (KUNG, SAMTANG, ALANG, etc.)
+    static final String BUILTIN_CLASS = "builtin";       // Built-in functions (IPAKITA, DAWAT, MUGNA)
+    static final String DATATYPE_CLASS = "datatype";     // Data types (NUMERO, LETRA, TINUOD, TIPIK)
+    static final String STRUCTURE_CLASS = "structure";   // Program structure (SUGOD, KATAPUSAN)
+    static final String STRING_CLASS = "string";
+    static final String NUMBER_CLASS = "number";
+    static final String COMMENT_CLASS = "comment";
+    static final String OPERATOR_CLASS = "operator";
+
+    private static final Map<String, String> KEYWORD_STYLES = new HashMap<>();
+    static {
+        for (String word : List.of("SUGOD", "KATAPUSAN")) KEYWORD_STYLES.put(word, STRUCTURE_CLASS);
+        for (String word : List.of("IPAKITA", "DAWAT", "MUGNA")) KEYWORD_STYLES.put(word, BUILTIN_CLASS);
+        for (String word : List.of("NUMERO", "LETRA", "TINUOD", "TIPIK")) KEYWORD_STYLES.put(word, DATATYPE_CLASS);
+        for (String word : List.of("KUNG", "WALA", "DILI", "PUNDOK", "ALANG", "SA", "SAMTANG", "UG", "O")) {
+            KEYWORD_STYLES.put(word, KEYWORD_CLASS);
+        }
+    }
+
+    private static final String OPERATOR_CHARS = "+-*/%=<>!&|(){}[]:,;";
+
+    // Line entry states
+    private static final byte IN_CODE = 0;
+    private static final byte IN_STRING = 1;
+
+    /** A run of characters with one style class; style is null for unstyled text */
+    record Span(String style, int length) {}
+
+    /**
+     * Lines restyled by a pass: spans.get(i) covers line firstLine + i, without its newline,
+     * and nextStates[i] is the state at the start of the line after it
+     */
+    record Restyle(int firstLine, List<List<Span>> spans, byte[] nextStates) {}
+
+    // entryStates[i] is the state at the start of line i, for lineCount lines
+    private byte[] entryStates = new byte[64];
+    private int lineCount = 1;
+
+    // Lines [dirtyStart, dirtyEnd) must be rescanned; empty when dirtyStart >= dirtyEnd
+    private int dirtyStart = 0, dirtyEnd = 1;
+
+    /**
+     * Forgets all line states, e.g. when the whole document was replaced
+     * @param lines Number of lines in the document
+     */
+    void reset(int lines) {
+        lineCount = Math.max(lines, 1);
+        entryStates = new byte[Math.max(64, lineCount)];
+        dirtyStart = 0;
+        dirtyEnd = lineCount;
+    }
+
+    /**
+     * Records an edit
+     *
+     * @param line Line the edit starts on
+     * @param removedNewlines Line breaks in the removed text
+     * @param insertedNewlines Line breaks in the inserted text
+     */
+    void edited(int line, int removedNewlines, int insertedNewlines) {
+        int delta = insertedNewlines - removedNewlines;
+        if (delta != 0) {
+            int tailFrom = line + 1 + removedNewlines;
+            int tail = lineCount - tailFrom;
+            if (lineCount + delta > entryStates.length) {
+                entryStates = Arrays.copyOf(entryStates, Math.max(entryStates.length * 2, lineCount + delta));
+            }
+            System.arraycopy(entryStates, tailFrom, entryStates, tailFrom + delta, tail);
+            lineCount += delta;
+        }
+
+        // Move the pending dirty range to the new line numbers, then add the edited lines
+        int start = shift(dirtyStart, line, removedNewlines, delta);
+        int end = shift(dirtyEnd, line, removedNewlines, delta);
+        int editEnd = line + insertedNewlines + 1;
+        if (start >= end) {
+            dirtyStart = line;
+            dirtyEnd = editEnd;
+        } else {
+            dirtyStart = Math.min(start, line);
+            dirtyEnd = Math.max(end, editEnd);
+        }
+        dirtyEnd = Math.min(dirtyEnd, lineCount);
+    }
+
+    /** Where line x ends up after removedNewlines lines below line are replaced by delta more */
+    private static int shift(int x, int line, int removedNewlines, int delta) {
+        if (x <= line) return x;
+        if (x > line + removedNewlines) return x + delta;
+        return line + 1;
+    }
+
+    /** @return Number of lines the lexer believes the document has */
+    int lineCount() {
+        return lineCount;
+    }
+
+    /** @return Whether there are edited lines to restyle */
+    boolean isDirty() {
+        return dirtyStart < dirtyEnd;
+    }
+
+    /**
+     * Rescans the edited lines, and the lines below them until the string state matches
+     * what it was before the edits
+     *
+     * @param lines Text of each line of the current document, without its line break
+     * @return The restyled lines, or null if nothing was dirty
+     */
+    Restyle restyle(IntFunction<String> lines) {
+        Pass pass = pass();
+        if (pass == null) return null;
+        Restyle restyle = pass.run(lines);
+        commit(restyle);
+        return restyle;
+    }
+
+    /**
+     * Snapshots what the next restyle needs, so it can run on another thread. Nothing
+     * changes here until its result is passed to commit(); a pass that is cancelled or
+     * whose result is dropped leaves the edited lines dirty for the next one.
+     *
+     * @return The pass, or null if nothing is dirty
+     */
+    Pass pass() {
+        if (!isDirty()) return null;
+        return new Pass(Arrays.copyOf(entryStates, lineCount), dirtyStart, dirtyEnd);
+    }
+
+    /**
+     * Records the line states a pass computed. Only valid if there were no edits or
+     * resets since its pass() snapshot.
+     */
+    void commit(Restyle restyle) {
+        for (int i = 0; i < restyle.nextStates().length; i++) {
+            int line = restyle.firstLine() + i + 1;
+            if (line < lineCount) entryStates[line] = restyle.nextStates()[i];
+        }
+        dirtyStart = dirtyEnd = 0;
+    }
+
+    /**
+     * One restyle, working on its own copy of the line states
+     */
+    static final class Pass {
+        private final byte[] entryStates;
+        private final int dirtyStart, dirtyEnd;
+
+        private Pass(byte[] entryStates, int dirtyStart, int dirtyEnd) {
+            this.entryStates = entryStates;
+            this.dirtyStart = dirtyStart;
+            this.dirtyEnd = dirtyEnd;
+        }
+
+        /**
+         * Scans from the first edited line until past the edits and resynchronized
+         *
+         * @param lines Text of each line of the document as of pass(), without its line break
+         * @return The restyled lines, or null if the thread was interrupted
+         */
+        Restyle run(IntFunction<String> lines) {
+            int lineCount = entryStates.length;
+            List<List<Span>> spans = new ArrayList<>();
+            byte[] nextStates = new byte[16];
+            byte state = entryStates[dirtyStart];
+            int line = dirtyStart;
+            while (true) {
+                if (Thread.currentThread().isInterrupted()) return null;
+                List<Span> runs = new ArrayList<>();
+                state = scanLine(lines.apply(line), state, runs);
+                if (spans.size() == nextStates.length) nextStates = Arrays.copyOf(nextStates, nextStates.length * 2);
+                nextStates[spans.size()] = state;
+                spans.add(runs);
+                line++;
+                if (line >= lineCount) break;
+                if (line >= dirtyEnd && entryStates[line] == state) break;   // resynchronized
+            }
+            return new Restyle(dirtyStart, spans, Arrays.copyOf(nextStates, spans.size()));
+        }
+    }
+
+    /**
+     * Styles one line
+     *
+     * @param text Line text without its line break
+     * @param state State at the start of the line
+     * @param runs Receives the style runs covering the whole line
+     * @return State at the start of the next line
+     */
+    static byte scanLine(String text, byte state, List<Span> runs) {
+        int n = text.length();
+        int i = 0;
+        if (state == IN_STRING) {
+            int close = text.indexOf('"');
+            if (close < 0) {
+                add(runs, STRING_CLASS, n);
+                return IN_STRING;
+            }
+            i = close + 1;
+            add(runs, STRING_CLASS, i);
+        }
+        while (i < n) {
+            char c = text.charAt(i);
+            int start = i;
+            if (c == '@' && i + 1 < n && text.charAt(i + 1) == '@') {
+                add(runs, COMMENT_CLASS, n - i);               // @@ comment to end of line
+                return IN_CODE;
+            } else if (c == '"') {
+                int close = text.indexOf('"', i + 1);
+                if (close < 0) {
+                    add(runs, STRING_CLASS, n - i);            // string continues on the next line
+                    return IN_STRING;
+                }
+                i = close + 1;
+                add(runs, STRING_CLASS, i - start);
+            } else if (c == '\'') {
+                int close = text.indexOf('\'', i + 1);         // character literals stay on one line
+                i = close < 0 ? n : close + 1;
+                add(runs, STRING_CLASS, i - start);
+            } else if (isDigit(c)) {
+                i = numberEnd(text, i);
+                add(runs, NUMBER_CLASS, i - start);
+            } else if (isWordChar(c)) {
+                while (i < n && isWordChar(text.charAt(i))) i++;
+                add(runs, KEYWORD_STYLES.get(text.substring(start, i)), i - start);
+            } else {
+                i++;
+                add(runs, OPERATOR_CHARS.indexOf(c) >= 0 ? OPERATOR_CLASS : null, 1);
+            }
+        }
+        return IN_CODE;
+    }
+
+    /** End of the number starting at start: digits, an optional fraction and exponent, as the Lexer reads them */
+    private static int numberEnd(String text, int start) {
+        int n = text.length();
+        int i = start;
+        while (i < n && isDigit(text.charAt(i))) i++;
+        if (i + 1 < n && text.charAt(i) == '.' && isDigit(text.charAt(i + 1))) {
+            i++;
+            while (i < n && isDigit(text.charAt(i))) i++;
+        }
+        if (i < n && (text.charAt(i) == 'E' || text.charAt(i) == 'e')) {
+            int j = i + 1;
+            if (j < n && (text.charAt(j) == '+' || text.charAt(j) == '-')) j++;
+            if (j < n && isDigit(text.charAt(j))) {
+                while (j < n && isDigit(text.charAt(j))) j++;
+                i = j;
+            }
+        }
+        return i;
+    }
+
+    /** Appends a run, merging it into the previous run when the style is the same */
+    private static void add(List<Span> runs, String style, int length) {
+        if (length == 0) return;
+        int last = runs.size() - 1;
+        if (last >= 0 && Objects.equals(runs.get(last).style(), style)) {
+            runs.set(last, new Span(style, runs.get(last).length() + length));
+        } else {
+            runs.add(new Span(style, length));
+        }
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static boolean isWordChar(char c) {
+        return (c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z') || c == '_' || isDigit(c);
+    }
+}
@@ -154,6 +154,14 @@ public class MenuBarBuilder {
         runItem.setAccelerator(new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN));
         runItem.setOnAction(e -> controller.runProgram());
         
+        MenuItem profileItem = new MenuItem("Profile Program");
+        profileItem.setAccelerator(new KeyCodeCombination(KeyCode.R, KeyCombination.CONTROL_DOWN, KeyCombination.SHIFT_DOWN));
+        profileItem.setOnAction(e -> controller.profileProgram());
+        
+        MenuItem stopItem = new MenuItem("Stop Program");
+        stopItem.setAccelerator(new KeyCodeCombination(KeyCode.F5, KeyCombination.SHIFT_DOWN));
+        stopItem.setOnAction(e -> controller.stopProgram());
+        
         MenuItem reloadItem = new MenuItem("Reload File");
         reloadItem.setAccelerator(new KeyCodeCombination(KeyCode.F5));
         reloadItem.setOnAction(e -> controller.reloadFile());
@@ -162,7 +170,7 @@ public class MenuBarBuilder {
         clearItem.setAccelerator(new KeyCodeCombination(KeyCode.L, KeyCombination.CONTROL_DOWN));
         clearItem.setOnAction(e -> controller.clearOutput());
         
-        runMenu.getItems().addAll(runItem, reloadItem, new SeparatorMenuItem(), clearItem);
+        runMenu.getItems().addAll(runItem, profileItem, stopItem, reloadItem, new SeparatorMenuItem(), clearItem);
         
         return runMenu;
     }
@@ -7,6 +7,8 @@ import javafx.scene.layout.Priority;
 import javafx.scene.layout.VBox;
 import javafx.scene.text.Font;
 import org.fxmisc.richtext.StyleClassedTextArea;
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
+import org.fxmisc.richtext.model.TwoDimensional.Position;
 
 import java.util.Collections;
 import java.util.regex.Matcher;
@@ -24,8 +26,19 @@ public class OutputPanel extends VBox {
     private EditorPanel editorPanel; // Reference to jump to lines
     private OutputStyle currentStyle = OutputStyle.NORMAL;
     
+    // Most paragraphs kept; older ones are removed from the top
+    private int scrollbackLimit = IDEConfig.OUTPUT_SCROLLBACK_LINES;
+    private int scrollbackChars = IDEConfig.OUTPUT_SCROLLBACK_CHARS;
+    
+    // First paragraph not yet checked for error line numbers. The last paragraph
+    // may still grow, so it is checked again after the next append, from scannedColumn on
+    private int unscannedParagraph = 0;
+    private int scannedColumn = 0;
+    
     // Pattern to detect line numbers in error messages
     private static final Pattern LINE_NUMBER_PATTERN = Pattern.compile("→\\s*(\\d+)\\s*\\|");
+    // Start of a line number reference that the next append may complete
+    private static final Pattern PARTIAL_LINE_NUMBER = Pattern.compile("→\\s*(\\d+\\s*)?");
     
     private enum OutputStyle {
         NORMAL, ERROR, WARNING
@@ -117,13 +130,34 @@ public class OutputPanel extends VBox {
         return outputArea;
     }
     
+    /**
+     * Sets how many lines of output are kept
+     * 
+     * @param lines Maximum number of lines; older output is dropped first
+     */
+    public void setScrollbackLimit(int lines) {
+        scrollbackLimit = Math.max(lines, 1);
+        trimScrollback();
+    }
+    
+    /**
+     * Sets how many characters of output are kept, so one long line cannot grow without bound
+     * 
+     * @param chars Maximum number of characters; the oldest are dropped first
+     */
+    public void setScrollbackChars(int chars) {
+        scrollbackChars = Math.max(chars, 1);
+        trimScrollback();
+    }
+    
     /**
      * Sets the output text with proper color styling
      */
     public void setText(String text) {
         outputArea.clear();
-        appendStyledText(text);
-        highlightErrorLines();
+        unscannedParagraph = 0;
+        scannedColumn = 0;
+        appendText(text);
     }
     
     /**
@@ -132,6 +166,7 @@ public class OutputPanel extends VBox {
     public void appendText(String text) {
         appendStyledText(text);
         highlightErrorLines();
+        trimScrollback();
     }
     
     /**
@@ -154,22 +189,63 @@ public class OutputPanel extends VBox {
      */
     public void clear() {
         outputArea.clear();
+        unscannedParagraph = 0;
+        scannedColumn = 0;
         currentStyle = OutputStyle.NORMAL;
     }
     
     /**
-     * Highlights error lines in the output
+     * Highlights error lines in the paragraphs appended since the last scan
      */
     private void highlightErrorLines() {
-        String fullText = outputArea.getText();
-        String[] lines = fullText.split("\n");
-        
-        for (int i = 0; i < lines.length; i++) {
-            if (LINE_NUMBER_PATTERN.matcher(lines[i]).find()) {
+        int paragraphs = outputArea.getParagraphs().size();
+        for (int i = unscannedParagraph; i < paragraphs; i++) {
+            int from = i == unscannedParagraph ? scannedColumn : 0;
+            int length = outputArea.getParagraphLength(i);
+            String text = outputArea.getText(i, from, i, length);
+            if (LINE_NUMBER_PATTERN.matcher(text).find()) {
                 // Mark this line as clickable
                 outputArea.setParagraphStyle(i, Collections.singletonList("error-line"));
+                scannedColumn = length;
+            } else {
+                scannedColumn = from + resumeColumn(text);
             }
         }
+        unscannedParagraph = paragraphs - 1;
+    }
+    
+    /**
+     * @return Where to continue scanning text without a match once more is appended:
+     *         at its last '→' if everything after it may still become a match, else its end
+     */
+    private static int resumeColumn(String text) {
+        int arrow = text.lastIndexOf('→');
+        if (arrow >= 0 && PARTIAL_LINE_NUMBER.matcher(text).region(arrow, text.length()).matches()) {
+            return arrow;
+        }
+        return text.length();
+    }
+    
+    /**
+     * Removes the oldest paragraphs beyond the line limit, then the oldest characters
+     * beyond the character limit, which may cut into the first remaining paragraph
+     */
+    private void trimScrollback() {
+        int excess = outputArea.getParagraphs().size() - scrollbackLimit;
+        int end = excess > 0 ? outputArea.getAbsolutePosition(excess, 0) : 0;
+        end = Math.max(end, outputArea.getLength() - scrollbackChars);
+        if (end <= 0) {
+            return;
+        }
+        int paragraphs = outputArea.getParagraphs().size();
+        Position cut = outputArea.offsetToPosition(end, Bias.Forward);
+        outputArea.deleteText(0, end);
+        int removed = paragraphs - outputArea.getParagraphs().size();
+        if (cut.getMajor() == unscannedParagraph) {
+            // The cut went into the paragraph being scanned, so its columns moved
+            scannedColumn = Math.max(scannedColumn - cut.getMinor(), 0);
+        }
+        unscannedParagraph = Math.max(unscannedParagraph - removed, 0);
     }
     
     /**
@@ -0,0 +1,126 @@
+package com.bisayapp.ui;
+
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Consumer;
+
+/**
+ * Bounded hand-off of program output from the interpreter thread to the FX thread
+ *
+ * The interpreter adds chunks without taking a lock; the FX thread drains them once per
+ * frame and appends each run of output in one batch. When more than the limit is waiting,
+ * writers park until the UI catches up, so a program printing in a tight loop slows to
+ * the speed the output panel can show it instead of filling the event queue and memory.
+ *
+ * Has no JavaFX dependency: GUIIOHandler drives drain() from an AnimationTimer.
+ */
+class OutputQueue {
+
+    static final int DEFAULT_LIMIT = 1 << 18;   // characters waiting before writers block
+
+    // Longest a blocked writer sleeps before checking again, in case a wake-up was missed
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /** Text to append; error chunks switch the panel to the error style after them */
+    record Chunk(String text, boolean error) {}
+
+    private final ConcurrentLinkedQueue<Chunk> chunks = new ConcurrentLinkedQueue<>();
+    private final AtomicLong pending = new AtomicLong();
+    private final int limit;
+
+    private volatile Thread waiter;
+    private volatile boolean hadOutput = false;
+
+    OutputQueue() {
+        this(DEFAULT_LIMIT);
+    }
+
+    OutputQueue(int limit) {
+        this.limit = Math.max(limit, 1);
+    }
+
+    /**
+     * Queues text, first waiting while the queue is over its limit
+     *
+     * @param text Text to append
+     * @param error Whether this is an error message rather than program output
+     * @throws RuntimeException if the writer is interrupted while waiting
+     */
+    void add(String text, boolean error) {
+        if (text.isEmpty()) {
+            return;
+        }
+        awaitRoom();
+        chunks.add(new Chunk(text, error));
+        pending.addAndGet(text.length());
+        if (!error) {
+            hadOutput = true;
+        }
+    }
+
+    private void awaitRoom() {
+        if (pending.get() < limit) {
+            return;
+        }
+        waiter = Thread.currentThread();
+        try {
+            // Re-check after registering, so a drain in between cannot be missed
+            while (pending.get() >= limit) {
+                if (Thread.interrupted()) {
+                    Thread.currentThread().interrupt();
+                    throw new RuntimeException("Output interrupted");
+                }
+                LockSupport.parkNanos(this, MAX_PARK_NANOS);
+            }
+        } finally {
+            waiter = null;
+        }
+    }
+
+    /**
+     * Removes up to about maxChars characters of queued text. Consecutive chunks of the
+     * same kind are joined, so the sink sees one string per run of output or errors.
+     *
+     * @param maxChars Budget for this call; at least one chunk is taken if any is queued
+     * @param sink Receives the joined chunks in order
+     * @return Whether anything was drained
+     */
+    boolean drain(int maxChars, Consumer<Chunk> sink) {
+        StringBuilder run = new StringBuilder();
+        boolean runIsError = false;
+        int taken = 0;
+        Chunk chunk;
+        while (taken < maxChars && (chunk = chunks.poll()) != null) {
+            if (run.length() > 0 && chunk.error() != runIsError) {
+                sink.accept(new Chunk(run.toString(), runIsError));
+                run.setLength(0);
+            }
+            runIsError = chunk.error();
+            run.append(chunk.text());
+            taken += chunk.text().length();
+        }
+        if (taken == 0) {
+            return false;
+        }
+        sink.accept(new Chunk(run.toString(), runIsError));
+
+        pending.addAndGet(-taken);
+        Thread blocked = waiter;
+        if (blocked != null) {
+            LockSupport.unpark(blocked);
+        }
+        return true;
+    }
+
+    /** @return Whether any program output (not errors) was ever added */
+    boolean hadOutput() {
+        return hadOutput;
+    }
+
+    /** @return Characters queued but not yet drained */
+    long pending() {
+        return pending.get();
+    }
+}
@@ -22,6 +22,7 @@ import java.util.List;
  * 
  * Usage:
  *   String formatted = PrettyPrinter.format(sourceCode);
+ *   String formatted = PrettyPrinter.format(sourceCode, tokens);   // tokens already lexed
  */
 public class PrettyPrinter {
     
@@ -45,7 +46,7 @@ public class PrettyPrinter {
             List<Token> tokens = lexer.scanTokens();
             
             // Step 2: Format using tokens
-            return formatWithTokens(tokens, sourceCode);
+            return formatWithTokens(tokens, sourceCode, 1);
             
         } catch (Exception e) {
             // On error, return original code unchanged
@@ -54,6 +55,27 @@ public class PrettyPrinter {
         }
     }
     
+    /**
+     * Formats Bisaya++ source code that has already been tokenized, e.g. by DocumentAnalysis
+     * 
+     * @param sourceCode The raw source code to format
+     * @param tokens Tokens of sourceCode
+     * @return Formatted code with proper indentation and spacing
+     */
+    public static String format(String sourceCode, List<Token> tokens) {
+        if (sourceCode == null || sourceCode.trim().isEmpty()) {
+            return sourceCode;
+        }
+        
+        try {
+            return formatWithTokens(tokens, sourceCode, 1);
+        } catch (Exception e) {
+            // On error, return original code unchanged
+            System.err.println("Pretty printer error: " + e.getMessage());
+            return sourceCode;
+        }
+    }
+    
     /**
      * Formats only selected lines of code
      * 
@@ -63,6 +85,19 @@ public class PrettyPrinter {
      * @return Formatted code with only selected lines reformatted
      */
     public static String formatSelection(String fullCode, int selectionStart, int selectionEnd) {
+        return formatSelection(fullCode, null, selectionStart, selectionEnd);
+    }
+    
+    /**
+     * Formats only selected lines of code that has already been tokenized
+     * 
+     * @param fullCode The complete source code
+     * @param tokens Tokens of fullCode, or null to tokenize the selected lines here
+     * @param selectionStart Start position of selection
+     * @param selectionEnd End position of selection
+     * @return Formatted code with only selected lines reformatted
+     */
+    public static String formatSelection(String fullCode, List<Token> tokens, int selectionStart, int selectionEnd) {
         if (fullCode == null || fullCode.isEmpty() || selectionStart >= selectionEnd) {
             return fullCode;
         }
@@ -99,7 +134,14 @@ public class PrettyPrinter {
             }
             
             // Format only the selected portion
-            String formatted = format(selectedText.toString());
+            String formatted;
+            if (tokens == null) {
+                formatted = format(selectedText.toString());
+            } else if (selectedText.toString().trim().isEmpty()) {
+                formatted = selectedText.toString();
+            } else {
+                formatted = formatWithTokens(tokens, selectedText.toString(), startLine + 1);
+            }
             
             // Reconstruct the full code with formatted selection
             StringBuilder result = new StringBuilder();
@@ -133,8 +175,10 @@ public class PrettyPrinter {
     
     /**
      * Formats code using token information
+     * 
+     * @param firstLine Line number the tokens give the first line of sourceCode
      */
-    private static String formatWithTokens(List<Token> tokens, String sourceCode) {
+    private static String formatWithTokens(List<Token> tokens, String sourceCode, int firstLine) {
         StringBuilder formatted = new StringBuilder();
         String[] lines = sourceCode.split("\n", -1);
         
@@ -162,7 +206,7 @@ public class PrettyPrinter {
             }
             
             // Get tokens for this line
-            List<Token> lineTokens = getTokensForLine(tokens, lineNum + 1);
+            List<Token> lineTokens = getTokensForLine(tokens, lineNum + firstLine);
             
             // Check special structure keywords that affect indentation
             boolean hasSUGOD = lineContainsToken(lineTokens, TokenType.SUGOD);
@@ -250,7 +294,7 @@ public class PrettyPrinter {
         
         // Handle comment-only lines specially
         if (tokens.size() == 1 && isComment(tokens.get(0))) {
-            line.append(tokens.get(0).lexeme.trim());
+            line.append(tokens.get(0).lexeme().trim());
             return line.toString();
         }
         
@@ -265,7 +309,7 @@ public class PrettyPrinter {
             }
             
             // Add the token itself
-            line.append(current.lexeme);
+            line.append(current.lexeme());
         }
         
         // Add inline comment if it existed
@@ -397,7 +441,7 @@ public class PrettyPrinter {
      */
     private static boolean isComment(Token token) {
         // Comments are detected by lexeme starting with @@
-        return token.lexeme != null && token.lexeme.trim().startsWith("@@");
+        return token.lexeme() != null && token.lexeme().trim().startsWith("@@");
     }
     
     /**
@@ -1,38 +1,61 @@
 package com.bisayapp.ui;
 
-import com.bisayapp.Lexer;
-import com.bisayapp.Token;
-import com.bisayapp.TokenType;
 import javafx.application.Platform;
 import org.fxmisc.richtext.CodeArea;
+import org.fxmisc.richtext.model.Paragraph;
+import org.fxmisc.richtext.model.PlainTextChange;
 import org.fxmisc.richtext.model.StyleSpans;
 import org.fxmisc.richtext.model.StyleSpansBuilder;
+import org.fxmisc.richtext.model.TwoDimensional.Bias;
 
 import java.time.Duration;
 import java.util.*;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Syntax Highlighter for Bisaya++ Code
  * 
- * Integrates with Lexer to recognize tokens and apply color highlighting
+ * Uses IncrementalLexer to recognize tokens line by line and apply color highlighting,
+ * so an edit restyles only the paragraphs it affects rather than the whole document
+ * Lexing runs on a background thread; only applying the styles happens on the FX thread
+ * After each pass the text is analyzed into the shared DocumentAnalysis for Run and Format,
+ * on a separate low-priority thread so a whole-document parse never delays restyling
  * Uses RichTextFX CodeArea for multi-color text rendering
  */
 public class SyntaxHighlighter {
     
     private final CodeArea codeArea;
+    private final DocumentAnalysis analysis;
     
-    // CSS style classes for different token types
-    private static final String KEYWORD_CLASS = "keyword";       // Control flow (KUNG, SAMTANG, ALANG, etc.)
-    private static final String BUILTIN_CLASS = "builtin";       // Built-in functions (IPAKITA, DAWAT, MUGNA)
-    private static final String DATATYPE_CLASS = "datatype";     // Data types (NUMERO, LETRA, TINUOD, TIPIK)
-    private static final String STRUCTURE_CLASS = "structure";   // Program structure (SUGOD, KATAPUSAN)
-    private static final String STRING_CLASS = "string";
-    private static final String NUMBER_CLASS = "number";
-    private static final String COMMENT_CLASS = "comment";
-    private static final String OPERATOR_CLASS = "operator";
+    // Per-line lexer state; tracks which paragraphs edits have touched since the last pass.
+    // Only used on the FX thread; passes run on snapshots of it
+    private final IncrementalLexer lexer = new IncrementalLexer();
     
-    public SyntaxHighlighter(CodeArea codeArea) {
+    // Single background thread that lexes and builds style spans
+    private final ExecutorService worker = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "syntax-highlighter");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Future<?> pendingPass;
+    
+    // Lexes and parses the document ahead of Run and Format; a newer edit drops a queued request
+    private final ExecutorService analyzer = Executors.newSingleThreadExecutor(task -> {
+        Thread thread = new Thread(task, "document-analysis");
+        thread.setDaemon(true);
+        thread.setPriority(Thread.MIN_PRIORITY);
+        return thread;
+    });
+    private Future<?> pendingPrefetch;
+    
+    // Bumped on every edit and lexer reset; a finished pass is applied only if it still matches
+    private long version = 0;
+    
+    public SyntaxHighlighter(CodeArea codeArea, DocumentAnalysis analysis) {
         this.codeArea = codeArea;
+        this.analysis = analysis;
         setupStylesheet();
         setupListener();
         setupCurrentLineHighlight();
@@ -72,12 +95,47 @@ public class SyntaxHighlighter {
      * Sets up text change listener with debouncing
      */
     private void setupListener() {
+        // Record every edit as it happens, so the debounced pass knows which lines changed
+        codeArea.multiPlainChanges()
+            .subscribe(this::recordChanges);
         // Use RichTextFX's multiPlainChanges for efficient highlighting
         codeArea.multiPlainChanges()
             .successionEnds(Duration.ofMillis(300))
             .subscribe(ignore -> highlightSyntax());
     }
     
+    /**
+     * Tells the lexer which lines a change touched
+     */
+    private void recordChanges(List<PlainTextChange> changes) {
+        version++;
+        if (changes.size() != 1) {
+            // Positions in a multi-change refer to intermediate documents; just rescan everything
+            resetLexer();
+            return;
+        }
+        PlainTextChange change = changes.get(0);
+        // Text before the change position is unchanged, so its line is the same in the new document
+        int line = codeArea.offsetToPosition(change.getPosition(), Bias.Forward).getMajor();
+        lexer.edited(line, countNewlines(change.getRemoved()), countNewlines(change.getInserted()));
+    }
+    
+    /**
+     * Marks every line for restyling
+     */
+    private void resetLexer() {
+        version++;
+        lexer.reset(codeArea.getParagraphs().size());
+    }
+    
+    private static int countNewlines(String text) {
+        int count = 0;
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) == '\n') count++;
+        }
+        return count;
+    }
+    
     /**
      * Sets up current line highlighting
      */
@@ -112,333 +170,122 @@ public class SyntaxHighlighter {
     }
     
     /**
-     * Performs syntax highlighting using Lexer for token recognition
+     * Starts restyling the paragraphs changed since the last pass, using IncrementalLexer
+     * for token recognition. Lexing runs on the worker thread over a snapshot of the
+     * paragraphs; a pass still running from an earlier request is cancelled.
      */
     private void highlightSyntax() {
-        String code = codeArea.getText();
-        if (code == null || code.isEmpty()) {
-            return;
-        }
-        
-        try {
-            // Use Lexer to tokenize the code
-            Lexer lexer = new Lexer(code);
-            List<Token> tokens = lexer.scanTokens();
-            
-            // Build style spans based on tokens
-            StyleSpans<Collection<String>> highlighting = computeHighlighting(tokens, code);
-            
-            // Apply highlighting without moving caret
-            int caretPosition = codeArea.getCaretPosition();
-            codeArea.setStyleSpans(0, highlighting);
-            codeArea.moveTo(caretPosition);
-            
-        } catch (Exception e) {
-            // Print error for debugging
-            System.err.println("Syntax highlighting error: " + e.getMessage());
-            e.printStackTrace();
-        }
-    }
-    
-    /**
-     * Computes style spans for syntax highlighting using regex patterns
-     * This is more reliable than token position mapping
-     */
-    private StyleSpans<Collection<String>> computeHighlighting(List<Token> tokens, String code) {
-        StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
-        
-        int codeLength = code.length();
-        if (codeLength == 0) {
-            spansBuilder.add(Collections.emptyList(), 0);
-            return spansBuilder.create();
-        }
-        
-        // Create a character-by-character style map
-        String[] styles = new String[codeLength];
-        Arrays.fill(styles, ""); // Default: no style
-        
-        // Define patterns for different keyword categories
-        String structurePattern = "\\b(SUGOD|KATAPUSAN)\\b";
-        String builtinPattern = "\\b(IPAKITA|DAWAT|MUGNA)\\b";
-        String datatypePattern = "\\b(NUMERO|LETRA|TINUOD|TIPIK)\\b";
-        String keywordPattern = "\\b(KUNG|WALA|DILI|PUNDOK|ALANG|SA|SAMTANG|UG|O)\\b";
-        
-        // 1. Mark comments first (@@) - highest priority
-        java.util.regex.Pattern commentPattern = java.util.regex.Pattern.compile("@@.*");
-        java.util.regex.Matcher commentMatcher = commentPattern.matcher(code);
-        while (commentMatcher.find()) {
-            for (int i = commentMatcher.start(); i < commentMatcher.end() && i < codeLength; i++) {
-                styles[i] = COMMENT_CLASS;
-            }
+        int paragraphCount = codeArea.getParagraphs().size();
+        if (lexer.lineCount() != paragraphCount) {
+            resetLexer();   // out of step with the document; start over
         }
-        
-        // 2. Mark strings (must handle both single and double quotes)
-        java.util.regex.Pattern stringPattern = java.util.regex.Pattern.compile("\"([^\"\\\\]|\\\\.)*\"|'([^'\\\\]|\\\\.)*'");
-        java.util.regex.Matcher stringMatcher = stringPattern.matcher(code);
-        while (stringMatcher.find()) {
-            for (int i = stringMatcher.start(); i < stringMatcher.end() && i < codeLength; i++) {
-                // Don't override comments
-                if (!COMMENT_CLASS.equals(styles[i])) {
-                    styles[i] = STRING_CLASS;
-                }
-            }
-        }
-        
-        // 3. Mark numbers
-        java.util.regex.Pattern numberPattern = java.util.regex.Pattern.compile("\\b\\d+(\\.\\d+)?\\b");
-        java.util.regex.Matcher numberMatcher = numberPattern.matcher(code);
-        while (numberMatcher.find()) {
-            for (int i = numberMatcher.start(); i < numberMatcher.end() && i < codeLength; i++) {
-                // Don't override comments or strings
-                if (!COMMENT_CLASS.equals(styles[i]) && !STRING_CLASS.equals(styles[i])) {
-                    styles[i] = NUMBER_CLASS;
-                }
-            }
-        }
-        
-        // 4. Mark structure keywords (SUGOD, KATAPUSAN)
-        java.util.regex.Pattern structurePatternCompiled = java.util.regex.Pattern.compile(structurePattern);
-        java.util.regex.Matcher structureMatcher = structurePatternCompiled.matcher(code);
-        while (structureMatcher.find()) {
-            for (int i = structureMatcher.start(); i < structureMatcher.end() && i < codeLength; i++) {
-                if (!COMMENT_CLASS.equals(styles[i]) && 
-                    !STRING_CLASS.equals(styles[i]) && 
-                    !NUMBER_CLASS.equals(styles[i])) {
-                    styles[i] = STRUCTURE_CLASS;
-                }
-            }
-        }
-        
-        // 5. Mark built-in functions (IPAKITA, DAWAT, MUGNA)
-        java.util.regex.Pattern builtinPatternCompiled = java.util.regex.Pattern.compile(builtinPattern);
-        java.util.regex.Matcher builtinMatcher = builtinPatternCompiled.matcher(code);
-        while (builtinMatcher.find()) {
-            for (int i = builtinMatcher.start(); i < builtinMatcher.end() && i < codeLength; i++) {
-                if (!COMMENT_CLASS.equals(styles[i]) && 
-                    !STRING_CLASS.equals(styles[i]) && 
-                    !NUMBER_CLASS.equals(styles[i])) {
-                    styles[i] = BUILTIN_CLASS;
-                }
-            }
+        IncrementalLexer.Pass pass = lexer.pass();
+        if (pass == null) {
+            return;
         }
-        
-        // 6. Mark data type keywords (NUMERO, LETRA, TINUOD, TIPIK)
-        java.util.regex.Pattern datatypePatternCompiled = java.util.regex.Pattern.compile(datatypePattern);
-        java.util.regex.Matcher datatypeMatcher = datatypePatternCompiled.matcher(code);
-        while (datatypeMatcher.find()) {
-            for (int i = datatypeMatcher.start(); i < datatypeMatcher.end() && i < codeLength; i++) {
-                if (!COMMENT_CLASS.equals(styles[i]) && 
-                    !STRING_CLASS.equals(styles[i]) && 
-                    !NUMBER_CLASS.equals(styles[i])) {
-                    styles[i] = DATATYPE_CLASS;
-                }
-            }
+        if (pendingPass != null) {
+            pendingPass.cancel(true);
         }
-        
-        // 7. Mark control flow keywords (KUNG, SAMTANG, ALANG, etc.)
-        java.util.regex.Pattern keyPattern = java.util.regex.Pattern.compile(keywordPattern);
-        java.util.regex.Matcher keyMatcher = keyPattern.matcher(code);
-        while (keyMatcher.find()) {
-            for (int i = keyMatcher.start(); i < keyMatcher.end() && i < codeLength; i++) {
-                if (!COMMENT_CLASS.equals(styles[i]) && 
-                    !STRING_CLASS.equals(styles[i]) && 
-                    !NUMBER_CLASS.equals(styles[i])) {
-                    styles[i] = KEYWORD_CLASS;
-                }
-            }
+        if (pendingPrefetch != null) {
+            pendingPrefetch.cancel(false);
         }
         
-        // 8. Mark operators
-        java.util.regex.Pattern operatorPattern = java.util.regex.Pattern.compile("[+\\-*/%=<>!&|(){}\\[\\]:,;]");
-        java.util.regex.Matcher operatorMatcher = operatorPattern.matcher(code);
-        while (operatorMatcher.find()) {
-            for (int i = operatorMatcher.start(); i < operatorMatcher.end() && i < codeLength; i++) {
-                // Don't override anything else
-                if (!COMMENT_CLASS.equals(styles[i]) && 
-                    !STRING_CLASS.equals(styles[i]) && 
-                    !NUMBER_CLASS.equals(styles[i]) && 
-                    !KEYWORD_CLASS.equals(styles[i]) &&
-                    !BUILTIN_CLASS.equals(styles[i]) &&
-                    !DATATYPE_CLASS.equals(styles[i]) &&
-                    !STRUCTURE_CLASS.equals(styles[i])) {
-                    styles[i] = OPERATOR_CLASS;
+        // Paragraphs are immutable, so the worker can read this copy while the user types
+        long passVersion = version;
+        long documentVersion = analysis.version();
+        List<? extends Paragraph<?, ?, ?>> paragraphs = List.copyOf(codeArea.getParagraphs());
+        pendingPass = worker.submit(() -> {
+            try {
+                IncrementalLexer.Restyle restyle = pass.run(line -> paragraphs.get(line).getText());
+                if (restyle == null) {
+                    return;   // cancelled by a newer pass
                 }
+                StyleSpans<Collection<String>> highlighting = computeHighlighting(restyle.spans());
+                Platform.runLater(() -> applyPass(passVersion, restyle, highlighting));
+            } catch (Exception e) {
+                // Print error for debugging
+                System.err.println("Syntax highlighting error: " + e.getMessage());
+                e.printStackTrace();
             }
-        }
+        });
         
-        // Build StyleSpans from the style map
-        int i = 0;
-        while (i < codeLength) {
-            String currentStyle = styles[i];
-            int spanStart = i;
-            
-            // Find the end of this style span
-            while (i < codeLength && styles[i].equals(currentStyle)) {
-                i++;
+        // Lex and parse this version in the background, so Run and Format find it cached
+        pendingPrefetch = analyzer.submit(() -> {
+            if (documentVersion == analysis.version()) {
+                analysis.prefetch(documentVersion, joinLines(paragraphs));
             }
-            
-            int spanLength = i - spanStart;
-            if (currentStyle.isEmpty()) {
-                spansBuilder.add(Collections.emptyList(), spanLength);
-            } else {
-                spansBuilder.add(Collections.singleton(currentStyle), spanLength);
-            }
-        }
-        
-        return spansBuilder.create();
+        });
     }
     
-    /**
-     * Finds all comment ranges in the code
-     */
-    private List<int[]> findComments(String code) {
-        List<int[]> ranges = new ArrayList<>();
-        String[] lines = code.split("\n", -1);
-        int pos = 0;
-        
-        for (String line : lines) {
-            int commentStart = line.indexOf("@@");
-            if (commentStart >= 0) {
-                int absoluteStart = pos + commentStart;
-                int absoluteEnd = pos + line.length();
-                ranges.add(new int[]{absoluteStart, absoluteEnd});
-            }
-            pos += line.length() + 1; // +1 for newline
+    private static String joinLines(List<? extends Paragraph<?, ?, ?>> paragraphs) {
+        StringBuilder text = new StringBuilder();
+        for (int i = 0; i < paragraphs.size(); i++) {
+            if (i > 0) text.append('\n');
+            text.append(paragraphs.get(i).getText());
         }
-        
-        return ranges;
+        return text.toString();
     }
     
     /**
-     * Checks if position is within a comment range
+     * Applies a finished pass on the FX thread, unless the text changed after its snapshot;
+     * its lines are then still dirty and the next pass restyles them
      */
-    private boolean isInCommentRange(int pos, List<int[]> commentRanges) {
-        for (int[] range : commentRanges) {
-            if (pos >= range[0] && pos < range[1]) {
-                return true;
-            }
+    private void applyPass(long passVersion, IncrementalLexer.Restyle restyle,
+                           StyleSpans<Collection<String>> highlighting) {
+        if (passVersion != version) {
+            return;
+        }
+        lexer.commit(restyle);
+        if (highlighting == null) {
+            return;
+        }
+        
+        try {
+            // Apply highlighting from the first restyled paragraph without moving caret
+            int caretPosition = codeArea.getCaretPosition();
+            codeArea.setStyleSpans(codeArea.getAbsolutePosition(restyle.firstLine(), 0), highlighting);
+            codeArea.moveTo(caretPosition);
+            
+        } catch (Exception e) {
+            // Print error for debugging
+            System.err.println("Syntax highlighting error: " + e.getMessage());
+            e.printStackTrace();
         }
-        return false;
     }
     
     /**
-     * Adds styled gap between tokens
+     * Converts the lexer's per-line style runs into style spans covering those lines
+     * and the line breaks between them
+     * 
+     * @return The spans, or null if the lines are empty
      */
-    private void addStyledGap(StyleSpansBuilder<Collection<String>> spansBuilder, 
-                              String code, int start, int end, List<int[]> commentRanges) {
-        int pos = start;
-        while (pos < end) {
-            // Find next comment boundary
-            int nextBoundary = end;
-            boolean inComment = false;
-            
-            for (int[] range : commentRanges) {
-                if (pos < range[0] && range[0] < nextBoundary) {
-                    nextBoundary = range[0];
-                } else if (pos >= range[0] && pos < range[1]) {
-                    inComment = true;
-                    nextBoundary = Math.min(range[1], end);
-                    break;
-                }
+    private static StyleSpans<Collection<String>> computeHighlighting(List<List<IncrementalLexer.Span>> lines) {
+        StyleSpansBuilder<Collection<String>> spansBuilder = new StyleSpansBuilder<>();
+        int length = 0;
+        for (int line = 0; line < lines.size(); line++) {
+            if (line > 0) {
+                spansBuilder.add(Collections.emptyList(), 1);   // line break
+                length++;
             }
-            
-            int length = nextBoundary - pos;
-            if (length > 0) {
-                if (inComment) {
-                    spansBuilder.add(Collections.singleton(COMMENT_CLASS), length);
+            for (IncrementalLexer.Span span : lines.get(line)) {
+                if (span.style() == null) {
+                    spansBuilder.add(Collections.emptyList(), span.length());
                 } else {
-                    spansBuilder.add(Collections.emptyList(), length);
+                    spansBuilder.add(Collections.singleton(span.style()), span.length());
                 }
+                length += span.length();
             }
-            pos = nextBoundary;
-        }
-    }
-    
-    /**
-     * Finds the position of a token in the source code
-     */
-    private int findTokenPosition(String code, Token token, int startFrom) {
-        // Search for token lexeme starting from lastPos
-        // We need to match line/col from token
-        String[] lines = code.split("\n", -1);
-        int pos = 0;
-        
-        for (int i = 0; i < lines.length && i < token.line; i++) {
-            if (i == token.line - 1) {
-                // Found the line, add column offset
-                return pos + token.col - 1;
-            }
-            pos += lines[i].length() + 1; // +1 for newline
-        }
-        
-        return -1;
-    }
-    
-    /**
-     * Gets CSS style class for a token type
-     */
-    private String getStyleClass(TokenType type) {
-        switch (type) {
-            // Program structure
-            case SUGOD:
-            case KATAPUSAN:
-                return STRUCTURE_CLASS;
-            
-            // Built-in functions
-            case IPAKITA:
-            case DAWAT:
-            case MUGNA:
-                return BUILTIN_CLASS;
-            
-            // Data types
-            case NUMERO:
-            case LETRA:
-            case TINUOD:
-            case TIPIK:
-                return DATATYPE_CLASS;
-            
-            // Control flow keywords
-            case KUNG:
-            case WALA:
-            case DILI:
-            case PUNDOK:
-            case ALANG:
-            case SA:
-            case SAMTANG:
-            case UG:
-            case O:
-                return KEYWORD_CLASS;
-                
-            case STRING:
-                return STRING_CLASS;
-                
-            case NUMBER:
-                return NUMBER_CLASS;
-                
-            case PLUS:
-            case MINUS:
-            case STAR:
-            case SLASH:
-            case PERCENT:
-            case EQUAL:
-            case EQUAL_EQUAL:
-            case LT_GT: // <> not equal
-            case GREATER:
-            case GREATER_EQUAL:
-            case LESS:
-            case LESS_EQUAL:
-            case AMPERSAND:
-                return OPERATOR_CLASS;
-                
-            default:
-                return null;
         }
+        return length > 0 ? spansBuilder.create() : null;
     }
     
     /**
      * Applies immediate highlighting (useful for initial load)
      */
     public void applyHighlighting() {
-        Platform.runLater(this::highlightSyntax);
+        Platform.runLater(() -> {
+            resetLexer();
+            highlightSyntax();
+        });
     }
 }
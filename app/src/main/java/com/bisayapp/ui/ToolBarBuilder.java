@@ -28,13 +28,14 @@ public class ToolBarBuilder {
         toolBar.setStyle("-fx-background-color: #f0f0f0; -fx-padding: 5;");
         
         Button runButton = createRunButton();
+        Button stopButton = createStopButton();
         Button clearButton = createClearButton();
         Button formatButton = createFormatButton();
         
         Region spacer = new Region();
         HBox.setHgrow(spacer, Priority.ALWAYS);
         
-        toolBar.getItems().addAll(runButton, clearButton, formatButton, spacer);
+        toolBar.getItems().addAll(runButton, stopButton, clearButton, formatButton, spacer);
         
         return toolBar;
     }
@@ -50,6 +51,17 @@ public class ToolBarBuilder {
         return runButton;
     }
     
+    /**
+     * Creates the Stop button
+     */
+    private Button createStopButton() {
+        Button stopButton = new Button("■ Stop");
+        stopButton.setStyle("-fx-padding: 8 20 8 20; -fx-cursor: hand;");
+        stopButton.setOnAction(e -> controller.stopProgram());
+        stopButton.setTooltip(new Tooltip("Stop the running program (Shift+F5)"));
+        return stopButton;
+    }
+    
     /**
      * Creates the Clear Output button
      */
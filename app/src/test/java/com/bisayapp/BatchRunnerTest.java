@@ -0,0 +1,163 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.io.TempDir;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests for running many programs in one JVM (bisaya batch)
+ */
+public class BatchRunnerTest {
+
+    private static final String ECHO = """
+        SUGOD
+        MUGNA NUMERO x
+        DAWAT: x
+        IPAKITA: "x=" & x & $ & "done"
+        KATAPUSAN
+        """;
+
+    private static final String SYNTAX_ERROR = """
+        SUGOD
+        MUGNA NUMERO
+        KATAPUSAN
+        """;
+
+    private static final String INFINITE_LOOP = """
+        SUGOD
+        MUGNA NUMERO i=0
+        SAMTANG (1 == 1)
+        PUNDOK{
+            i++
+        }
+        KATAPUSAN
+        """;
+
+    @TempDir
+    Path tmp;
+
+    private static Path write(Path dir, String name, String content) throws IOException {
+        Path file = dir.resolve(name);
+        Files.createDirectories(file.getParent());
+        return Files.writeString(file, content, StandardCharsets.UTF_8);
+    }
+
+    /** Runs a batch and returns the result lines without the header, split into columns */
+    private List<String[]> batch(String... args) throws IOException {
+        Path results = tmp.resolve("results.tsv");
+        String[] all = new String[args.length + 1];
+        System.arraycopy(args, 0, all, 0, args.length);
+        all[args.length] = results.toString();
+        assertEquals(0, BatchRunner.run(all));
+
+        List<String> lines = Files.readAllLines(results, StandardCharsets.UTF_8);
+        assertEquals("program\tinput\tstatus\texit\tmillis\toutput\terrors", lines.get(0));
+        return lines.subList(1, lines.size()).stream().map(line -> line.split("\t", -1)).toList();
+    }
+
+    @Test
+    @DisplayName("A directory runs each program once per matching input file, in order")
+    public void testDirectory() throws IOException {
+        Path dir = Files.createDirectories(tmp.resolve("programs"));
+        write(dir, "echo.bpp", ECHO);
+        write(dir, "echo.1.in", "7\n");
+        write(dir, "echo.2.in", "42\n");
+        write(dir, "sub/bad.bpp", SYNTAX_ERROR);
+        write(dir, "loop.bpp", INFINITE_LOOP);
+
+        List<String[]> rows = batch("--jobs", "3", "--max-steps", "1000", dir.toString());
+        assertEquals(4, rows.size());
+
+        assertArrayEquals(new String[] {"echo.bpp", "echo.1.in", "OK", "0"}, List.of(rows.get(0)).subList(0, 4).toArray());
+        assertEquals("x=7\\ndone", rows.get(0)[5]);
+        assertEquals("x=42\\ndone", rows.get(1)[5]);
+
+        assertEquals("loop.bpp", rows.get(2)[0]);
+        assertEquals("LIMIT_EXCEEDED", rows.get(2)[2]);
+        assertTrue(rows.get(2)[6].contains("step limit of 1000"));
+
+        assertEquals(Path.of("sub", "bad.bpp").toString(), rows.get(3)[0]);
+        assertEquals("", rows.get(3)[1]);
+        assertEquals("COMPILE_ERROR", rows.get(3)[2]);
+        assertEquals("65", rows.get(3)[3]);
+        assertTrue(rows.get(3)[6].startsWith("[line 2 "), rows.get(3)[6]);
+    }
+
+    @Test
+    @DisplayName("Shared inputs run every program against every test case")
+    public void testSharedInputs() throws IOException {
+        Path dir = Files.createDirectories(tmp.resolve("programs"));
+        Path inputs = Files.createDirectories(tmp.resolve("inputs"));
+        write(dir, "a.bpp", ECHO);
+        write(dir, "b.bpp", ECHO);
+        write(inputs, "1.in", "1\n");
+        write(inputs, "2.in", "2\n");
+        write(inputs, "3.in", "three\n");
+
+        List<String[]> rows = batch("--vm", "--inputs", inputs.toString(), dir.toString());
+        assertEquals(6, rows.size());
+        assertEquals("x=2\\ndone", rows.get(1)[5]);
+        assertEquals("RUNTIME_ERROR", rows.get(2)[2]);
+        assertEquals("b.bpp", rows.get(3)[0]);
+    }
+
+    @Test
+    @DisplayName("A manifest lists programs with optional input files")
+    public void testManifest() throws IOException {
+        Path dir = Files.createDirectories(tmp.resolve("programs"));
+        write(dir, "progs/echo.bpp", ECHO);
+        write(dir, "cases/five.txt", "5\n");
+        Path manifest = write(dir, "jobs.txt", """
+            # program  input
+            progs/echo.bpp cases/five.txt
+
+            progs/echo.bpp
+            progs/missing.bpp
+            """);
+
+        List<String[]> rows = batch(manifest.toString());
+        assertEquals(3, rows.size());
+        assertEquals("x=5\\ndone", rows.get(0)[5]);
+        assertEquals("RUNTIME_ERROR", rows.get(1)[2]);
+        assertEquals("IO_ERROR", rows.get(2)[2]);
+        assertEquals("74", rows.get(2)[3]);
+    }
+
+    @Test
+    @DisplayName("A program that overflows the stack fails alone; the other jobs still report")
+    public void testDeepNestingFailsOnlyItsJob() throws IOException {
+        Path dir = Files.createDirectories(tmp.resolve("programs"));
+        write(dir, "a.bpp", ECHO);
+        int depth = 200_000;
+        write(dir, "b.bpp", "SUGOD\nMUGNA NUMERO x = " + "(".repeat(depth) + "1" + ")".repeat(depth) + "\nKATAPUSAN\n");
+        write(dir, "c.bpp", ECHO);
+
+        List<String[]> rows = batch(dir.toString());
+        assertEquals(3, rows.size());
+        assertEquals("RUNTIME_ERROR", rows.get(0)[2]);   // no input for DAWAT
+        assertEquals("COMPILE_ERROR", rows.get(1)[2]);
+        assertTrue(rows.get(1)[6].contains("nested too deeply"), rows.get(1)[6]);
+        assertEquals("c.bpp", rows.get(2)[0]);
+    }
+
+    @Test
+    @DisplayName("Bad arguments print usage")
+    public void testUsage() {
+        assertEquals(64, BatchRunner.run(new String[] {"--jobs"}));
+        assertEquals(64, BatchRunner.run(new String[] {"--jobs", "x", "dir", "out"}));
+    }
+
+    @Test
+    @DisplayName("Columns escape tabs, line breaks and backslashes")
+    public void testEscape() {
+        assertEquals("plain", BatchRunner.escape("plain"));
+        assertEquals("a\\tb\\nc\\\\d\\r", BatchRunner.escape("a\tb\nc\\d\r"));
+    }
+}
@@ -0,0 +1,114 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for batched IPAKITA output (BufferedOutput and IOHandler.bufferOutput)
+ */
+public class BufferedOutputTest {
+
+    @Test
+    @DisplayName("Output is held until flush and then written as UTF-8")
+    public void testBuffersUntilFlush() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BufferedOutput out = new BufferedOutput(bytes);
+        out.append("Kumusta ");
+        out.append("ñ€");
+        out.append("\uD83D");           // surrogate pair split across appends
+        out.append("\uDE00!");
+        assertEquals(0, bytes.size());
+
+        out.flush();
+        assertEquals("Kumusta ñ€😀!", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("A high surrogate left unpaired at flush is written as '?'")
+    public void testUnpairedHighSurrogateAtFlush() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BufferedOutput out = new BufferedOutput(bytes, StandardCharsets.UTF_8, 8);
+        out.append("1234567\uD83D");
+        out.flush();
+        assertEquals("1234567?", bytes.toString(StandardCharsets.UTF_8));
+
+        out.append("\uDE00");
+        out.flush();
+        assertEquals("1234567??", bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Full buffers are written in blocks without waiting for flush")
+    public void testWritesFullBlocks() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BufferedOutput out = new BufferedOutput(bytes, StandardCharsets.UTF_8, 16);
+        for (int i = 0; i < 40; i++) out.append("*");
+        assertTrue(bytes.size() >= 16 && bytes.size() < 40);
+
+        out.flush();
+        assertEquals("*".repeat(40), bytes.toString(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("Non-UTF-8 charsets are encoded like PrintStream would")
+    public void testOtherCharset() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        BufferedOutput out = new BufferedOutput(bytes, StandardCharsets.ISO_8859_1, 8);
+        out.append("café café");
+        out.flush();
+        assertArrayEquals("café café".getBytes(StandardCharsets.ISO_8859_1), bytes.toByteArray());
+    }
+
+    @Test
+    @DisplayName("IPAKITA output is flushed before DAWAT reads and at the end of the program")
+    public void testFlushedAtDawatAndExit() {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        PrintStream ps = new PrintStream(bytes);
+        StringBuilder seenAtInput = new StringBuilder();
+        IOHandler io = new ConsoleIOHandler(ps, System.err,
+                new ByteArrayInputStream("7\n".getBytes(StandardCharsets.UTF_8))) {
+            @Override
+            public InputLine readInputLine(String prompt) {
+                InputLine line = super.readInputLine(prompt);
+                seenAtInput.append(bytes.toString());
+                return line;
+            }
+        };
+        String source = """
+            SUGOD
+            MUGNA NUMERO x
+            IPAKITA: "Enter x: "
+            DAWAT: x
+            IPAKITA: "x=" & x
+            KATAPUSAN
+            """;
+        new Interpreter(io).interpret(new Parser(new Lexer(source).scanTokens()).parseProgram());
+        assertEquals("Enter x: ", seenAtInput.toString());
+        assertEquals("Enter x: x=7", bytes.toString());
+    }
+
+    @Test
+    @DisplayName("ConsoleIOHandler batches in the charset its PrintStream was built with")
+    public void testConsoleHandlerUsesStreamCharset() {
+        for (Charset charset : new Charset[] {
+                StandardCharsets.UTF_8, StandardCharsets.ISO_8859_1, StandardCharsets.UTF_16LE }) {
+            ByteArrayOutputStream printed = new ByteArrayOutputStream();
+            PrintStream direct = new PrintStream(printed, true, charset);
+            direct.print("año ñ");
+
+            ByteArrayOutputStream batched = new ByteArrayOutputStream();
+            IOHandler io = new ConsoleIOHandler(new PrintStream(batched, true, charset), System.err,
+                new ByteArrayInputStream(new byte[0]));
+            io.bufferOutput("año ñ");
+            io.flushOutput();
+            assertArrayEquals(printed.toByteArray(), batched.toByteArray(), charset.name());
+        }
+    }
+}
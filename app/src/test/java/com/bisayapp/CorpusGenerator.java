@@ -0,0 +1,156 @@
+package com.bisayapp;
+
+import java.util.Locale;
+
+/**
+ * Generates valid Bisaya++ programs of controllable size and shape for stress and
+ * scalability testing.
+ *
+ * Each Shape stresses one part of the pipeline; size is the number of units of that
+ * shape (declarations, nesting depth, & operands, KUNG DILI branches, loop trips).
+ * Generated programs need no DAWAT input and run without errors, so the same source
+ * can drive the lexer, parser and interpreter.
+ *
+ * Lives with the tests, so it is not shipped in the application JARs; the JMH
+ * benchmarks see it through includeTests.
+ *
+ * CLI: java -cp app/build/classes/java/test com.bisayapp.CorpusGenerator <shape> <size> > program.bpp
+ */
+public final class CorpusGenerator {
+
+    public enum Shape {
+        /** size MUGNA declarations cycling through NUMERO, TIPIK, LETRA and TINUOD */
+        DECLARATIONS(1000),
+        /** PUNDOK blocks nested size levels deep, one assignment per level */
+        NESTED_BLOCKS(25),
+        /** One IPAKITA with size operands joined by & */
+        CONCAT_CHAIN(25),
+        /** KUNG followed by size KUNG DILI branches and a KUNG WALA; only the last branch runs */
+        ELSE_IF_CHAIN(25),
+        /** A loop of size iterations doing arithmetic, a comparison and a print */
+        LOOP(10000),
+        /** size repetitions of declaration, arithmetic, KUNG/KUNG WALA and IPAKITA */
+        MIXED(100);
+
+        /**
+         * Size used by benchmarks as scale factor 1. The parser, optimizer and tree walker
+         * recurse once per nesting level, & operand or KUNG DILI branch, and with a 1 MB
+         * thread stack they overflow at roughly 2000 units; the deep shapes have small
+         * base sizes so scale 64 stays below that.
+         */
+        public final int baseSize;
+
+        Shape(int baseSize) { this.baseSize = baseSize; }
+    }
+
+    private static final int MAX_INDENT = 8;
+
+    private CorpusGenerator() {}
+
+    /**
+     * @param shape What the program is made of
+     * @param size Number of units of that shape (at least 1)
+     * @return Program text, starting with SUGOD and ending with KATAPUSAN
+     */
+    public static String generate(Shape shape, int size) {
+        if (size < 1) throw new IllegalArgumentException("size must be at least 1, got " + size);
+        StringBuilder sb = new StringBuilder(size * 32);
+        sb.append("@@ Generated ").append(shape.name().toLowerCase(Locale.ROOT)).append(" program, size ").append(size).append('\n');
+        sb.append("SUGOD\n");
+        switch (shape) {
+            case DECLARATIONS -> declarations(sb, size);
+            case NESTED_BLOCKS -> nestedBlocks(sb, size);
+            case CONCAT_CHAIN -> concatChain(sb, size);
+            case ELSE_IF_CHAIN -> elseIfChain(sb, size);
+            case LOOP -> loop(sb, size);
+            case MIXED -> mixed(sb, size);
+        }
+        return sb.append("KATAPUSAN\n").toString();
+    }
+
+    private static void declarations(StringBuilder sb, int size) {
+        for (int i = 0; i < size; i++) {
+            switch (i % 4) {
+                case 0 -> sb.append("MUGNA NUMERO n").append(i).append(" = ").append(i).append('\n');
+                case 1 -> sb.append("MUGNA TIPIK f").append(i).append(" = ").append(i).append(".5\n");
+                case 2 -> sb.append("MUGNA LETRA c").append(i).append(" = '").append((char) ('a' + i % 26)).append("'\n");
+                default -> sb.append("MUGNA TINUOD t").append(i).append(" = \"").append(i % 8 == 3 ? "OO" : "DILI").append("\"\n");
+            }
+        }
+        sb.append("IPAKITA: n0 & $\n");
+    }
+
+    private static void nestedBlocks(StringBuilder sb, int size) {
+        sb.append("MUGNA NUMERO depth = 0\n");
+        for (int i = 0; i < size; i++) {
+            indent(sb, i).append("PUNDOK{\n");
+            indent(sb, i + 1).append("depth = depth + 1\n");
+        }
+        for (int i = size - 1; i >= 0; i--) {
+            indent(sb, i).append("}\n");
+        }
+        sb.append("IPAKITA: depth & $\n");
+    }
+
+    private static void concatChain(StringBuilder sb, int size) {
+        sb.append("MUGNA NUMERO x = 7\n");
+        sb.append("IPAKITA: ");
+        for (int i = 0; i < size; i++) {
+            if (i > 0) sb.append(" & ");
+            // Alternate literals and variables so the optimizer cannot merge the whole chain
+            if (i % 2 == 0) sb.append("\"p").append(i).append('"');
+            else sb.append('x');
+        }
+        sb.append(" & $\n");
+    }
+
+    private static void elseIfChain(StringBuilder sb, int size) {
+        sb.append("MUGNA NUMERO x = ").append(size).append('\n');
+        sb.append("KUNG (x == 0)\nPUNDOK{\n    IPAKITA: \"zero\" & $\n}\n");
+        for (int i = 1; i <= size; i++) {
+            sb.append("KUNG DILI (x == ").append(i).append(")\nPUNDOK{\n");
+            sb.append("    IPAKITA: \"branch ").append(i).append("\" & $\n}\n");
+        }
+        sb.append("KUNG WALA\nPUNDOK{\n    IPAKITA: \"none\" & $\n}\n");
+    }
+
+    private static void loop(StringBuilder sb, int size) {
+        sb.append("MUGNA NUMERO i, s = 0, trips = ").append(size).append('\n');
+        sb.append("ALANG SA (i = 1, i <= trips, i++)\nPUNDOK{\n");
+        sb.append("    s = (s + i * 3) % 1000\n");
+        sb.append("    KUNG (s > 990)\n    PUNDOK{\n        IPAKITA: i & \" \" & s & $\n    }\n");
+        sb.append("}\n");
+        sb.append("IPAKITA: s & $\n");
+    }
+
+    private static void mixed(StringBuilder sb, int size) {
+        for (int k = 0; k < size; k++) {
+            sb.append("MUGNA NUMERO a").append(k).append(" = ").append(k).append(", b").append(k).append('\n');
+            sb.append("b").append(k).append(" = (a").append(k).append(" * 3 + 7) % 11\n");
+            sb.append("KUNG (b").append(k).append(" > 5)\nPUNDOK{\n");
+            sb.append("    IPAKITA: \"b\" & a").append(k).append(" & \"=\" & b").append(k).append(" & $\n");
+            sb.append("}\nKUNG WALA\nPUNDOK{\n");
+            sb.append("    b").append(k).append(" = b").append(k).append(" - 1\n");
+            sb.append("}\n");
+        }
+    }
+
+    /** Indents up to MAX_INDENT levels; deeper levels stay flush so size stays linear in depth */
+    private static StringBuilder indent(StringBuilder sb, int level) {
+        for (int i = Math.min(level, MAX_INDENT); i > 0; i--) sb.append("    ");
+        return sb;
+    }
+
+    /**
+     * Prints a generated program to standard output
+     */
+    public static void main(String[] args) {
+        if (args.length != 2) {
+            System.err.println("Usage: CorpusGenerator <shape> <size>");
+            System.err.println("Shapes: " + java.util.Arrays.toString(Shape.values()));
+            System.exit(64);
+        }
+        Shape shape = Shape.valueOf(args[0].toUpperCase(Locale.ROOT));
+        System.out.print(generate(shape, Integer.parseInt(args[1])));
+    }
+}
@@ -0,0 +1,62 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests that CorpusGenerator emits valid programs of the requested size
+ */
+public class CorpusGeneratorTest {
+
+    private String run(String source) {
+        Lexer lexer = new Lexer(source);
+        List<Token> tokens = lexer.scanTokens();
+        assertFalse(lexer.diagnostics().hadError());
+        List<Stmt> program = new Parser(tokens, lexer.diagnostics()).parseProgram();
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Interpreter(new PrintStream(out), new ByteArrayInputStream(new byte[0])).interpret(program);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Every shape produces a program that lexes, parses and runs")
+    public void testAllShapesRun() {
+        for (CorpusGenerator.Shape shape : CorpusGenerator.Shape.values()) {
+            String source = CorpusGenerator.generate(shape, 20);
+            assertTrue(source.contains("SUGOD\n") && source.endsWith("KATAPUSAN\n"), shape.toString());
+            assertDoesNotThrow(() -> run(source), shape.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Size controls the number of units of each shape")
+    public void testSizes() {
+        assertEquals("0\n", run(CorpusGenerator.generate(CorpusGenerator.Shape.DECLARATIONS, 300)));
+        assertEquals("120\n", run(CorpusGenerator.generate(CorpusGenerator.Shape.NESTED_BLOCKS, 120)));
+        assertEquals("branch 75\n", run(CorpusGenerator.generate(CorpusGenerator.Shape.ELSE_IF_CHAIN, 75)));
+
+        String chain = run(CorpusGenerator.generate(CorpusGenerator.Shape.CONCAT_CHAIN, 5));
+        assertEquals("p07p27p4\n", chain);
+
+        String source = CorpusGenerator.generate(CorpusGenerator.Shape.MIXED, 50);
+        assertEquals(50, source.split("MUGNA", -1).length - 1);
+    }
+
+    @Test
+    @DisplayName("Loop trip count matches the requested size")
+    public void testLoopTrips() {
+        String source = CorpusGenerator.generate(CorpusGenerator.Shape.LOOP, 500);
+        List<Stmt> program = new Parser(new Lexer(source).scanTokens()).parseProgram();
+        ResourceGovernor governor = ResourceGovernor.unlimited();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(new ByteArrayOutputStream()), System.err,
+            new ByteArrayInputStream(new byte[0]));
+        new Interpreter(io, governor).interpret(program);
+        assertEquals(500, governor.steps());
+    }
+}
@@ -21,13 +21,11 @@ public class DawatErrorMessageTest {
     @BeforeEach
     public void setUpStreams() {
         System.setErr(new PrintStream(errContent));
-        ErrorReporter.reset();
     }
 
     @AfterEach
     public void restoreStreams() {
         System.setErr(originalErr);
-        ErrorReporter.reset();
     }
 
     @Test
@@ -49,7 +47,7 @@ public class DawatErrorMessageTest {
             fail("Expected ParseError to be thrown");
         } catch (Parser.ParseError e) {
             // Expected - verify error was reported
-            assertTrue(ErrorReporter.hadError(), "Error should have been reported");
+            assertTrue(parser.diagnostics().hadError(), "Error should have been reported");
             
             String errorOutput = errContent.toString();
             
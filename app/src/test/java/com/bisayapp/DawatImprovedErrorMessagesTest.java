@@ -20,13 +20,11 @@ public class DawatImprovedErrorMessagesTest {
     @BeforeEach
     public void setUpStreams() {
         System.setErr(new PrintStream(errContent));
-        ErrorReporter.reset();
     }
 
     @AfterEach
     public void restoreStreams() {
         System.setErr(originalErr);
-        ErrorReporter.reset();
     }
 
     @Test
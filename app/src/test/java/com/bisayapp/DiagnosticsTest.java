@@ -0,0 +1,104 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Tests for per-program error collection (Diagnostics)
+ */
+public class DiagnosticsTest {
+
+    private static Diagnostics compile(String source) {
+        Diagnostics diagnostics = Diagnostics.quiet();
+        try {
+            new Parser(new Lexer(source, diagnostics).scanTokens(), diagnostics).parseProgram();
+        } catch (Parser.ParseError e) {
+            // reported to diagnostics
+        }
+        return diagnostics;
+    }
+
+    @Test
+    @DisplayName("Lexical and syntax errors are collected with their positions")
+    public void testCollectsErrors() {
+        Diagnostics diagnostics = compile("SUGOD\nIPAKITA: #\nKATAPUSAN");
+        assertTrue(diagnostics.hadError());
+        Diagnostics.Diagnostic first = diagnostics.errors().get(0);
+        assertEquals(2, first.line());
+        assertEquals("[line 2 col 4] Error: Unexpected character: #", first.toString());
+
+        assertFalse(compile("SUGOD\nMUGNA NUMERO x=5\nIPAKITA: x\nKATAPUSAN").hadError());
+    }
+
+    @Test
+    @DisplayName("Errors past the limit are counted but not kept or printed")
+    public void testLimit() {
+        ByteArrayOutputStream echo = new ByteArrayOutputStream();
+        Diagnostics diagnostics = new Diagnostics(2, new PrintStream(echo, true));
+        new Lexer("# # # #", diagnostics).scanTokens();
+        assertEquals(4, diagnostics.count());
+        assertEquals(2, diagnostics.errors().size());
+        assertEquals(2, echo.toString().lines().count());
+    }
+
+    @Test
+    @DisplayName("Parser(lexer) reports into the lexer's collector")
+    public void testPullParserSharesLexerDiagnostics() {
+        Lexer lexer = new Lexer("SUGOD\nMUGNA NUMERO\nKATAPUSAN", Diagnostics.quiet());
+        Parser parser = new Parser(lexer);
+        assertThrows(Parser.ParseError.class, parser::parseProgram);
+        assertSame(lexer.diagnostics(), parser.diagnostics());
+        assertTrue(lexer.diagnostics().hadError());
+    }
+
+    @Test
+    @DisplayName("runSource stops with a CompileException that carries the errors")
+    public void testRunSourceThrowsDiagnostics() {
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            CompileException e = assertThrows(CompileException.class, () ->
+                Bisaya.runSource("SUGOD\nIPAKITA: #\nKATAPUSAN", new ConsoleIOHandler()));
+            assertEquals("Lexical errors found", e.getMessage());
+            assertEquals(2, e.diagnostics().errors().get(0).line());
+
+            CompileException syntax = assertThrows(CompileException.class, () ->
+                Bisaya.runSource("SUGOD\nIPAKITA: \nKATAPUSAN\n", new ConsoleIOHandler()));
+            assertEquals("Syntax errors found", syntax.getMessage());
+            assertEquals(2, syntax.diagnostics().errors().get(0).line());
+        } finally {
+            System.setErr(err);
+        }
+    }
+
+    @Test
+    @DisplayName("Programs compiled at the same time do not see each other's errors")
+    public void testConcurrentCompiles() throws Exception {
+        String good = "SUGOD\nMUGNA NUMERO x=5\nIPAKITA: x\nKATAPUSAN";
+        String bad = "SUGOD\nIPAKITA: #\nKATAPUSAN";
+        ExecutorService pool = Executors.newFixedThreadPool(4);
+        try {
+            List<Callable<Boolean>> jobs = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                String source = i % 2 == 0 ? good : bad;
+                jobs.add(() -> compile(source).hadError());
+            }
+            List<Future<Boolean>> results = pool.invokeAll(jobs);
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 != 0, (boolean) results.get(i).get(), "job " + i);
+            }
+        } finally {
+            pool.shutdown();
+        }
+    }
+}
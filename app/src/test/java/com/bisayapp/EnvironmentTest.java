@@ -0,0 +1,101 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests for the typed, unboxed Environment storage
+ */
+public class EnvironmentTest {
+
+    @Test
+    @DisplayName("Values are stored per declared type and boxed on get")
+    public void testTypedStorage() {
+        Environment env = new Environment(4);
+        env.declare(0, "n", TokenType.NUMERO, 5.0);
+        env.declare(1, "t", TokenType.TIPIK, 2.5);
+        env.declare(2, "c", TokenType.LETRA, 'x');
+        env.declare(3, "b", TokenType.TINUOD, "OO");
+
+        assertEquals(5, env.getInt(0));
+        assertEquals(2.5f, env.getFloat(1));
+        assertEquals('x', env.getChar(2));
+        assertTrue(env.getBoolean(3));
+
+        Token tok = new Token(TokenType.IDENTIFIER, "n", null, 1, 1);
+        assertEquals(5, env.get(0, tok));
+        assertEquals(2.5f, env.get(1, tok));
+        assertEquals('x', env.get(2, tok));
+        assertEquals(true, env.get(3, tok));
+    }
+
+    @Test
+    @DisplayName("Declared but unassigned variables read back as null")
+    public void testUnassigned() {
+        Environment env = new Environment(1);
+        env.declare(0, "x", TokenType.NUMERO, null);
+        assertTrue(env.isDeclared(0));
+        assertFalse(env.isAssigned(0));
+        assertNull(env.get(0, new Token(TokenType.IDENTIFIER, "x", null, 1, 1)));
+
+        env.assignInt(0, "x", 7);
+        assertTrue(env.isAssigned(0));
+        assertEquals(7, env.getInt(0));
+    }
+
+    @Test
+    @DisplayName("Primitive stores coerce to the declared type")
+    public void testPrimitiveStores() {
+        Environment env = new Environment(2);
+        env.declare(0, "n", TokenType.NUMERO, null);
+        env.declare(1, "t", TokenType.TIPIK, null);
+
+        env.assignInt(1, "t", 3);
+        assertEquals(3.0f, env.getFloat(1));
+        env.assignFloat(0, "n", 4.0f);
+        assertEquals(4, env.getInt(0));
+        env.assignDouble(0, "n", 9.0);
+        assertEquals(9, env.getInt(0));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> env.assignFloat(0, "n", 1.5f));
+        assertTrue(ex.getMessage().contains("NUMERO cannot have decimal values"));
+    }
+
+    @Test
+    @DisplayName("Reads of an unchanged variable return the same box; stores replace it")
+    public void testBoxReuse() {
+        Environment env = new Environment(2);
+        Token tok = new Token(TokenType.IDENTIFIER, "n", null, 1, 1);
+        Integer stored = 100000;
+        env.declare(0, "n", TokenType.NUMERO, stored);
+        env.declare(1, "t", TokenType.TIPIK, 2.0);
+
+        assertSame(stored, env.get(0, tok));
+        Object t = env.get(1, tok);
+        assertEquals(2.0f, t);
+        assertSame(t, env.get(1, tok));
+
+        env.assignInt(0, "n", 200000);
+        assertEquals(200000, env.get(0, tok));
+        env.setFloat(1, 3.5f);
+        assertEquals(3.5f, env.get(1, tok));
+        env.assign(1, "t", null);
+        assertNull(env.get(1, tok));
+    }
+
+    @Test
+    @DisplayName("Original coercion errors are preserved")
+    public void testCoercionErrors() {
+        Environment env = new Environment(3);
+        env.declare(0, "c", TokenType.LETRA, null);
+        env.declare(1, "b", TokenType.TINUOD, null);
+
+        RuntimeException letra = assertThrows(RuntimeException.class, () -> env.assign(0, "c", "ab"));
+        assertTrue(letra.getMessage().contains("LETRA can only hold one character"));
+        RuntimeException tinuod = assertThrows(RuntimeException.class, () -> env.assignInt(1, "b", 1));
+        assertTrue(tinuod.getMessage().contains("cannot assign 1 to TINUOD"));
+        RuntimeException undefined = assertThrows(RuntimeException.class, () -> env.assignInt(2, "z", 1));
+        assertTrue(undefined.getMessage().contains("Undefined variable 'z'"));
+    }
+}
@@ -0,0 +1,118 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.Scanner;
+
+/**
+ * Tests for the byte-level DAWAT reader (InputReader / InputLine)
+ */
+public class InputReaderTest {
+
+    private static InputReader reader(String input, int capacity) {
+        return new InputReader(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)),
+                StandardCharsets.UTF_8, capacity);
+    }
+
+    @Test
+    @DisplayName("Lines match Scanner.nextLine().trim() for every terminator, across buffer refills")
+    public void testLinesMatchScanner() {
+        String input = "1, 2\r\n  abc \rñ,é\n x\u0085y \n\nlast";
+        for (int capacity : new int[] {16, 17, 19, 64}) {
+            Scanner scanner = new Scanner(new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8)), "UTF-8");
+            InputReader reader = reader(input, capacity);
+            while (scanner.hasNextLine()) {
+                assertTrue(reader.hasNextLine());
+                assertEquals(scanner.nextLine().trim(), reader.nextLine().toString());
+            }
+            assertFalse(reader.hasNextLine());
+        }
+    }
+
+    @Test
+    @DisplayName("Bytes of U+2028 are not a terminator when the input is not UTF-8")
+    public void testMultiByteTerminatorsOnlyInUtf8() {
+        byte[] input = {'a', (byte) 0xE2, (byte) 0x80, (byte) 0xA8, 'b', '\n', 'c'};
+        Charset cp1252 = Charset.forName("windows-1252");
+        Scanner scanner = new Scanner(new ByteArrayInputStream(input), cp1252);
+        InputReader reader = new InputReader(new ByteArrayInputStream(input), cp1252, 16);
+        while (scanner.hasNextLine()) {
+            assertEquals(scanner.nextLine().trim(), reader.nextLine().toString());
+        }
+        assertFalse(reader.hasNextLine());
+    }
+
+    @Test
+    @DisplayName("Fields follow split(\",\") + trim(), including dropped trailing empties")
+    public void testFieldsMatchSplit() {
+        String[] lines = { "", ",", "1,2,", "1,,2", " 1 , 2 ", ",1", "a, ,", "x" };
+        for (String text : lines) {
+            String[] expected = text.trim().split(",");
+            InputLine line = InputLine.of(text);
+            assertEquals(expected.length, line.fieldCount(), "fields of '" + text + "'");
+            for (int i = 0; i < expected.length; i++) {
+                assertEquals(expected[i].trim(), line.field(i));
+            }
+        }
+    }
+
+    @Test
+    @DisplayName("Plain numbers parsed from bytes equal Integer.valueOf / Float.valueOf")
+    public void testNumbersMatchJdkParsing() {
+        Random random = new Random(42);
+        List<String> values = new ArrayList<>(List.of("0", "-0", "+7", "123456789", "0.1", "-3.14",
+                "16777216", "16777217", "0.0000000001", "9.999999", "1234567.5"));
+        for (int i = 0; i < 2000; i++) {
+            values.add((random.nextBoolean() ? "-" : "") + random.nextInt(100000) + "." + random.nextInt(100000));
+        }
+        for (String v : values) {
+            InputLine line = InputLine.of(v);
+            if (line.isPlainInt(0)) assertEquals(Integer.parseInt(v), line.intValue(0), v);
+            if (line.isPlainFloat(0)) {
+                assertEquals(Float.floatToIntBits(Float.valueOf(v)), Float.floatToIntBits(line.floatValue(0)), v);
+            }
+        }
+        assertFalse(InputLine.of("1234567890").isPlainInt(0));
+        assertFalse(InputLine.of("5.").isPlainFloat(0));
+        assertFalse(InputLine.of("1e5").isPlainFloat(0));
+    }
+
+    @Test
+    @DisplayName("DAWAT reads many lines and keeps the original error messages")
+    public void testDawatThroughReader() {
+        StringBuilder input = new StringBuilder();
+        for (int i = 1; i <= 1000; i++) input.append(i).append(", ").append(i / 4.0).append('\n');
+        input.append("3.5, 1\n");
+        String source = """
+            SUGOD
+            MUGNA NUMERO n, i, total=0
+            MUGNA TIPIK f, ftotal=0
+            ALANG SA (i=1, i<=1000, i++)
+            PUNDOK{
+                DAWAT: n, f
+                total = total + n
+                ftotal = ftotal + f
+            }
+            IPAKITA: total & " " & ftotal
+            DAWAT: n, f
+            KATAPUSAN
+            """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Interpreter interpreter = new Interpreter(new PrintStream(out),
+                new ByteArrayInputStream(input.toString().getBytes(StandardCharsets.UTF_8)));
+        RuntimeException ex = assertThrows(RuntimeException.class,
+                () -> interpreter.interpret(new Parser(new Lexer(source).scanTokens()).parseProgram()));
+        assertEquals("500500 125125", out.toString());
+        assertTrue(ex.getMessage().contains("DAWAT: NUMERO cannot have decimal values. Got: 3.5"));
+    }
+}
@@ -49,7 +49,46 @@ public class LexerTest {
         var bad = lex("MUGNA NUMERO 9abc\n");
         // Depending on your lexer, this may split into NUMBER + IDENTIFIER or error-report.
         // We at least ensure it does NOT become a single IDENTIFIER:
-        long ident = bad.stream().filter(t -> t.type == TokenType.IDENTIFIER && "9abc".equals(t.lexeme)).count();
+        long ident = bad.stream().filter(t -> t.type == TokenType.IDENTIFIER && "9abc".equals(t.lexeme())).count();
         assertEquals(0, ident);
     }
+
+    @Test
+    void lexemes_and_offsets_match_source_text() {
+        String src = "MUGNA NUMERO x1 = 42, y = 3.5e2\nIPAKITA: \"hi\" & 'c' & [&] & x1 <> y\n";
+        var toks = lex(src);
+        for (Token t : toks) {
+            assertEquals(src.substring(t.start(), t.end()), t.lexeme(), t.type.name());
+        }
+        assertEquals(42.0, toks.get(4).literal);
+        assertEquals(350.0, toks.get(8).literal);
+        assertEquals("hi", toks.get(12).literal);
+        assertEquals('c', toks.get(14).literal);
+        assertEquals("&", toks.get(16).literal);
+    }
+
+    @Test
+    void fixed_lexemes_are_shared_constants() {
+        var a = lex("MUGNA NUMERO x\n");
+        var b = lex("MUGNA NUMERO x\n");
+        assertSame(a.get(0).lexeme(), b.get(0).lexeme());  // MUGNA
+        assertSame(a.get(3).lexeme(), b.get(3).lexeme());  // NEWLINE
+        assertEquals("x", a.get(2).lexeme());
+        assertSame(a.get(2).lexeme(), a.get(2).lexeme());  // cut once, then cached
+    }
+
+    @Test
+    void integer_fast_path_matches_parseDouble() {
+        for (String n : new String[] { "0", "7", "007", "123456789012345", "1234567890123456789", "2.5", "1E3" }) {
+            assertEquals(Double.parseDouble(n), lex(n).get(0).literal, n);
+        }
+    }
+
+    @Test
+    void toString_keeps_padded_column_format() {
+        for (Token t : lex("MUGNA LETRA c = 'a'\nIPAKITA: 12 & \"a long string literal\"\n")) {
+            String expected = String.format("%-14s %-12s %s", t.type, t.lexeme(), t.literal == null ? "" : t.literal);
+            assertEquals(expected, t.toString());
+        }
+    }
 }
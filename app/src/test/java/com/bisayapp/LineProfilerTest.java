@@ -0,0 +1,108 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for AST source spans and the line profiler
+ */
+public class LineProfilerTest {
+
+    private static final String LOOP_PROGRAM = """
+        SUGOD
+        MUGNA NUMERO i, s=0
+        ALANG SA (i=1, i<=10, i++)
+        PUNDOK{
+            s = s + i * 2
+        }
+        IPAKITA: s
+        KATAPUSAN
+        """;
+
+    private String profile(String source, LineProfiler profiler, ExecutionEngine engine) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(out), System.err, new ByteArrayInputStream(new byte[0]));
+        List<Stmt> program = new Parser(new Lexer(source).scanTokens()).parseProgram();
+        new Interpreter(io, ResourceGovernor.unlimited(), profiler).interpret(program, engine);
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Parser records line, column and end line on statements and expressions")
+    public void testSourceSpans() {
+        List<Stmt> program = new Parser(new Lexer(LOOP_PROGRAM).scanTokens()).parseProgram();
+
+        Stmt.For loop = (Stmt.For) program.get(1);
+        assertEquals(3, loop.line);
+        assertEquals(1, loop.col);
+        assertEquals(6, loop.endLine);
+
+        Stmt.Block body = (Stmt.Block) loop.body;
+        assertEquals(4, body.line);
+        assertEquals(6, body.endLine);
+
+        Stmt.ExprStmt assign = (Stmt.ExprStmt) body.statements.get(0);
+        Expr.Assign a = (Expr.Assign) assign.expr;
+        assertEquals(5, a.line);
+        assertEquals(5, a.col);
+        Expr.Binary sum = (Expr.Binary) a.value;
+        assertEquals(5, sum.line);
+        assertEquals(9, sum.col);   // starts at the left operand 's'
+
+        assertEquals(3, loop.condition.line);
+        assertEquals(7, program.get(2).line);
+    }
+
+    @Test
+    @DisplayName("Profiler counts executions per line without changing program output")
+    public void testCountsPerLine() {
+        LineProfiler profiler = new LineProfiler();
+        assertEquals("110", profile(LOOP_PROGRAM, profiler, ExecutionEngine.TREE_WALKER));
+
+        assertEquals(1 + 1 + 10, profiler.statementCount(3));  // ALANG SA, initializer, update
+        assertEquals(10, profiler.statementCount(4));             // PUNDOK body block
+        assertEquals(10, profiler.statementCount(5));             // s = s + i * 2
+        assertEquals(10 * 6, profiler.expressionCount(5));        // =, +, s, *, i, 2
+        assertEquals(1, profiler.statementCount(7));
+        assertEquals(0, profiler.statementCount(1));
+    }
+
+    @Test
+    @DisplayName("Profiling always uses the tree walker and reports the hottest lines first")
+    public void testReport() {
+        LineProfiler profiler = new LineProfiler();
+        assertEquals("110", profile(LOOP_PROGRAM, profiler, ExecutionEngine.BYTECODE_VM));
+        assertEquals(10, profiler.statementCount(5));
+
+        String report = profiler.report(LOOP_PROGRAM, 2);
+        String[] lines = report.split("\n");
+        assertTrue(lines[0].startsWith("=== PROFILE (total "));
+        assertTrue(lines[1].contains("LINE") && lines[1].contains("SELF ms"));
+        assertEquals(4, lines.length);  // header, column titles, 2 hot lines
+        assertTrue(profiler.selfNanos(Integer.parseInt(lines[2].trim().split("\\s+")[0]))
+            >= profiler.selfNanos(Integer.parseInt(lines[3].trim().split("\\s+")[0])));
+    }
+
+    @Test
+    @DisplayName("Constant folding before the run is not profiled")
+    public void testFoldingNotCounted() {
+        LineProfiler profiler = new LineProfiler();
+        String source = """
+            SUGOD
+            MUGNA NUMERO x
+            x = 2 * 3 + 4
+            IPAKITA: x
+            KATAPUSAN
+            """;
+        assertEquals("10", profile(source, profiler, ExecutionEngine.TREE_WALKER));
+        // The folded assignment evaluates once: the assignment and its literal value
+        assertEquals(1, profiler.statementCount(3));
+        assertEquals(2, profiler.expressionCount(3));
+    }
+}
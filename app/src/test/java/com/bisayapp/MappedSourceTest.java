@@ -0,0 +1,111 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.charset.MalformedInputException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+/**
+ * Tests for memory-mapped source files and lexing over them
+ */
+public class MappedSourceTest {
+
+    private static final String PROGRAM = """
+        SUGOD
+        MUGNA NUMERO x = 12
+        MUGNA LETRA c = 'z'
+        IPAKITA: "x=" & x & [&] & c
+        KATAPUSAN
+        """;
+
+    @Test
+    @DisplayName("ASCII files are read over the mapping itself")
+    public void testAsciiIsMapped() throws IOException {
+        CharSequence source = MappedSource.open(write(PROGRAM.getBytes(StandardCharsets.US_ASCII)));
+        assertInstanceOf(MappedSource.class, source);
+        assertEquals(PROGRAM.length(), source.length());
+        assertEquals(PROGRAM, source.toString());
+        assertEquals("MUGNA", source.subSequence(6, 11).toString());
+    }
+
+    @Test
+    @DisplayName("Lexing a mapped file gives the same tokens as lexing a String")
+    public void testSameTokens() throws IOException {
+        CharSequence source = MappedSource.open(write(PROGRAM.getBytes(StandardCharsets.US_ASCII)));
+        List<Token> expected = new Lexer(PROGRAM).scanTokens();
+        List<Token> mapped = new Lexer(source).scanTokens();
+
+        assertEquals(expected.size(), mapped.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), mapped.get(i).toString(), "token " + i);
+        }
+        TokenBuffer buffer = new Lexer(source).scanTokenBuffer();
+        assertEquals(expected.size(), buffer.size());
+    }
+
+    @Test
+    @DisplayName("Non-ASCII files are decoded as UTF-8")
+    public void testUtf8IsDecoded() throws IOException {
+        String program = "SUGOD\nIPAKITA: \"maayong buntag, Señor\"\nKATAPUSAN\n";
+        CharSequence source = MappedSource.open(write(program.getBytes(StandardCharsets.UTF_8)));
+        assertFalse(source instanceof MappedSource);
+        assertEquals(program, source.toString());
+    }
+
+    @Test
+    @DisplayName("Malformed UTF-8 is rejected")
+    public void testMalformedInput() throws IOException {
+        Path file = write(new byte[] {'S', 'U', 'G', 'O', 'D', (byte) 0xC3});
+        assertThrows(MalformedInputException.class, () -> MappedSource.open(file));
+    }
+
+    @Test
+    @DisplayName("Empty files map to an empty source")
+    public void testEmptyFile() throws IOException {
+        CharSequence source = MappedSource.open(write(new byte[0]));
+        assertEquals(0, source.length());
+        assertEquals(TokenType.EOF, new Lexer(source).nextToken().type);
+    }
+
+    @Test
+    @DisplayName("runFile runs a program from a mapped file")
+    public void testRunFile() throws Exception {
+        Path file = write(PROGRAM.getBytes(StandardCharsets.US_ASCII));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        Bisaya.runFile(file.toString(), new PrintStream(out), new ByteArrayInputStream(new byte[0]));
+        assertEquals("x=12&z", out.toString());
+    }
+
+    @Test
+    @DisplayName("runFile reports lexical and syntax errors as a CompileException")
+    public void testRunFileCompileErrors() throws Exception {
+        Path file = write("SUGOD\nIPAKITA: #\nKATAPUSAN".getBytes(StandardCharsets.US_ASCII));
+        PrintStream err = System.err;
+        System.setErr(new PrintStream(new ByteArrayOutputStream()));
+        try {
+            CompileException e = assertThrows(CompileException.class, () ->
+                Bisaya.runFile(file.toString(), new PrintStream(new ByteArrayOutputStream()),
+                               new ByteArrayInputStream(new byte[0])));
+            List<Diagnostics.Diagnostic> errors = e.diagnostics().errors();
+            assertEquals("[line 2 col 4] Error: Unexpected character: #", errors.get(0).toString());
+            assertEquals("[line 2 col 5] Error: Expect expression.", errors.get(1).toString());
+        } finally {
+            System.setErr(err);
+        }
+    }
+
+    private static Path write(byte[] content) throws IOException {
+        Path file = Files.createTempFile("mapped", ".bpp");
+        file.toFile().deleteOnExit();
+        return Files.write(file, content);
+    }
+}
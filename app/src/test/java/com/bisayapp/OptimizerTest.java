@@ -0,0 +1,170 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for the AST optimizer (constant folding, simplification, dead code)
+ */
+public class OptimizerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final Interpreter interpreter = new Interpreter(new PrintStream(out));
+
+    private List<Stmt> parse(String source) {
+        return new Parser(new Lexer(source).scanTokens()).parseProgram();
+    }
+
+    private List<Stmt> optimize(String source) {
+        return new Optimizer(interpreter).optimize(parse(source));
+    }
+
+    private String run(String source) {
+        new Interpreter(new PrintStream(out)).interpret(parse(source));
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Literal arithmetic and comparisons fold to a single literal")
+    public void testConstantFolding() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            MUGNA TIPIK x
+            MUGNA TINUOD t
+            t = (10 / 4 > 2)
+            x = (2 + 3) * 4
+            KATAPUSAN
+            """);
+        Expr.Assign cond = (Expr.Assign) ((Stmt.ExprStmt) program.get(2)).expr;
+        assertEquals(true, ((Expr.Literal) cond.value).value);
+        Expr.Assign assign = (Expr.Assign) ((Stmt.ExprStmt) program.get(3)).expr;
+        assertEquals(20.0f, ((Expr.Literal) assign.value).value);
+    }
+
+    @Test
+    @DisplayName("Adjacent literal text in an & chain merges into one string")
+    public void testConcatenationMerge() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            MUGNA NUMERO n = 1
+            IPAKITA: "a" & "b" & $ & n & "c" & 1 + 1
+            KATAPUSAN
+            """);
+        // ("ab\n" & n) & "c2"
+        Expr.Binary outer = (Expr.Binary) ((Stmt.Print) program.get(1)).parts.get(0);
+        assertEquals("c2", ((Expr.Literal) outer.right).value);
+        Expr.Binary inner = (Expr.Binary) outer.left;
+        assertEquals("ab\n", ((Expr.Literal) inner.left).value);
+        assertInstanceOf(Expr.Variable.class, inner.right);
+        assertEquals("ab\n1c2", run("""
+            SUGOD
+            MUGNA NUMERO n = 1
+            IPAKITA: "a" & "b" & $ & n & "c" & 1 + 1
+            KATAPUSAN
+            """));
+    }
+
+    @Test
+    @DisplayName("x*1 and x-0 are removed only for TIPIK-valued x")
+    public void testSimplification() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            MUGNA NUMERO n = 3
+            n = (n + 0.5) * 1 - 0
+            n = n * 1
+            KATAPUSAN
+            """);
+        Expr.Assign floatAssign = (Expr.Assign) ((Stmt.ExprStmt) program.get(1)).expr;
+        assertInstanceOf(Expr.Grouping.class, floatAssign.value);
+        // NUMERO * 1 yields TIPIK, so it must stay
+        Expr.Assign intAssign = (Expr.Assign) ((Stmt.ExprStmt) program.get(2)).expr;
+        assertInstanceOf(Expr.Binary.class, intAssign.value);
+    }
+
+    @Test
+    @DisplayName("KUNG with a constant condition keeps only the branch taken")
+    public void testDeadBranches() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            KUNG (1 > 2)
+            PUNDOK{
+                IPAKITA: "no"
+            }
+            KUNG DILI ("OO")
+            PUNDOK{
+                IPAKITA: "yes"
+            }
+            KUNG (DILI "OO")
+            PUNDOK{
+                IPAKITA: "gone"
+            }
+            KATAPUSAN
+            """);
+        assertEquals(1, program.size());
+        assertInstanceOf(Stmt.Block.class, program.get(0));
+        assertEquals("yes", run("""
+            SUGOD
+            KUNG (1 > 2)
+            PUNDOK{
+                IPAKITA: "no"
+            }
+            KUNG DILI ("OO")
+            PUNDOK{
+                IPAKITA: "yes"
+            }
+            KATAPUSAN
+            """));
+    }
+
+    @Test
+    @DisplayName("Statements after a loop that never ends are dropped; DILI loops are removed")
+    public void testUnreachableStatements() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            MUGNA NUMERO i
+            SAMTANG (2 < 1)
+            PUNDOK{
+                i++
+            }
+            ALANG SA (i = 5, DILI "OO", i++)
+            PUNDOK{
+                IPAKITA: i
+            }
+            SAMTANG ("OO")
+            PUNDOK{
+                i++
+            }
+            IPAKITA: "unreachable"
+            KATAPUSAN
+            """);
+        assertEquals(3, program.size());
+        assertInstanceOf(Stmt.ExprStmt.class, program.get(1)); // ALANG SA initializer only
+        assertInstanceOf(Stmt.While.class, program.get(2));
+    }
+
+    @Test
+    @DisplayName("Expressions that fail at runtime are not folded away")
+    public void testErrorsStayAtRuntime() {
+        List<Stmt> program = optimize("""
+            SUGOD
+            IPAKITA: "before" & $
+            IPAKITA: 1 / 0
+            KATAPUSAN
+            """);
+        assertInstanceOf(Expr.Binary.class, ((Stmt.Print) program.get(1)).parts.get(0));
+
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> run("""
+            SUGOD
+            IPAKITA: "before" & $
+            IPAKITA: 1 / 0
+            KATAPUSAN
+            """));
+        assertTrue(ex.getMessage().contains("Division by zero."));
+        assertEquals("before\n", out.toString());
+    }
+}
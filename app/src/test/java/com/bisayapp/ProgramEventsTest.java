@@ -0,0 +1,82 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+/**
+ * Tests for the JFR phase events (ProgramEvents)
+ */
+public class ProgramEventsTest {
+
+    @Test
+    @DisplayName("A run records lex, parse, optimize, execute and DAWAT wait events with one program id")
+    public void testPhaseEvents() throws Exception {
+        String source = """
+            SUGOD
+            MUGNA NUMERO x
+            DAWAT: x
+            IPAKITA: x * 2
+            KATAPUSAN
+            """;
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(out), System.err,
+            new ByteArrayInputStream("21\n".getBytes(StandardCharsets.UTF_8)));
+
+        Path file = Files.createTempFile("bisaya-events", ".jfr");
+        try (Recording recording = new Recording()) {
+            for (String name : new String[] { "Lex", "Parse", "Optimize", "Execute", "InputWait" }) {
+                recording.enable("com.bisayapp." + name);
+            }
+            recording.start();
+            Bisaya.runSource(source, io);
+            recording.stop();
+            recording.dump(file);
+
+            List<RecordedEvent> events = RecordingFile.readAllEvents(file);
+            String id = ProgramEvents.idForSource(source);
+
+            RecordedEvent lex = single(events, "com.bisayapp.Lex");
+            assertEquals(id, lex.getString("programId"));
+            assertEquals(source.length(), lex.getInt("sourceLength"));
+            assertTrue(lex.getInt("tokenCount") > 10);
+
+            RecordedEvent parse = single(events, "com.bisayapp.Parse");
+            assertEquals(lex.getInt("tokenCount"), parse.getInt("tokenCount"));
+            assertEquals(3, parse.getInt("statementCount"));
+
+            assertEquals(1, single(events, "com.bisayapp.Optimize").getInt("slotCount"));
+
+            RecordedEvent execute = single(events, "com.bisayapp.Execute");
+            assertEquals("TREE_WALKER", execute.getString("engine"));
+            assertEquals(id, execute.getString("programId"));
+
+            RecordedEvent wait = single(events, "com.bisayapp.InputWait");
+            assertEquals(3, wait.getInt("line"));
+            assertEquals(1, wait.getInt("variableCount"));
+        } finally {
+            Files.deleteIfExists(file);
+        }
+        assertEquals("42", out.toString());
+    }
+
+    private static RecordedEvent single(List<RecordedEvent> events, String name) {
+        List<RecordedEvent> matching = events.stream()
+            .filter(e -> e.getEventType().getName().equals(name))
+            .toList();
+        assertEquals(1, matching.size(), name);
+        return matching.get(0);
+    }
+}
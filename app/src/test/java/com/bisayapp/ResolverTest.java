@@ -0,0 +1,108 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for the Resolver pass and slot-indexed Environment
+ */
+public class ResolverTest {
+
+    private List<Stmt> parse(String source) {
+        return new Parser(new Lexer(source).scanTokens()).parseProgram();
+    }
+
+    private String run(String source) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        new Interpreter(new PrintStream(out)).interpret(parse(source));
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Each distinct name gets one slot in order of first appearance")
+    public void testSlotsAssignedByName() {
+        List<Stmt> program = parse("""
+            SUGOD
+            MUGNA NUMERO a, b=1
+            a = b + 1
+            KATAPUSAN
+            """);
+        Resolver resolver = new Resolver();
+        assertEquals(2, resolver.resolve(program));
+
+        Stmt.VarDecl decl = (Stmt.VarDecl) program.get(0);
+        assertEquals(0, decl.items.get(0).slot);
+        assertEquals(1, decl.items.get(1).slot);
+
+        Expr.Assign assign = (Expr.Assign) ((Stmt.ExprStmt) program.get(1)).expr;
+        assertEquals(0, assign.slot);
+        Expr.Variable b = (Expr.Variable) ((Expr.Binary) assign.value).left;
+        assertEquals(1, b.slot);
+    }
+
+    @Test
+    @DisplayName("Names inside PUNDOK blocks share the single global namespace")
+    public void testBlocksShareSlots() {
+        List<Stmt> program = parse("""
+            SUGOD
+            MUGNA NUMERO ctr
+            ALANG SA (ctr=1, ctr<=3, ctr++)
+            PUNDOK{
+                IPAKITA: ctr
+            }
+            KATAPUSAN
+            """);
+        assertEquals(1, new Resolver().resolve(program));
+    }
+
+    @Test
+    @DisplayName("DAWAT targets are resolved to the declared slots")
+    public void testInputSlots() {
+        List<Stmt> program = parse("""
+            SUGOD
+            MUGNA NUMERO x, y
+            DAWAT: y, x
+            KATAPUSAN
+            """);
+        new Resolver().resolve(program);
+        Stmt.Input input = (Stmt.Input) program.get(1);
+        assertArrayEquals(new int[] {1, 0}, input.slots);
+    }
+
+    @Test
+    @DisplayName("Slot-indexed storage keeps nested loop results unchanged")
+    public void testNestedLoopsWithSlots() {
+        String output = run("""
+            SUGOD
+            MUGNA NUMERO row, col, product
+            ALANG SA (row=1, row<=3, row++)
+            PUNDOK{
+                ALANG SA (col=1, col<=3, col++)
+                PUNDOK{
+                    product = row * col
+                    IPAKITA: product & " "
+                }
+                IPAKITA: $
+            }
+            KATAPUSAN
+            """);
+        assertEquals("1 2 3 \n2 4 6 \n3 6 9 \n", output);
+    }
+
+    @Test
+    @DisplayName("Use before MUGNA is still reported at runtime")
+    public void testUseBeforeDeclarationStillFails() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> run("""
+            SUGOD
+            IPAKITA: x
+            MUGNA NUMERO x = 1
+            KATAPUSAN
+            """));
+        assertTrue(ex.getMessage().contains("Undefined variable 'x'"));
+    }
+}
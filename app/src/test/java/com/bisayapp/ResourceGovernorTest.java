@@ -0,0 +1,119 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.time.Duration;
+
+/**
+ * Tests for per-run step, output and time limits (ResourceGovernor)
+ */
+public class ResourceGovernorTest {
+
+    private static final String INFINITE_LOOP = """
+        SUGOD
+        MUGNA NUMERO i=0
+        SAMTANG (1 == 1)
+        PUNDOK{
+            i++
+        }
+        KATAPUSAN
+        """;
+
+    private String run(String source, ExecutionEngine engine, ResourceGovernor governor) {
+        StringBuilder out = new StringBuilder();
+        IOHandler io = new IOHandler() {
+            @Override public void writeOutput(String text) { out.append(text); }
+            @Override public void writeError(String error) { out.append(error); }
+            @Override public String readInput(String prompt) { return ""; }
+            @Override public boolean hasInput() { return false; }
+        };
+        Parser parser = new Parser(new Lexer(source).scanTokens());
+        try {
+            new Interpreter(io, governor).interpret(parser.parseProgram(), engine);
+        } catch (ResourceLimitException e) {
+            return out + "|LIMIT: " + e.getMessage();
+        }
+        return out.toString();
+    }
+
+    @Test
+    @DisplayName("Step budget stops an infinite loop after the same number of iterations on both engines")
+    public void testStepLimit() {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            ResourceGovernor governor = new ResourceGovernor(5000, 0, null);
+            String out = run(INFINITE_LOOP, engine, governor);
+            assertTrue(out.contains("|LIMIT: ") && out.contains("step limit of 5000"), engine + ": " + out);
+            assertEquals(5001, governor.steps(), engine.toString());
+        }
+    }
+
+    @Test
+    @DisplayName("Programs within the step budget run normally")
+    public void testWithinStepLimit() {
+        String source = """
+            SUGOD
+            MUGNA NUMERO i, s=0
+            ALANG SA (i=1, i<=10, i++)
+            PUNDOK{
+                s = s + i
+            }
+            IPAKITA: s
+            KATAPUSAN
+            """;
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            ResourceGovernor governor = new ResourceGovernor(10, 0, null);
+            assertEquals("55", run(source, engine, governor));
+            assertEquals(10, governor.steps());
+        }
+    }
+
+    @Test
+    @DisplayName("Output cap counts UTF-8 bytes and keeps everything printed before the limit")
+    public void testOutputLimit() {
+        String source = """
+            SUGOD
+            MUGNA NUMERO i
+            ALANG SA (i=1, i<=100, i++)
+            PUNDOK{
+                IPAKITA: "ñ"
+            }
+            KATAPUSAN
+            """;
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            String out = run(source, engine, new ResourceGovernor(0, 11, null));
+            assertEquals("ñññññ|LIMIT: Execution stopped: output limit of 11 bytes exceeded.", out);
+        }
+    }
+
+    @Test
+    @DisplayName("Deadline stops a loop that the step budget would not")
+    public void testTimeLimit() {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            String out = run(INFINITE_LOOP, engine, new ResourceGovernor(0, 0, Duration.ofMillis(50)));
+            assertTrue(out.contains("time limit of 50 ms"), engine + ": " + out);
+        }
+    }
+
+    @Test
+    @DisplayName("Cancelling from another thread stops a running loop on both engines")
+    public void testCancel() throws Exception {
+        for (ExecutionEngine engine : ExecutionEngine.values()) {
+            ResourceGovernor governor = ResourceGovernor.unlimited();
+            Thread canceller = new Thread(() -> {
+                try {
+                    Thread.sleep(20);
+                } catch (InterruptedException e) {
+                    // cancel right away
+                }
+                governor.cancel();
+            });
+            canceller.start();
+            String out = run(INFINITE_LOOP, engine, governor);
+            canceller.join();
+            assertTrue(governor.isCancelled());
+            assertEquals("|LIMIT: Execution stopped by user.", out, engine.toString());
+        }
+    }
+}
@@ -0,0 +1,178 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for typed subtrees built by the Specializer
+ */
+public class SpecializerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+    private final Interpreter interpreter = new Interpreter(new PrintStream(out));
+
+    private List<Stmt> parse(String source) {
+        return new Parser(new Lexer(source).scanTokens()).parseProgram();
+    }
+
+    private List<Stmt> specialize(String source) {
+        List<Stmt> program = new TypeChecker().check(parse(source));
+        return new Specializer(TypeChecker.declaredTypes(program)).specialize(program);
+    }
+
+    private static Expr part(List<Stmt> program, int statement) {
+        return ((Stmt.Print) program.get(statement)).parts.get(0);
+    }
+
+    @Test
+    @DisplayName("Subtrees typed by their declarations get one node per operator and operand type")
+    public void testNodesFollowDeclarations() {
+        List<Stmt> program = specialize("""
+            SUGOD
+            MUGNA NUMERO a=2, b=3
+            MUGNA TIPIK f=1.5
+            MUGNA TINUOD ok="OO"
+            IPAKITA: a * b
+            IPAKITA: f * b
+            IPAKITA: a < b UG DILI ok
+            a++
+            KATAPUSAN
+            """);
+
+        Expr.Typed product = (Expr.Typed) part(program, 3);
+        assertInstanceOf(Specialized.IntMultiply.class, product.node);
+        assertEquals(2, product.reads.length);
+        assertInstanceOf(Specialized.FloatMultiply.class, ((Expr.Typed) part(program, 4)).node);
+        assertInstanceOf(Specialized.And.class, ((Expr.Typed) part(program, 5)).node);
+
+        Expr.Typed increment = (Expr.Typed) ((Stmt.ExprStmt) program.get(6)).expr;
+        assertInstanceOf(Specialized.IntIncrement.class, increment.node);
+        assertInstanceOf(Expr.Postfix.class, increment.generic);
+    }
+
+    @Test
+    @DisplayName("Numeric values stored into NUMERO and TIPIK variables become typed stores")
+    public void testStores() {
+        List<Stmt> program = specialize("""
+            SUGOD
+            MUGNA NUMERO a, b
+            MUGNA TIPIK f
+            MUGNA LETRA c
+            a = b * 2
+            a = a + b
+            f = a / b
+            f = f * 2
+            c = 'x'
+            KATAPUSAN
+            """);
+        Expr.Typed widened = (Expr.Typed) ((Stmt.ExprStmt) program.get(3)).expr;
+        // NUMERO * decimal literal is TIPIK: it is checked for a fraction when stored
+        assertInstanceOf(Specialized.StoreFloatAsInt.class, widened.node);
+        assertSame(widened.generic, widened.target);
+        assertEquals(TokenType.NUMERO, widened.targetType);
+        assertInstanceOf(Specialized.StoreInt.class, ((Expr.Typed) ((Stmt.ExprStmt) program.get(4)).expr).node);
+        assertInstanceOf(Specialized.StoreIntAsFloat.class, ((Expr.Typed) ((Stmt.ExprStmt) program.get(5)).expr).node);
+        assertInstanceOf(Specialized.StoreFloat.class, ((Expr.Typed) ((Stmt.ExprStmt) program.get(6)).expr).node);
+        assertInstanceOf(Expr.Assign.class, ((Stmt.ExprStmt) program.get(7)).expr);
+    }
+
+    @Test
+    @DisplayName("A typed store keeps the NUMERO fraction check and the assignment's value")
+    public void testStoreSemantics() {
+        String source = """
+            SUGOD
+            MUGNA NUMERO a=3, b
+            MUGNA TIPIK f
+            f = a / 2
+            b = a * 2
+            IPAKITA: f & " " & b & $
+            b = a * 0.5
+            KATAPUSAN
+            """;
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> interpreter.interpret(parse(source)));
+        assertEquals("1.5 6\n", out.toString());
+        assertTrue(ex.getMessage().contains("NUMERO cannot have decimal values"), ex.getMessage());
+    }
+
+    @Test
+    @DisplayName("Text, characters and bare operands stay generic; typed operands of & are wrapped")
+    public void testUntypedNodesStayGeneric() {
+        List<Stmt> program = specialize("""
+            SUGOD
+            MUGNA NUMERO a=2
+            MUGNA LETRA c='x'
+            IPAKITA: a
+            IPAKITA: (a)
+            IPAKITA: c & a
+            IPAKITA: a & (a + 1)
+            KATAPUSAN
+            """);
+
+        assertInstanceOf(Expr.Variable.class, part(program, 2));
+        assertInstanceOf(Expr.Grouping.class, part(program, 3));
+        Expr.Binary concat = (Expr.Binary) part(program, 4);
+        assertInstanceOf(Expr.Variable.class, concat.right);
+
+        Expr.Binary mixed = (Expr.Binary) part(program, 5);
+        assertInstanceOf(Expr.Variable.class, mixed.left);
+        assertInstanceOf(Specialized.FloatAdd.class, ((Expr.Typed) mixed.right).node);
+    }
+
+    @Test
+    @DisplayName("The parsed program is not modified")
+    public void testInputNotModified() {
+        List<Stmt> program = parse("""
+            SUGOD
+            MUGNA NUMERO a=2
+            IPAKITA: a * 2
+            KATAPUSAN
+            """);
+        Expr original = part(program, 1);
+        List<Stmt> specialized = new Specializer(TypeChecker.declaredTypes(program)).specialize(program);
+
+        assertNotSame(program, specialized);
+        assertSame(original, part(program, 1));
+        assertSame(original, ((Expr.Typed) part(specialized, 1)).generic);
+    }
+
+    @Test
+    @DisplayName("A failed guard rewrites the node to its generic form, which reports the error")
+    public void testGuardFailureFallsBackToGeneric() {
+        List<Stmt> program = specialize("""
+            SUGOD
+            MUGNA NUMERO x
+            IPAKITA: x == 0
+            KATAPUSAN
+            """);
+        Expr.Typed compare = (Expr.Typed) part(program, 1);
+        assertNotNull(compare.node);
+
+        interpreter.interpret(program);
+        assertEquals("DILI", out.toString());
+        assertNull(compare.node);
+    }
+
+    @Test
+    @DisplayName("Typed nodes keep division by zero and float comparison rules")
+    public void testSpecializedSemantics() {
+        String source = """
+            SUGOD
+            MUGNA NUMERO i, z=0, big=16777217, big2=16777216
+            MUGNA TIPIK t=0.0
+            ALANG SA (i=1, i<=3, i++)
+            PUNDOK{
+                IPAKITA: (big == big2) & (t == -t) & (i * 1.5) & $
+            }
+            IPAKITA: i / z
+            KATAPUSAN
+            """;
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> interpreter.interpret(parse(source)));
+        assertEquals("OOOO1.5\nOOOO3\nOOOO4.5\n", out.toString());
+        assertTrue(ex.getMessage().contains("Division by zero."));
+    }
+}
@@ -0,0 +1,123 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.io.StringReader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Tests for the pull-mode Lexer reading a Reader and the Parser pulling from it
+ */
+public class StreamingLexerTest {
+
+    private static final String PROGRAM = """
+        SUGOD
+        @@ every kind of token
+        MUGNA NUMERO x = 12, y = 2.5E1
+        MUGNA LETRA c = 'z'
+        MUGNA TINUOD ok = "OO"
+        KUNG (x <> y UG DILI (x >= 100))
+        PUNDOK{
+            IPAKITA: [[] & x & "-" & y & []] & c & $
+        }
+        x++
+        IPAKITA: x % 5 & [&] & ok
+        KATAPUSAN
+        """;
+
+    @Test
+    @DisplayName("nextToken() on a Reader yields the same tokens as scanTokens()")
+    public void testSameTokens() {
+        List<Token> expected = new Lexer(PROGRAM).scanTokens();
+        List<Token> pulled = pullAll(new Lexer(new StringReader(PROGRAM)));
+
+        assertEquals(expected.size(), pulled.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), pulled.get(i).toString(), "token " + i);
+            assertEquals(expected.get(i).line, pulled.get(i).line, "token " + i);
+            assertEquals(expected.get(i).col, pulled.get(i).col, "token " + i);
+            assertEquals(expected.get(i).start(), pulled.get(i).start(), "token " + i);
+        }
+    }
+
+    @Test
+    @DisplayName("nextToken() keeps returning EOF after the end")
+    public void testEofRepeats() {
+        Lexer lexer = new Lexer(new StringReader("SUGOD"));
+        assertEquals(TokenType.SUGOD, lexer.nextToken().type);
+        assertEquals(TokenType.EOF, lexer.nextToken().type);
+        assertEquals(TokenType.EOF, lexer.nextToken().type);
+    }
+
+    @Test
+    @DisplayName("Parser pulling from a Reader gives the same program as from a token list")
+    public void testParserPulls() {
+        String fromList = run(new Parser(new Lexer(PROGRAM).scanTokens()).parseProgram());
+        String pulled = run(new Parser(new Lexer(new StringReader(PROGRAM))).parseProgram());
+        assertEquals("[12-25]z\n3&OO", fromList);
+        assertEquals(fromList, pulled);
+    }
+
+    @Test
+    @DisplayName("Syntax errors while pulling name the same line and column")
+    public void testErrorPosition() {
+        String source = "SUGOD\nMUGNA NUMERO x\nx = (1 + \nKATAPUSAN\n";
+        String fromList = assertThrows(RuntimeException.class,
+            () -> new Parser(new Lexer(source).scanTokens()).parseProgram()).getMessage();
+        String pulled = assertThrows(RuntimeException.class,
+            () -> new Parser(new Lexer(new StringReader(source))).parseProgram()).getMessage();
+        assertTrue(pulled.startsWith("[line 3"), pulled);
+        assertEquals(fromList, pulled);
+    }
+
+    @Test
+    @DisplayName("Large sources stream past the read chunk and window sizes")
+    public void testLargeSource() {
+        String source = CorpusGenerator.generate(CorpusGenerator.Shape.DECLARATIONS, 5000);
+        List<Token> expected = new Lexer(source).scanTokens();
+        List<Token> pulled = pullAll(new Lexer(new StringReader(source)));
+
+        assertEquals(expected.size(), pulled.size());
+        for (int i = 0; i < expected.size(); i++) {
+            assertEquals(expected.get(i).toString(), pulled.get(i).toString(), "token " + i);
+        }
+        assertEquals(5000 + 1, new Parser(new Lexer(new StringReader(source))).parseProgram().size());
+    }
+
+    @Test
+    @DisplayName("Tokens split across Reader reads are lexed whole")
+    public void testTokenAcrossReads() {
+        String text = "x".repeat(20000);
+        String source = "SUGOD\nIPAKITA: \"" + text + "\"\nKATAPUSAN\n";
+        assertEquals(text, run(new Parser(new Lexer(new StringReader(source))).parseProgram()));
+    }
+
+    @Test
+    @DisplayName("scanTokenBuffer() needs an in-memory source")
+    public void testBufferNeedsString() {
+        assertThrows(IllegalStateException.class, () -> new Lexer(new StringReader(PROGRAM)).scanTokenBuffer());
+    }
+
+    private static List<Token> pullAll(Lexer lexer) {
+        List<Token> tokens = new ArrayList<>();
+        Token token;
+        do {
+            token = lexer.nextToken();
+            tokens.add(token);
+        } while (token.type != TokenType.EOF);
+        return tokens;
+    }
+
+    private String run(List<Stmt> program) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(out), System.err, new ByteArrayInputStream(new byte[0]));
+        new Interpreter(io).interpret(program);
+        return out.toString();
+    }
+}
@@ -0,0 +1,88 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for the packed token buffer and the Parser reading it
+ */
+public class TokenBufferTest {
+
+    private static final String PROGRAM = """
+        SUGOD
+        @@ every kind of token
+        MUGNA NUMERO x = 12, y = 2.5E1
+        MUGNA LETRA c = 'z'
+        MUGNA TINUOD ok = "OO"
+        KUNG (x <> y UG DILI (x >= 100))
+        PUNDOK{
+            IPAKITA: [[] & x & "-" & y & []] & c & $
+        }
+        x++
+        IPAKITA: x % 5 & [&] & ok
+        KATAPUSAN
+        """;
+
+    @Test
+    @DisplayName("Packed buffer holds the same tokens as scanTokens()")
+    public void testSameTokens() {
+        List<Token> list = new Lexer(PROGRAM).scanTokens();
+        TokenBuffer buffer = new Lexer(PROGRAM).scanTokenBuffer();
+
+        assertEquals(list.size(), buffer.size());
+        for (int i = 0; i < list.size(); i++) {
+            Token expected = list.get(i);
+            assertEquals(expected.type, buffer.type(i), "token " + i);
+            assertEquals(expected.lexeme(), buffer.lexeme(i), "token " + i);
+            assertEquals(expected.literal, buffer.literal(i), "token " + i);
+            assertEquals(expected.line, buffer.line(i), "token " + i);
+            assertEquals(expected.col, buffer.col(i), "token " + i);
+            assertEquals(expected.start(), buffer.start(i), "token " + i);
+            assertEquals(expected.toString(), buffer.token(i).toString(), "token " + i);
+        }
+        assertEquals(TokenType.EOF, buffer.type(buffer.size() - 1));
+    }
+
+    @Test
+    @DisplayName("Parser gives the same program from a buffer as from a token list")
+    public void testParserReadsBuffer() {
+        String fromList = run(new Parser(new Lexer(PROGRAM).scanTokens()).parseProgram());
+        String fromBuffer = run(new Parser(new Lexer(PROGRAM).scanTokenBuffer()).parseProgram());
+        assertEquals("[12-25]z\n3&OO", fromList);
+        assertEquals(fromList, fromBuffer);
+    }
+
+    @Test
+    @DisplayName("Syntax errors from a buffer name the same line and column")
+    public void testErrorPosition() {
+        String source = "SUGOD\nMUGNA NUMERO x\nx = (1 + \nKATAPUSAN\n";
+        String fromList = assertThrows(RuntimeException.class,
+            () -> new Parser(new Lexer(source).scanTokens()).parseProgram()).getMessage();
+        String fromBuffer = assertThrows(RuntimeException.class,
+            () -> new Parser(new Lexer(source).scanTokenBuffer()).parseProgram()).getMessage();
+        assertTrue(fromBuffer.startsWith("[line 3"), fromBuffer);
+        assertEquals(fromList, fromBuffer);
+    }
+
+    @Test
+    @DisplayName("Buffer grows past its initial capacity")
+    public void testGrowth() {
+        String source = CorpusGenerator.generate(CorpusGenerator.Shape.DECLARATIONS, 500);
+        TokenBuffer buffer = new Lexer(source).scanTokenBuffer();
+        assertEquals(new Lexer(source).scanTokens().size(), buffer.size());
+        assertEquals(500 + 1, new Parser(buffer).parseProgram().size());
+    }
+
+    private String run(List<Stmt> program) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(out), System.err, new ByteArrayInputStream(new byte[0]));
+        new Interpreter(io).interpret(program);
+        return out.toString();
+    }
+}
@@ -0,0 +1,134 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+/**
+ * Tests for the static TypeChecker pass
+ */
+public class TypeCheckerTest {
+
+    private final ByteArrayOutputStream out = new ByteArrayOutputStream();
+
+    private List<Stmt> parse(String source) {
+        return new Parser(new Lexer(source).scanTokens()).parseProgram();
+    }
+
+    private List<Stmt> check(String source) {
+        return new TypeChecker().check(parse(source));
+    }
+
+    private void run(String source) {
+        new Interpreter(new PrintStream(out)).interpret(parse(source));
+    }
+
+    @Test
+    @DisplayName("A decimal literal into NUMERO fails before any output")
+    public void testNumeroDecimalBeforeExecution() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> run("""
+            SUGOD
+            MUGNA NUMERO n
+            IPAKITA: "start"
+            n = 3.5
+            KATAPUSAN
+            """));
+        assertTrue(ex.getMessage().contains("NUMERO cannot have decimal values"));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    @DisplayName("LETRA length is checked before execution, even in branches not taken")
+    public void testLetraLengthBeforeExecution() {
+        RuntimeException ex = assertThrows(RuntimeException.class, () -> run("""
+            SUGOD
+            MUGNA LETRA c='a'
+            MUGNA NUMERO x=1
+            IPAKITA: c
+            KUNG (x > 5)
+            PUNDOK{
+                c = "ab"
+            }
+            KATAPUSAN
+            """));
+        assertTrue(ex.getMessage().contains("LETRA can only hold one character"));
+        assertEquals("", out.toString());
+    }
+
+    @Test
+    @DisplayName("Literal initializers and assignments are pre-coerced to the declared type")
+    public void testPreCoercedLiterals() {
+        List<Stmt> program = check("""
+            SUGOD
+            MUGNA NUMERO n = 5
+            MUGNA TIPIK t
+            MUGNA TINUOD b = "OO"
+            t = 2
+            KATAPUSAN
+            """);
+        assertEquals(5, ((Expr.Literal) ((Stmt.VarDecl) program.get(0)).items.get(0).init).value);
+        assertEquals(true, ((Expr.Literal) ((Stmt.VarDecl) program.get(2)).items.get(0).init).value);
+        Expr.Assign assign = (Expr.Assign) ((Stmt.ExprStmt) program.get(3)).expr;
+        assertEquals(2.0f, ((Expr.Literal) assign.value).value);
+    }
+
+    @Test
+    @DisplayName("The parsed program is left unchanged, so it can be run again")
+    public void testProgramNotModified() {
+        List<Stmt> program = parse("""
+            SUGOD
+            MUGNA NUMERO n = 5
+            MUGNA TIPIK t
+            KUNG (n > 1)
+            PUNDOK{
+                t = 2
+            }
+            IPAKITA: n & " " & t
+            KATAPUSAN
+            """);
+        Stmt.VarDecl decl = (Stmt.VarDecl) program.get(0);
+        Stmt.If branch = (Stmt.If) program.get(2);
+        Expr.Assign assign = (Expr.Assign) ((Stmt.ExprStmt) ((Stmt.Block) branch.thenBranch).statements.get(0)).expr;
+        Expr value = assign.value;
+
+        List<Stmt> checked = new TypeChecker().check(program);
+        assertNotSame(program, checked);
+        assertSame(program.get(1), checked.get(1));
+        assertNotSame(decl, checked.get(0));
+
+        new Interpreter(new PrintStream(out)).interpret(program);
+        new Interpreter(new PrintStream(out)).interpret(program);
+        assertEquals("5 25 2", out.toString());
+
+        assertSame(decl, program.get(0));
+        assertEquals(5.0, ((Expr.Literal) decl.items.get(0).init).value);
+        assertSame(branch, program.get(2));
+        assertSame(value, assign.value);
+        assertEquals(2.0, ((Expr.Literal) assign.value).value);
+    }
+
+    @Test
+    @DisplayName("Names declared with different types are left to the runtime")
+    public void testConflictingDeclarations() {
+        List<Stmt> program = check("""
+            SUGOD
+            MUGNA NUMERO k = 1
+            KUNG (k > 0)
+            PUNDOK{
+                MUGNA TIPIK v
+            }
+            KUNG WALA
+            PUNDOK{
+                MUGNA NUMERO v
+            }
+            v = 1.5
+            KATAPUSAN
+            """);
+        Expr.Assign assign = (Expr.Assign) ((Stmt.ExprStmt) program.get(2)).expr;
+        assertEquals(1.5, ((Expr.Literal) assign.value).value);
+    }
+}
@@ -0,0 +1,219 @@
+package com.bisayapp;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.DisplayName;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Tests for the bytecode compiler and VM.
+ * Each program is run on both engines and the results must match exactly.
+ */
+public class VirtualMachineTest {
+
+    private String run(String source, String input, ExecutionEngine engine) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ByteArrayInputStream in = new ByteArrayInputStream(input.getBytes(StandardCharsets.UTF_8));
+        Parser parser = new Parser(new Lexer(source).scanTokens());
+        try {
+            new Interpreter(new PrintStream(out), in).interpret(parser.parseProgram(), engine);
+        } catch (RuntimeException e) {
+            return out + "|ERROR: " + e.getMessage();
+        }
+        return out.toString();
+    }
+
+    private String assertSameOnBothEngines(String source, String input) {
+        String tree = run(source, input, ExecutionEngine.TREE_WALKER);
+        String vm = run(source, input, ExecutionEngine.BYTECODE_VM);
+        assertEquals(tree, vm);
+        return vm;
+    }
+
+    private String assertSameOnBothEngines(String source) {
+        return assertSameOnBothEngines(source, "");
+    }
+
+    @Test
+    @DisplayName("VM - arithmetic, concatenation and printing")
+    public void testArithmetic() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO a=10, b=3
+            MUGNA TIPIK c=2.5
+            IPAKITA: a+b & " " & a-b & " " & a*b & " " & a/b & " " & a%b & $
+            IPAKITA: c*2 & " " & -a & " " & (a+b)*2 & $
+            KATAPUSAN
+            """);
+        assertEquals("13 7 30 3 1\n5 -10 26\n", out);
+    }
+
+    @Test
+    @DisplayName("VM - KUNG / KUNG DILI / KUNG WALA chain")
+    public void testIfChain() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO score=85
+            KUNG (score >= 90)
+            PUNDOK{
+                IPAKITA: "A"
+            }
+            KUNG DILI (score >= 80)
+            PUNDOK{
+                IPAKITA: "B"
+            }
+            KUNG WALA
+            PUNDOK{
+                IPAKITA: "C"
+            }
+            KATAPUSAN
+            """);
+        assertEquals("B", out);
+    }
+
+    @Test
+    @DisplayName("VM - nested ALANG SA and SAMTANG loops")
+    public void testLoops() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO i, j, n=3
+            ALANG SA (i=1, i<=n, i++)
+            PUNDOK{
+                j = 0
+                SAMTANG (j < i)
+                PUNDOK{
+                    IPAKITA: "*"
+                    j++
+                }
+                IPAKITA: $
+            }
+            KATAPUSAN
+            """);
+        assertEquals("*\n**\n***\n", out);
+    }
+
+    @Test
+    @DisplayName("VM - UG / O short-circuit and DILI")
+    public void testLogical() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA TINUOD t="OO", f="DILI"
+            MUGNA NUMERO x=0
+            IPAKITA: (t UG f) & " " & (t O f) & " " & (DILI f) & $
+            KUNG (f UG x/0 > 1)
+            PUNDOK{
+                IPAKITA: "never"
+            }
+            KUNG (t O x/0 > 1)
+            PUNDOK{
+                IPAKITA: "short"
+            }
+            KATAPUSAN
+            """);
+        assertEquals("DILI OO OO\nshort", out);
+    }
+
+    @Test
+    @DisplayName("VM - prefix and postfix increment/decrement")
+    public void testIncrementDecrement() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO a=5, b
+            b = a++
+            IPAKITA: a & " " & b & $
+            b = --a
+            IPAKITA: a & " " & b
+            KATAPUSAN
+            """);
+        assertEquals("6 5\n5 5", out);
+    }
+
+    @Test
+    @DisplayName("VM - DAWAT input")
+    public void testInput() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO x, y
+            MUGNA LETRA c
+            DAWAT: x, y, c
+            IPAKITA: x + y & c
+            KATAPUSAN
+            """, "4, 5, z\n");
+        assertEquals("9z", out);
+    }
+
+    @Test
+    @DisplayName("VM - runtime errors match the tree walker")
+    public void testRuntimeErrors() {
+        assertTrue(assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO x=1
+            IPAKITA: "before" & $
+            x = x / 0
+            KATAPUSAN
+            """).contains("Division by zero"));
+
+        assertTrue(assertSameOnBothEngines("""
+            SUGOD
+            IPAKITA: y
+            KATAPUSAN
+            """).contains("Undefined variable 'y'"));
+
+        assertTrue(assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO n=1
+            KUNG (n)
+            PUNDOK{
+                IPAKITA: n
+            }
+            KATAPUSAN
+            """).contains("cannot be used as boolean condition"));
+
+        assertTrue(assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO n=1
+            MUGNA NUMERO n=2
+            KATAPUSAN
+            """).contains("already declared"));
+    }
+
+    @Test
+    @DisplayName("VM - Bisaya.runSource can select the bytecode engine")
+    public void testRunSourceWithEngine() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        IOHandler io = new ConsoleIOHandler(new PrintStream(out), System.err, System.in);
+        Bisaya.runSource("""
+            SUGOD
+            MUGNA NUMERO s=0, i
+            ALANG SA (i=1, i<=100, i++)
+            PUNDOK{
+                s = s + i
+            }
+            IPAKITA: s
+            KATAPUSAN
+            """, io, ExecutionEngine.BYTECODE_VM);
+        assertEquals("5050", out.toString());
+    }
+
+    @Test
+    @DisplayName("VM - unboxed NUMERO/TIPIK arithmetic keeps type and overflow rules")
+    public void testUnboxedNumbers() {
+        String out = assertSameOnBothEngines("""
+            SUGOD
+            MUGNA NUMERO big=2147483647, n=7, one=1
+            MUGNA TIPIK f=1.5
+            big = big + one
+            f = f * n
+            n = n - 4
+            IPAKITA: big & " " & f & " " & n & " " & (n + f) & " " & (n == 3.0) & $
+            n = f
+            KATAPUSAN
+            """);
+        assertTrue(out.startsWith("-2147483648 10.5 3 13.5 OO\n"));
+        assertTrue(out.contains("NUMERO cannot have decimal values"));
+    }
+}
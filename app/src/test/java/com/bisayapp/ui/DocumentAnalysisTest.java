@@ -0,0 +1,91 @@
+package com.bisayapp.ui;
+
+import com.bisayapp.CompileException;
+import com.bisayapp.Lexer;
+import com.bisayapp.Stmt;
+import com.bisayapp.Token;
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.List;
+
+/**
+ * Unit tests for DocumentAnalysis
+ */
+class DocumentAnalysisTest {
+
+    private static final String PROGRAM = "SUGOD\nMUGNA NUMERO x=5\nIPAKITA: x\nKATAPUSAN";
+
+    @Test
+    void testResultIsReusedUntilEdited() {
+        DocumentAnalysis analysis = new DocumentAnalysis();
+        DocumentAnalysis.Result first = analysis.current(PROGRAM);
+        assertSame(first, analysis.current(PROGRAM));
+        List<Stmt> program = first.program();
+        assertSame(program, first.program());
+        assertEquals(2, program.size());
+
+        analysis.edited();
+        DocumentAnalysis.Result second = analysis.current(PROGRAM);
+        assertNotSame(first, second);
+        assertEquals(analysis.version(), second.version());
+    }
+
+    @Test
+    void testPrefetchIsUsedByLaterCallers() {
+        DocumentAnalysis analysis = new DocumentAnalysis();
+        long version = analysis.edited();
+        analysis.prefetch(version, PROGRAM);
+        DocumentAnalysis.Result result = analysis.analyze(version, PROGRAM);
+        assertSame(result, analysis.current(PROGRAM));
+        assertEquals(new Lexer(PROGRAM).scanTokens().size(), result.tokens().size());
+    }
+
+    @Test
+    void testOutdatedVersionIsNotCached() {
+        DocumentAnalysis analysis = new DocumentAnalysis();
+        long old = analysis.version();
+        analysis.edited();
+        DocumentAnalysis.Result stale = analysis.analyze(old, PROGRAM);
+        assertEquals(old, stale.version());
+        assertNotSame(stale, analysis.current(PROGRAM));
+    }
+
+    @Test
+    void testErrorsMatchRunSource() {
+        DocumentAnalysis analysis = new DocumentAnalysis();
+        DocumentAnalysis.Result lexical = analysis.current("SUGOD\nIPAKITA: #\nKATAPUSAN");
+        CompileException lexicalError = assertThrows(CompileException.class, lexical::program);
+        assertEquals("Lexical errors found", lexicalError.getMessage());
+        assertEquals("[line 2 col 4] Error: Unexpected character: #",
+                     lexicalError.diagnostics().errors().get(0).toString());
+
+        analysis.edited();
+        DocumentAnalysis.Result syntax = analysis.current("SUGOD\nMUGNA NUMERO\nKATAPUSAN");
+        CompileException syntaxError = assertThrows(CompileException.class, syntax::program);
+        assertEquals("Syntax errors found", syntaxError.getMessage());
+        assertEquals(2, syntaxError.diagnostics().errors().get(0).line());
+        assertSame(syntaxError, assertThrows(RuntimeException.class, syntax::program));
+    }
+
+    @Test
+    void testCompileErrorsAreFormattedWithTheirLines() {
+        String input = "SUGOD\nIPAKITA: #\nKATAPUSAN";
+        CompileException error = assertThrows(CompileException.class,
+                                              new DocumentAnalysis().current(input)::program);
+        String formatted = ErrorFormatter.formatCompileErrors(error.diagnostics(), input);
+        assertTrue(formatted.contains("[line 2 col 4] Error: Unexpected character: #"), formatted);
+        assertTrue(formatted.contains("→   2 | IPAKITA: #"), formatted);
+    }
+
+    @Test
+    void testFormatterUsesSharedTokens() {
+        String input = "SUGOD\nx=5\nKUNG (x>0)\nPUNDOK{\nIPAKITA: x\n}\nKATAPUSAN";
+        List<Token> tokens = new DocumentAnalysis().current(input).tokens();
+        assertEquals(PrettyPrinter.format(input), PrettyPrinter.format(input, tokens));
+        int start = input.indexOf("KUNG");
+        int end = input.indexOf("}") + 1;
+        assertEquals(PrettyPrinter.formatSelection(input, start, end),
+            PrettyPrinter.formatSelection(input, tokens, start, end));
+    }
+}
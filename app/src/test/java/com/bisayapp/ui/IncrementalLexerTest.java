@@ -0,0 +1,191 @@
+package com.bisayapp.ui;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * Unit tests for IncrementalLexer
+ */
+class IncrementalLexerTest {
+
+    private static final String PROGRAM = String.join("\n",
+        "SUGOD",
+        "    @@ comment with \"quotes\" and 'apostrophes'",
+        "    MUGNA NUMERO x = 12, y = 2.5E1",
+        "    MUGNA LETRA c = 'z'",
+        "    IPAKITA: \"one",
+        "two\" & x1 & [&] & $",
+        "    KUNG (x <> y UG DILI (x >= 100))",
+        "    PUNDOK{",
+        "        x++",
+        "    }",
+        "KATAPUSAN");
+
+    @Test
+    void testLineStyles() {
+        assertEquals(List.of(
+                span("builtin", 5), span(null, 1), span("datatype", 6), span(null, 3),
+                span("operator", 1), span(null, 1), span("number", 2), span("operator", 1),
+                span(null, 3), span("operator", 1), span(null, 1), span("number", 5)),
+            scan("MUGNA NUMERO x = 12, y = 2.5E1"));
+        assertEquals(List.of(span("keyword", 4), span(null, 1), span("operator", 1), span(null, 3),
+                span("operator", 2), span(null, 1), span("comment", 7)),
+            scan("KUNG ( x <> @@ note"));
+        assertEquals(List.of(span(null, 3), span("number", 1), span(null, 7)), scan("x1 1abc SAx"));
+    }
+
+    @Test
+    void testStringsSpanLines() {
+        List<List<IncrementalLexer.Span>> styles = fullScan(PROGRAM);
+        assertEquals(List.of(span(null, 4), span("builtin", 7), span("operator", 1), span(null, 1), span("string", 4)),
+            styles.get(4));
+        assertEquals("string", styles.get(5).get(0).style());
+        assertEquals(4, styles.get(5).get(0).length());
+        // Quotes inside a comment do not open a string
+        assertEquals(List.of(span(null, 4), span("comment", 42)), styles.get(1));
+        assertEquals("keyword", styles.get(6).get(1).style());
+    }
+
+    @Test
+    void testEditRestylesOnlyTouchedLines() {
+        IncrementalLexer lexer = new IncrementalLexer();
+        List<String> lines = new ArrayList<>(Arrays.asList(PROGRAM.split("\n", -1)));
+        lexer.reset(lines.size());
+        lexer.restyle(lines::get);
+
+        lines.set(8, "        x--");
+        lexer.edited(8, 0, 0);
+        IncrementalLexer.Restyle restyle = lexer.restyle(lines::get);
+        assertEquals(8, restyle.firstLine());
+        assertEquals(1, restyle.spans().size());
+        assertNull(lexer.restyle(lines::get));
+    }
+
+    @Test
+    void testOpeningQuoteRestylesFollowingLines() {
+        IncrementalLexer lexer = new IncrementalLexer();
+        List<String> lines = new ArrayList<>(Arrays.asList(PROGRAM.split("\n", -1)));
+        lexer.reset(lines.size());
+        lexer.restyle(lines::get);
+
+        // An unmatched quote turns the rest of the program into a string until the next quote
+        lines.set(2, "    MUGNA NUMERO x = \"12, y = 2.5E1");
+        lexer.edited(2, 0, 0);
+        IncrementalLexer.Restyle restyle = lexer.restyle(lines::get);
+        assertEquals(2, restyle.firstLine());
+        assertEquals(List.of(span("string", lines.get(3).length())), restyle.spans().get(1));
+        assertEquals(lines.size() - 2, restyle.spans().size());
+    }
+
+    @Test
+    void testDroppedPassKeepsLinesDirty() {
+        IncrementalLexer lexer = new IncrementalLexer();
+        List<String> lines = new ArrayList<>(Arrays.asList(PROGRAM.split("\n", -1)));
+        lexer.reset(lines.size());
+        lexer.restyle(lines::get);
+
+        lines.set(3, "    MUGNA LETRA c = \"z");
+        lexer.edited(3, 0, 0);
+        IncrementalLexer.Restyle dropped = lexer.pass().run(lines::get);
+        assertEquals(3, dropped.firstLine());
+        assertTrue(lexer.isDirty());
+
+        // A later edit supersedes the dropped result; the next pass covers both lines
+        lines.set(8, "        x--");
+        lexer.edited(8, 0, 0);
+        IncrementalLexer.Restyle restyle = lexer.restyle(lines::get);
+        assertEquals(3, restyle.firstLine());
+        assertEquals(fullScan(String.join("\n", lines)).subList(3, 3 + restyle.spans().size()), restyle.spans());
+        assertFalse(lexer.isDirty());
+    }
+
+    @Test
+    void testInterruptedPassStops() {
+        IncrementalLexer lexer = new IncrementalLexer();
+        lexer.reset(3);
+        Thread.currentThread().interrupt();
+        try {
+            assertNull(lexer.pass().run(i -> "SUGOD"));
+        } finally {
+            Thread.interrupted();
+        }
+        assertTrue(lexer.isDirty());
+    }
+
+    @Test
+    void testRandomEditsMatchFullScan() {
+        Random random = new Random(42);
+        String alphabet = "ab1 .\"'@@\n\n=KUNG ";
+        StringBuilder doc = new StringBuilder(PROGRAM);
+        IncrementalLexer lexer = new IncrementalLexer();
+        lexer.reset(lineCount(doc));
+        List<List<IncrementalLexer.Span>> shown = new ArrayList<>(apply(new ArrayList<>(), lexer, doc));
+
+        for (int round = 0; round < 500; round++) {
+            // A few edits between highlighting passes, as when typing quickly
+            int edits = 1 + random.nextInt(3);
+            for (int e = 0; e < edits; e++) {
+                int position = random.nextInt(doc.length() + 1);
+                int end = Math.min(doc.length(), position + random.nextInt(6));
+                StringBuilder inserted = new StringBuilder();
+                for (int k = random.nextInt(4); k > 0; k--) inserted.append(alphabet.charAt(random.nextInt(alphabet.length())));
+
+                String removed = doc.substring(position, end);
+                int line = lineCount(doc.substring(0, position)) - 1;
+                doc.replace(position, end, inserted.toString());
+                lexer.edited(line, newlines(removed), newlines(inserted));
+                splice(shown, line, newlines(removed), newlines(inserted));
+            }
+            shown = apply(shown, lexer, doc);
+            assertEquals(fullScan(doc.toString()), shown, "after round " + round + ":\n" + doc);
+        }
+    }
+
+    /** Applies the next restyle to the displayed per-line styles */
+    private static List<List<IncrementalLexer.Span>> apply(List<List<IncrementalLexer.Span>> shown,
+                                                          IncrementalLexer lexer, CharSequence doc) {
+        String[] lines = doc.toString().split("\n", -1);
+        while (shown.size() < lines.length) shown.add(List.of());
+        IncrementalLexer.Restyle restyle = lexer.restyle(i -> lines[i]);
+        if (restyle != null) {
+            for (int i = 0; i < restyle.spans().size(); i++) shown.set(restyle.firstLine() + i, restyle.spans().get(i));
+        }
+        return shown;
+    }
+
+    /** Mirrors how the editor moves paragraph styles when lines are inserted or removed */
+    private static void splice(List<List<IncrementalLexer.Span>> shown, int line, int removed, int inserted) {
+        for (int i = 0; i < removed; i++) shown.remove(line + 1);
+        for (int i = 0; i < inserted; i++) shown.add(line + 1, List.of());
+    }
+
+    private static List<List<IncrementalLexer.Span>> fullScan(String doc) {
+        IncrementalLexer lexer = new IncrementalLexer();
+        String[] lines = doc.split("\n", -1);
+        lexer.reset(lines.length);
+        return lexer.restyle(i -> lines[i]).spans();
+    }
+
+    private static List<IncrementalLexer.Span> scan(String line) {
+        List<IncrementalLexer.Span> runs = new ArrayList<>();
+        IncrementalLexer.scanLine(line, (byte) 0, runs);
+        return runs;
+    }
+
+    private static IncrementalLexer.Span span(String style, int length) {
+        return new IncrementalLexer.Span(style, length);
+    }
+
+    private static int newlines(CharSequence text) {
+        return (int) text.chars().filter(c -> c == '\n').count();
+    }
+
+    private static int lineCount(CharSequence text) {
+        return newlines(text) + 1;
+    }
+}
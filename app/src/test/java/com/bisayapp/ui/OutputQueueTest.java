@@ -0,0 +1,95 @@
+package com.bisayapp.ui;
+
+import org.junit.jupiter.api.Test;
+import static org.junit.jupiter.api.Assertions.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Unit tests for OutputQueue
+ */
+class OutputQueueTest {
+
+    @Test
+    void testDrainJoinsRunsInOrder() {
+        OutputQueue queue = new OutputQueue();
+        queue.add("a", false);
+        queue.add("b\n", false);
+        queue.add("oops", true);
+        queue.add("c", false);
+
+        List<OutputQueue.Chunk> drained = new ArrayList<>();
+        assertTrue(queue.drain(Integer.MAX_VALUE, drained::add));
+        assertEquals(List.of(new OutputQueue.Chunk("ab\n", false), new OutputQueue.Chunk("oops", true),
+            new OutputQueue.Chunk("c", false)), drained);
+        assertEquals(0, queue.pending());
+        assertFalse(queue.drain(Integer.MAX_VALUE, drained::add));
+    }
+
+    @Test
+    void testDrainStopsAtBudget() {
+        OutputQueue queue = new OutputQueue();
+        for (int i = 0; i < 10; i++) queue.add("12345", false);
+
+        List<OutputQueue.Chunk> drained = new ArrayList<>();
+        queue.drain(12, drained::add);
+        assertEquals(List.of(new OutputQueue.Chunk("123451234512345", false)), drained);
+        assertEquals(35, queue.pending());
+    }
+
+    @Test
+    void testHadOutputIgnoresErrors() {
+        OutputQueue queue = new OutputQueue();
+        queue.add("", false);
+        queue.add("boom", true);
+        assertFalse(queue.hadOutput());
+        queue.add("x", false);
+        assertTrue(queue.hadOutput());
+    }
+
+    @Test
+    void testWriterWaitsUntilDrained() throws Exception {
+        OutputQueue queue = new OutputQueue(10);
+        queue.add("0123456789", false);
+
+        CountDownLatch written = new CountDownLatch(1);
+        Thread writer = new Thread(() -> {
+            queue.add("more", false);
+            written.countDown();
+        });
+        writer.start();
+        assertFalse(written.await(100, TimeUnit.MILLISECONDS));
+
+        StringBuilder shown = new StringBuilder();
+        queue.drain(Integer.MAX_VALUE, chunk -> shown.append(chunk.text()));
+        assertTrue(written.await(5, TimeUnit.SECONDS));
+        queue.drain(Integer.MAX_VALUE, chunk -> shown.append(chunk.text()));
+        assertEquals("0123456789more", shown.toString());
+        writer.join();
+    }
+
+    @Test
+    void testInterruptedWriterStops() throws Exception {
+        OutputQueue queue = new OutputQueue(1);
+        queue.add("x", false);
+
+        AtomicReference<Throwable> failure = new AtomicReference<>();
+        Thread writer = new Thread(() -> {
+            try {
+                queue.add("y", false);
+            } catch (RuntimeException e) {
+                failure.set(e);
+            }
+        });
+        writer.start();
+        writer.interrupt();
+        writer.join(5000);
+        assertFalse(writer.isAlive());
+        assertEquals("Output interrupted", failure.get().getMessage());
+        assertEquals(1, queue.pending());
+    }
+}